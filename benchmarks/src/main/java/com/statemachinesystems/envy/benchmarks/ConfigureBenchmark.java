@@ -0,0 +1,46 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Envy#configure(Class, ConfigSource, com.statemachinesystems.envy.ValueParser[])}.
+ *
+ * The warm benchmark repeatedly configures the same interface, so it benefits from any per-interface caching.
+ * The cold benchmark configures a freshly loaded copy of the interface each time, so it includes
+ * class loading as well as Envy's full interface analysis.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigureBenchmark {
+
+    @Param
+    public Shape shape;
+
+    private ConfigSource configSource;
+    private Class<?> configClass;
+
+    @Setup
+    public void setUp() {
+        configSource = Shape.configSource();
+        configClass = shape.getConfigClass();
+    }
+
+    @Benchmark
+    public Object warm() {
+        return Envy.configure(configClass, configSource);
+    }
+
+    @Benchmark
+    public Object cold() throws ClassNotFoundException {
+        Class<?> isolatedClass = new IsolatingClassLoader().loadClass(configClass.getName());
+        return Envy.configure(isolatedClass, configSource);
+    }
+}
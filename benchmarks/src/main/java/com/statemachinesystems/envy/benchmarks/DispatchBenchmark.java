@@ -0,0 +1,81 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.Envy;
+import com.statemachinesystems.envy.ValueParserFactory;
+import com.statemachinesystems.envy.benchmarks.configs.HandWrittenSmallConfig;
+import com.statemachinesystems.envy.benchmarks.configs.SmallConfig;
+import com.statemachinesystems.envy.benchmarks.configs.WideConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getter calls on proxies, compared with generated classes and a hand-written implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    private SmallConfig proxy;
+    private SmallConfig generated;
+    private SmallConfig handWritten;
+    private WideConfig wideProxy;
+
+    @Setup
+    public void setUp() {
+        Envy envy = new Envy(new ValueParserFactory(Envy.defaultValueParsers()), Shape.configSource());
+        proxy = envy.proxy(SmallConfig.class);
+        generated = envy.generate(SmallConfig.class);
+        handWritten = new HandWrittenSmallConfig(proxy);
+        wideProxy = envy.proxy(WideConfig.class);
+    }
+
+    @Benchmark
+    public int proxyPrimitive() {
+        return proxy.port();
+    }
+
+    @Benchmark
+    public void proxyAllGetters(Blackhole blackhole) {
+        readAll(proxy, blackhole);
+    }
+
+    @Benchmark
+    public int proxyWideLastGetter() {
+        return wideProxy.setting196();
+    }
+
+    @Benchmark
+    public int generatedPrimitive() {
+        return generated.port();
+    }
+
+    @Benchmark
+    public void generatedAllGetters(Blackhole blackhole) {
+        readAll(generated, blackhole);
+    }
+
+    @Benchmark
+    public int handWrittenPrimitive() {
+        return handWritten.port();
+    }
+
+    @Benchmark
+    public void handWrittenAllGetters(Blackhole blackhole) {
+        readAll(handWritten, blackhole);
+    }
+
+    private static void readAll(SmallConfig config, Blackhole blackhole) {
+        blackhole.consume(config.host());
+        blackhole.consume(config.port());
+        blackhole.consume(config.timeout());
+        blackhole.consume(config.enabled());
+        blackhole.consume(config.apiKey());
+        blackhole.consume(config.retries());
+    }
+}
@@ -0,0 +1,52 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>equals</code>, <code>hashCode</code> and <code>toString</code> on proxies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectMethodsBenchmark {
+
+    @Param
+    public Shape shape;
+
+    private Object config;
+    private Object equalConfig;
+
+    @Setup
+    public void setUp() {
+        ConfigSource configSource = Shape.configSource();
+        config = Envy.configure(shape.getConfigClass(), configSource);
+        equalConfig = Envy.configure(shape.getConfigClass(), configSource);
+    }
+
+    @Benchmark
+    public boolean equalsEqual() {
+        return config.equals(equalConfig);
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return config.equals(config);
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        return config.hashCode();
+    }
+
+    @Benchmark
+    public String toStrings() {
+        return config.toString();
+    }
+}
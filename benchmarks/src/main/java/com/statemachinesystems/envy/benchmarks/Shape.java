@@ -0,0 +1,74 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Parameter;
+import com.statemachinesystems.envy.benchmarks.configs.NestedConfig;
+import com.statemachinesystems.envy.benchmarks.configs.SmallConfig;
+import com.statemachinesystems.envy.benchmarks.configs.WideConfig;
+import com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * The configuration interfaces used by the benchmarks, along with a config source that provides
+ * a value for every parameter they use.
+ */
+public enum Shape {
+
+    SMALL(SmallConfig.class),
+    WIDE(WideConfig.class),
+    NESTED(NestedConfig.class);
+
+    private final Class<?> configClass;
+
+    Shape(Class<?> configClass) {
+        this.configClass = configClass;
+    }
+
+    public Class<?> getConfigClass() {
+        return configClass;
+    }
+
+    /**
+     * Provides a config source with values for all parameters of every shape.
+     *
+     * @return  a config source
+     */
+    public static ConfigSource configSource() {
+        Properties properties = new Properties();
+        for (Shape shape : values()) {
+            addValues(properties, shape.configClass, null);
+        }
+        return new SnapshotSystemPropertyConfigSource(properties);
+    }
+
+    private static void addValues(Properties properties, Class<?> configClass, Parameter prefix) {
+        for (Method method : configClass.getMethods()) {
+            Parameter parameter = Parameter.fromMethodName(method.getName());
+            if (prefix != null) {
+                parameter = prefix.join(parameter);
+            }
+
+            Class<?> type = method.getReturnType();
+            if (type.isInterface()) {
+                addValues(properties, type, parameter);
+            } else {
+                properties.setProperty(parameter.asSystemPropertyName(), sampleValue(type));
+            }
+        }
+    }
+
+    private static String sampleValue(Class<?> type) {
+        if (type == int.class || type == long.class) {
+            return "42";
+        } else if (type == boolean.class) {
+            return "true";
+        } else if (type == Duration.class) {
+            return "30s";
+        } else {
+            return "some value";
+        }
+    }
+}
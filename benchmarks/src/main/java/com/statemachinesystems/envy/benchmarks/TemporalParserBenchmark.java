@@ -0,0 +1,175 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.ValueParser;
+import com.statemachinesystems.envy.parsers.DurationValueParser;
+import com.statemachinesystems.envy.parsers.PeriodValueParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the scanning {@link DurationValueParser} and {@link PeriodValueParser} with the regex-based
+ * implementations they replaced, which are kept here as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemporalParserBenchmark {
+
+    public enum Input {
+        DURATION_UNLABELLED(true, "1500"),
+        DURATION_SHORT_LABEL(true, "30s"),
+        DURATION_LONG_LABEL(true, "250 milliseconds"),
+        PERIOD_SHORT_LABEL(false, "3m"),
+        PERIOD_LONG_LABEL(false, "2 years");
+
+        private final boolean duration;
+        private final String value;
+
+        Input(boolean duration, String value) {
+            this.duration = duration;
+            this.value = value;
+        }
+    }
+
+    @Param
+    public Input input;
+
+    private ValueParser<?> scanner;
+    private ValueParser<?> regex;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        scanner = input.duration ? new DurationValueParser() : new PeriodValueParser();
+        regex = input.duration ? new RegexDurationValueParser() : new RegexPeriodValueParser();
+        value = input.value;
+    }
+
+    @Benchmark
+    public Object scanner() {
+        return scanner.parseValue(value);
+    }
+
+    @Benchmark
+    public Object regex() {
+        return regex.parseValue(value);
+    }
+
+    static class RegexDurationValueParser implements ValueParser<Duration> {
+
+        private static Pattern pattern =
+                Pattern.compile("([-+]?\\d+)(\\s*(\\p{Lower}+))?", Pattern.UNICODE_CHARACTER_CLASS);
+
+        private static Map<String, ChronoUnit> units = new HashMap<>();
+
+        static {
+            for (String label : new String[] {"d", "day", "days"}) {
+                units.put(label, ChronoUnit.DAYS);
+            }
+            for (String label : new String[] {"h", "hour", "hours"}) {
+                units.put(label, ChronoUnit.HOURS);
+            }
+            for (String label : new String[] {"m", "min", "mins", "minute", "minutes"}) {
+                units.put(label, ChronoUnit.MINUTES);
+            }
+            for (String label : new String[] {"s", "sec", "secs", "second", "seconds"}) {
+                units.put(label, ChronoUnit.SECONDS);
+            }
+            for (String label : new String[] {"ms", "milli", "millis", "millisecond", "milliseconds"}) {
+                units.put(label, ChronoUnit.MILLIS);
+            }
+            for (String label : new String[] {"us", "\u03BCs", "micro", "micros", "microsecond", "microseconds"}) {
+                units.put(label, ChronoUnit.MICROS);
+            }
+            for (String label : new String[] {"ns", "nano", "nanos", "nanosecond", "nanoseconds"}) {
+                units.put(label, ChronoUnit.NANOS);
+            }
+        }
+
+        @Override
+        public Duration parseValue(String value) {
+            Matcher matcher = pattern.matcher(value);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid duration format: " + value);
+            }
+            long amount = Long.parseLong(matcher.group(1));
+            String label = matcher.group(3);
+            ChronoUnit unit = label == null ? ChronoUnit.MILLIS : units.get(label);
+            if (unit == null) {
+                throw new IllegalArgumentException("Invalid duration unit: " + label);
+            }
+            return Duration.of(amount, unit);
+        }
+
+        @Override
+        public Class<Duration> getValueClass() {
+            return Duration.class;
+        }
+    }
+
+    static class RegexPeriodValueParser implements ValueParser<Period> {
+
+        private static Pattern pattern = Pattern.compile("([-+]?\\d+)(\\s*(\\p{Lower}+))?");
+
+        private static Map<String, ChronoUnit> units = new HashMap<>();
+
+        static {
+            for (String label : new String[]{"d", "day", "days"}) {
+                units.put(label, ChronoUnit.DAYS);
+            }
+            for (String label : new String[]{"w", "week", "weeks"}) {
+                units.put(label, ChronoUnit.WEEKS);
+            }
+            for (String label : new String[]{"m", "mo", "month", "months"}) {
+                units.put(label, ChronoUnit.MONTHS);
+            }
+            for (String label : new String[]{"y", "year", "years"}) {
+                units.put(label, ChronoUnit.YEARS);
+            }
+        }
+
+        @Override
+        public Period parseValue(String value) {
+            Matcher matcher = pattern.matcher(value);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid period format: " + value);
+            }
+
+            int amount = Integer.parseInt(matcher.group(1));
+            String label = matcher.group(3);
+            ChronoUnit unit = label == null ? ChronoUnit.DAYS : units.get(label);
+            if (unit == null) {
+                throw new IllegalArgumentException("Invalid period unit: " + label);
+            }
+
+            switch (unit) {
+                case DAYS:
+                    return Period.ofDays(amount);
+                case WEEKS:
+                    return Period.ofWeeks(amount);
+                case MONTHS:
+                    return Period.ofMonths(amount);
+                case YEARS:
+                    return Period.ofYears(amount);
+                default:
+                    throw new IllegalStateException("Unsupported unit:" + unit);
+            }
+        }
+
+        @Override
+        public Class<Period> getValueClass() {
+            return Period.class;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.statemachinesystems.envy.benchmarks;
+
+import com.statemachinesystems.envy.ValueParser;
+import com.statemachinesystems.envy.parsers.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each built-in {@link ValueParser} on a typical input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueParserBenchmark {
+
+    public enum Parser {
+        ARRAY(new ArrayValueParser<>(new IntegerValueParser()), "1,2,3,4,5,6,7,8"),
+        BIG_DECIMAL(new BigDecimalValueParser(), "12345.6789"),
+        BIG_INTEGER(new BigIntegerValueParser(), "123456789012345678901234567890"),
+        BOOLEAN(new BooleanValueParser(), "true"),
+        BYTE(new ByteValueParser(), "12"),
+        CHARACTER(new CharacterValueParser(), "c"),
+        CLASS(new ClassValueParser(), "java.lang.String"),
+        DOUBLE(new DoubleValueParser(), "3.14159"),
+        DURATION(new DurationValueParser(), "30 seconds"),
+        ENUM(new EnumValueParser<>(TimeUnit.class), "SECONDS"),
+        FILE(new FileValueParser(), "/etc/myapp/app.properties"),
+        FLOAT(new FloatValueParser(), "2.5"),
+        INET_ADDRESS(new InetAddressValueParser(), "127.0.0.1"),
+        INET4_ADDRESS(new Inet4AddressValueParser(), "10.0.0.1"),
+        INET6_ADDRESS(new Inet6AddressValueParser(), "::1"),
+        INET_SOCKET_ADDRESS(new InetSocketAddressValueParser(), "localhost:8080"),
+        INTEGER(new IntegerValueParser(), "123456"),
+        INT_ARRAY(PrimitiveArrayValueParser.forComponentType(int.class, new IntegerValueParser(), ","),
+                "1,2,3,4,5,6,7,8"),
+        LONG(new LongValueParser(), "1234567890123"),
+        OBJECT_AS_STRING(new ObjectAsStringValueParser(), "some value"),
+        PATTERN(new PatternValueParser(), "[a-z]+\\d*"),
+        PERIOD(new PeriodValueParser(), "3 months"),
+        REFLECTION(ReflectionValueParser.parserOrNull(StringBuilder.class), "some value"),
+        SHORT(new ShortValueParser(), "1234"),
+        STRING(new StringValueParser(), "some value"),
+        URI(new UriValueParser(), "https://example.com/path?query=1"),
+        URL(new UrlValueParser(), "https://example.com/path?query=1"),
+        UUID(new UuidValueParser(), "123e4567-e89b-12d3-a456-426614174000");
+
+        private final ValueParser<?> parser;
+        private final String input;
+
+        Parser(ValueParser<?> parser, String input) {
+            this.parser = parser;
+            this.input = input;
+        }
+    }
+
+    @Param
+    public Parser parser;
+
+    private ValueParser<?> valueParser;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        valueParser = parser.parser;
+        input = parser.input;
+    }
+
+    @Benchmark
+    public Object parse() {
+        return valueParser.parseValue(input);
+    }
+}
@@ -0,0 +1,55 @@
+package com.statemachinesystems.envy.benchmarks.configs;
+
+import java.time.Duration;
+
+/**
+ * A hand-written implementation of {@link SmallConfig}, as a baseline for getter dispatch.
+ */
+public final class HandWrittenSmallConfig implements SmallConfig {
+
+    private final String host;
+    private final int port;
+    private final Duration timeout;
+    private final boolean enabled;
+    private final String apiKey;
+    private final int retries;
+
+    public HandWrittenSmallConfig(SmallConfig config) {
+        this.host = config.host();
+        this.port = config.port();
+        this.timeout = config.timeout();
+        this.enabled = config.enabled();
+        this.apiKey = config.apiKey();
+        this.retries = config.retries();
+    }
+
+    @Override
+    public String host() {
+        return host;
+    }
+
+    @Override
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public Duration timeout() {
+        return timeout;
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public String apiKey() {
+        return apiKey;
+    }
+
+    @Override
+    public int retries() {
+        return retries;
+    }
+}
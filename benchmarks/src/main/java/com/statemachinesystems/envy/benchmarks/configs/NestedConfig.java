@@ -0,0 +1,34 @@
+package com.statemachinesystems.envy.benchmarks.configs;
+
+/**
+ * A deeply nested configuration interface, with five levels of nesting below the top level.
+ */
+public interface NestedConfig {
+    String name();
+    Level1 level1();
+
+    interface Level1 {
+        int value();
+        Level2 level2();
+    }
+
+    interface Level2 {
+        int value();
+        Level3 level3();
+    }
+
+    interface Level3 {
+        int value();
+        Level4 level4();
+    }
+
+    interface Level4 {
+        int value();
+        Level5 level5();
+    }
+
+    interface Level5 {
+        int value();
+        String name();
+    }
+}
@@ -0,0 +1,22 @@
+package com.statemachinesystems.envy.benchmarks.configs;
+
+import com.statemachinesystems.envy.Default;
+import com.statemachinesystems.envy.Sensitive;
+
+import java.time.Duration;
+
+/**
+ * A small configuration interface, typical of a single service component.
+ */
+public interface SmallConfig {
+    String host();
+    int port();
+    Duration timeout();
+    boolean enabled();
+
+    @Sensitive
+    String apiKey();
+
+    @Default("10")
+    int retries();
+}
@@ -0,0 +1,209 @@
+package com.statemachinesystems.envy.benchmarks.configs;
+
+import java.time.Duration;
+
+/**
+ * A wide configuration interface with 200 getters of mixed types.
+ */
+public interface WideConfig {
+    String setting000();
+    int setting001();
+    long setting002();
+    boolean setting003();
+    Duration setting004();
+    String setting005();
+    int setting006();
+    long setting007();
+    boolean setting008();
+    Duration setting009();
+    String setting010();
+    int setting011();
+    long setting012();
+    boolean setting013();
+    Duration setting014();
+    String setting015();
+    int setting016();
+    long setting017();
+    boolean setting018();
+    Duration setting019();
+    String setting020();
+    int setting021();
+    long setting022();
+    boolean setting023();
+    Duration setting024();
+    String setting025();
+    int setting026();
+    long setting027();
+    boolean setting028();
+    Duration setting029();
+    String setting030();
+    int setting031();
+    long setting032();
+    boolean setting033();
+    Duration setting034();
+    String setting035();
+    int setting036();
+    long setting037();
+    boolean setting038();
+    Duration setting039();
+    String setting040();
+    int setting041();
+    long setting042();
+    boolean setting043();
+    Duration setting044();
+    String setting045();
+    int setting046();
+    long setting047();
+    boolean setting048();
+    Duration setting049();
+    String setting050();
+    int setting051();
+    long setting052();
+    boolean setting053();
+    Duration setting054();
+    String setting055();
+    int setting056();
+    long setting057();
+    boolean setting058();
+    Duration setting059();
+    String setting060();
+    int setting061();
+    long setting062();
+    boolean setting063();
+    Duration setting064();
+    String setting065();
+    int setting066();
+    long setting067();
+    boolean setting068();
+    Duration setting069();
+    String setting070();
+    int setting071();
+    long setting072();
+    boolean setting073();
+    Duration setting074();
+    String setting075();
+    int setting076();
+    long setting077();
+    boolean setting078();
+    Duration setting079();
+    String setting080();
+    int setting081();
+    long setting082();
+    boolean setting083();
+    Duration setting084();
+    String setting085();
+    int setting086();
+    long setting087();
+    boolean setting088();
+    Duration setting089();
+    String setting090();
+    int setting091();
+    long setting092();
+    boolean setting093();
+    Duration setting094();
+    String setting095();
+    int setting096();
+    long setting097();
+    boolean setting098();
+    Duration setting099();
+    String setting100();
+    int setting101();
+    long setting102();
+    boolean setting103();
+    Duration setting104();
+    String setting105();
+    int setting106();
+    long setting107();
+    boolean setting108();
+    Duration setting109();
+    String setting110();
+    int setting111();
+    long setting112();
+    boolean setting113();
+    Duration setting114();
+    String setting115();
+    int setting116();
+    long setting117();
+    boolean setting118();
+    Duration setting119();
+    String setting120();
+    int setting121();
+    long setting122();
+    boolean setting123();
+    Duration setting124();
+    String setting125();
+    int setting126();
+    long setting127();
+    boolean setting128();
+    Duration setting129();
+    String setting130();
+    int setting131();
+    long setting132();
+    boolean setting133();
+    Duration setting134();
+    String setting135();
+    int setting136();
+    long setting137();
+    boolean setting138();
+    Duration setting139();
+    String setting140();
+    int setting141();
+    long setting142();
+    boolean setting143();
+    Duration setting144();
+    String setting145();
+    int setting146();
+    long setting147();
+    boolean setting148();
+    Duration setting149();
+    String setting150();
+    int setting151();
+    long setting152();
+    boolean setting153();
+    Duration setting154();
+    String setting155();
+    int setting156();
+    long setting157();
+    boolean setting158();
+    Duration setting159();
+    String setting160();
+    int setting161();
+    long setting162();
+    boolean setting163();
+    Duration setting164();
+    String setting165();
+    int setting166();
+    long setting167();
+    boolean setting168();
+    Duration setting169();
+    String setting170();
+    int setting171();
+    long setting172();
+    boolean setting173();
+    Duration setting174();
+    String setting175();
+    int setting176();
+    long setting177();
+    boolean setting178();
+    Duration setting179();
+    String setting180();
+    int setting181();
+    long setting182();
+    boolean setting183();
+    Duration setting184();
+    String setting185();
+    int setting186();
+    long setting187();
+    boolean setting188();
+    Duration setting189();
+    String setting190();
+    int setting191();
+    long setting192();
+    boolean setting193();
+    Duration setting194();
+    String setting195();
+    int setting196();
+    long setting197();
+    boolean setting198();
+    Duration setting199();
+}
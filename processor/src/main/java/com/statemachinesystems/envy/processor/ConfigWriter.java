@@ -0,0 +1,780 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.Default;
+import com.statemachinesystems.envy.Name;
+import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.Parameter;
+import com.statemachinesystems.envy.Prefix;
+import com.statemachinesystems.envy.Sensitive;
+import com.statemachinesystems.envy.Separator;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.*;
+
+/**
+ * Writes the source of a generated implementation for a single configuration interface.
+ *
+ * Mirrors the runtime behaviour of <code>ConfigExtractor</code> and <code>ValueParserFactory</code>:
+ * method resolution through super-interfaces, naming, defaults, nullability, optional wrappers,
+ * nesting and the precedence of custom parsers, built-in parsers, enums, arrays and
+ * <code>String</code> constructors.
+ */
+class ConfigWriter {
+
+    private static final String ENVY = "com.statemachinesystems.envy";
+    private static final String PARSERS = ENVY + ".parsers";
+
+    private static final Map<String, String> BUILT_IN_PARSERS = new HashMap<String, String>();
+
+    static {
+        BUILT_IN_PARSERS.put("java.math.BigDecimal", PARSERS + ".BigDecimalValueParser");
+        BUILT_IN_PARSERS.put("java.math.BigInteger", PARSERS + ".BigIntegerValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Boolean", PARSERS + ".BooleanValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Byte", PARSERS + ".ByteValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Character", PARSERS + ".CharacterValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Class", PARSERS + ".ClassValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Double", PARSERS + ".DoubleValueParser");
+        BUILT_IN_PARSERS.put("java.time.Duration", PARSERS + ".DurationValueParser");
+        BUILT_IN_PARSERS.put("java.io.File", PARSERS + ".FileValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Float", PARSERS + ".FloatValueParser");
+        BUILT_IN_PARSERS.put("java.net.InetAddress", PARSERS + ".InetAddressValueParser");
+        BUILT_IN_PARSERS.put("java.net.Inet4Address", PARSERS + ".Inet4AddressValueParser");
+        BUILT_IN_PARSERS.put("java.net.Inet6Address", PARSERS + ".Inet6AddressValueParser");
+        BUILT_IN_PARSERS.put("java.net.InetSocketAddress", PARSERS + ".InetSocketAddressValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Integer", PARSERS + ".IntegerValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Long", PARSERS + ".LongValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Object", PARSERS + ".ObjectAsStringValueParser");
+        BUILT_IN_PARSERS.put("java.util.regex.Pattern", PARSERS + ".PatternValueParser");
+        BUILT_IN_PARSERS.put("java.time.Period", PARSERS + ".PeriodValueParser");
+        BUILT_IN_PARSERS.put("java.lang.Short", PARSERS + ".ShortValueParser");
+        BUILT_IN_PARSERS.put("java.lang.String", PARSERS + ".StringValueParser");
+        BUILT_IN_PARSERS.put("java.util.UUID", PARSERS + ".UuidValueParser");
+        BUILT_IN_PARSERS.put("java.net.URI", PARSERS + ".UriValueParser");
+        BUILT_IN_PARSERS.put("java.net.URL", PARSERS + ".UrlValueParser");
+    }
+
+    private static final String[] FACTORY_METHOD_NAMES = { "valueOf", "parse", "of", "fromString" };
+
+    private static final Map<String, String> WRAPPER_FACTORIES = new HashMap<String, String>();
+
+    static {
+        WRAPPER_FACTORIES.put("java.util.Optional", "java.util.Optional.ofNullable");
+        WRAPPER_FACTORIES.put("scala.Option", "scala.Option.apply");
+        WRAPPER_FACTORIES.put("com.google.common.base.Optional", "com.google.common.base.Optional.fromNullable");
+    }
+
+    private static final Map<String, String> PRIMITIVE_WRAPPERS = new HashMap<String, String>();
+
+    static {
+        PRIMITIVE_WRAPPERS.put("java.util.OptionalInt", "java.lang.Integer");
+        PRIMITIVE_WRAPPERS.put("java.util.OptionalLong", "java.lang.Long");
+        PRIMITIVE_WRAPPERS.put("java.util.OptionalDouble", "java.lang.Double");
+    }
+
+    private static final Map<String, String> COLLECTION_FACTORIES = new HashMap<String, String>();
+
+    static {
+        COLLECTION_FACTORIES.put("java.util.List", PARSERS + ".CollectionValueParser.listOf");
+        COLLECTION_FACTORIES.put("java.util.Collection", PARSERS + ".CollectionValueParser.listOf");
+        COLLECTION_FACTORIES.put("java.util.Set", PARSERS + ".CollectionValueParser.setOf");
+        COLLECTION_FACTORIES.put("java.util.EnumSet", PARSERS + ".CollectionValueParser.enumSetOf");
+        COLLECTION_FACTORIES.put("java.util.Map", PARSERS + ".MapValueParser.mapOf");
+        COLLECTION_FACTORIES.put("java.util.EnumMap", PARSERS + ".MapValueParser.enumMapOf");
+    }
+
+    private final Types types;
+    private final Elements elements;
+    private final TypeElement configInterface;
+    private final DeclaredType configType;
+    private final String interfaceName;
+    private final String packageName;
+    private final String simpleName;
+    private final Map<String, String> customParsers = new HashMap<String, String>();
+
+    private final Map<String, String> parserFields = new LinkedHashMap<String, String>();
+    private final List<String> declarations = new ArrayList<String>();
+    private final List<String> helpers = new ArrayList<String>();
+    private final Set<TypeElement> nestedInterfaces = new LinkedHashSet<TypeElement>();
+
+    ConfigWriter(ProcessingEnvironment processingEnv, TypeElement configInterface, List<TypeMirror> customParsers)
+            throws ProcessingException {
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.configInterface = configInterface;
+        this.configType = (DeclaredType) configInterface.asType();
+        this.interfaceName = types.erasure(configType).toString();
+
+        String generatedName = EnvyProcessor.generatedClassName(configInterface);
+        int lastDot = generatedName.lastIndexOf('.');
+        this.packageName = lastDot < 0 ? "" : generatedName.substring(0, lastDot);
+        this.simpleName = generatedName.substring(lastDot + 1);
+
+        for (TypeMirror parser : customParsers) {
+            this.customParsers.put(customParserValueType(parser), types.erasure(parser).toString());
+        }
+    }
+
+    Set<TypeElement> getNestedInterfaces() {
+        return nestedInterfaces;
+    }
+
+    String write() throws ProcessingException {
+        if (!configInterface.getTypeParameters().isEmpty()) {
+            throw new ProcessingException("Generic configuration interfaces are not supported", configInterface);
+        }
+
+        Prefix prefix = configInterface.getAnnotation(Prefix.class);
+        try {
+            declarations.add(String.format("private static final %s.Parameter PREFIX = %s;", ENVY,
+                    prefix != null ? newParameter(new Parameter(prefix.value())) : "null"));
+        } catch (IllegalArgumentException e) {
+            throw new ProcessingException(e.getMessage(), configInterface);
+        }
+
+        List<Property> properties = new ArrayList<Property>();
+        for (ExecutableElement method : getMethodsByName(configInterface).values()) {
+            properties.add(new Property(method, properties.size()));
+        }
+
+        Source source = new Source();
+        if (!packageName.isEmpty()) {
+            source.line("package %s;", packageName).line();
+        }
+        source.line("/**")
+                .line(" * Implementation of {@link %s} generated by the Envy annotation processor.", interfaceName)
+                .line(" */")
+                .line("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})")
+                .line("public final class %s implements %s, java.io.Serializable {", simpleName, interfaceName)
+                .line()
+                .line("    private static final long serialVersionUID = 1L;");
+
+        List<String> extraction = new ArrayList<String>();
+        for (Property property : properties) {
+            extraction.addAll(property.extraction());
+        }
+
+        for (String declaration : declarations) {
+            source.line("    %s", declaration);
+        }
+        source.line();
+        writeFactoryMethods(source, extraction, properties);
+        for (String helper : helpers) {
+            source.append(helper).line();
+        }
+        writeFieldsAndConstructor(source, properties);
+        writeGetters(source, properties);
+        writeEquals(source, properties);
+        writeHashCode(source, properties);
+        writeToString(source, properties);
+        source.line("}");
+
+        return source.toString();
+    }
+
+    private void writeFactoryMethods(Source source, List<String> extraction, List<Property> properties) {
+        source.line("    /**")
+                .line("     * Creates a configuration object using the default configuration source.")
+                .line("     *")
+                .line("     * @return  a configuration object that implements {@link %s}", interfaceName)
+                .line("     */")
+                .line("    public static %s configure() {", interfaceName)
+                .line("        return extract(%s.Envy.defaultConfigSource());", ENVY)
+                .line("    }")
+                .line()
+                .line("    /**")
+                .line("     * Creates a configuration object using the given configuration source.")
+                .line("     *")
+                .line("     * @param configSource  the configuration source to use")
+                .line("     * @return              a configuration object that implements {@link %s}", interfaceName)
+                .line("     */")
+                .line("    public static %s extract(%s.ConfigSource configSource) {", interfaceName, ENVY)
+                .line("        return extract(configSource, PREFIX);")
+                .line("    }")
+                .line()
+                .line("    /**")
+                .line("     * Creates a configuration object using the given configuration source and parameter prefix.")
+                .line("     *")
+                .line("     * @param configSource  the configuration source to use")
+                .line("     * @param prefix        the prefix applied to all parameter names, or null")
+                .line("     * @return              a configuration object that implements {@link %s}", interfaceName)
+                .line("     */")
+                .line("    public static %s extract(%s.ConfigSource configSource, %s.Parameter prefix) {",
+                        interfaceName, ENVY, ENVY)
+                .line("        %s.Parameter parameter;", ENVY)
+                .line("        String value;");
+        for (String line : extraction) {
+            source.line("        %s", line);
+        }
+        source.line("        return new %s(%s);", simpleName, constructorArguments(properties, "v$"))
+                .line("    }")
+                .line()
+                .line("    private static %s.Parameter parameter(%s.Parameter prefix, %s.Parameter name) {",
+                        ENVY, ENVY, ENVY)
+                .line("        return prefix != null ? prefix.join(name) : name;")
+                .line("    }")
+                .line();
+    }
+
+    private void writeFieldsAndConstructor(Source source, List<Property> properties) {
+        for (Property property : properties) {
+            source.line("    private final %s %s;", property.typeName, property.name);
+            if (property.sensitive) {
+                source.line("    private final boolean %s$missing;", property.name);
+            }
+        }
+        source.line();
+
+        List<String> parameters = new ArrayList<String>();
+        for (Property property : properties) {
+            parameters.add(property.typeName + " " + property.name);
+            if (property.sensitive) {
+                parameters.add("boolean " + property.name + "$missing");
+            }
+        }
+        source.line("    private %s(%s) {", simpleName, join(parameters));
+        for (Property property : properties) {
+            source.line("        this.%s = %s;", property.name, property.name);
+            if (property.sensitive) {
+                source.line("        this.%s$missing = %s$missing;", property.name, property.name);
+            }
+        }
+        source.line("    }").line();
+    }
+
+    private void writeGetters(Source source, List<Property> properties) {
+        for (Property property : properties) {
+            source.line("    @Override")
+                    .line("    public %s %s() {", property.typeName, property.name)
+                    .line("        return %s;", property.name)
+                    .line("    }")
+                    .line();
+        }
+    }
+
+    private void writeEquals(Source source, List<Property> properties) {
+        source.line("    @Override")
+                .line("    public boolean equals(Object o) {")
+                .line("        if (this == o) return true;")
+                .line("        if (o == null || getClass() != o.getClass()) return false;")
+                .line("        %s that = (%s) o;", simpleName, simpleName);
+        if (properties.isEmpty()) {
+            source.line("        return true;");
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String comparison;
+            switch (property.type.getKind()) {
+                case FLOAT:
+                    comparison = String.format("Float.compare(%s, that.%s) == 0", property.name, property.name);
+                    break;
+                case DOUBLE:
+                    comparison = String.format("Double.compare(%s, that.%s) == 0", property.name, property.name);
+                    break;
+                default:
+                    comparison = property.type.getKind().isPrimitive()
+                            ? String.format("%s == that.%s", property.name, property.name)
+                            : String.format("java.util.Objects.deepEquals(%s, that.%s)", property.name, property.name);
+            }
+            source.line("        %s%s%s", i == 0 ? "return " : "        && ", comparison,
+                    i == properties.size() - 1 ? ";" : "");
+        }
+        source.line("    }").line();
+    }
+
+    private void writeHashCode(Source source, List<Property> properties) {
+        source.line("    @Override")
+                .line("    public int hashCode() {")
+                .line("        int result = 1;");
+        for (Property property : properties) {
+            source.line("        result = 31 * result + %s;", hashCodeExpression(property));
+        }
+        source.line("        return result;")
+                .line("    }")
+                .line();
+    }
+
+    private String hashCodeExpression(Property property) {
+        TypeMirror type = property.type;
+        if (type.getKind().isPrimitive()) {
+            return String.format("%s.hashCode(%s)", types.boxedClass((PrimitiveType) type).getSimpleName(),
+                    property.name);
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror componentType = ((ArrayType) type).getComponentType();
+            return String.format("java.util.Arrays.%s(%s)",
+                    componentType.getKind().isPrimitive() ? "hashCode" : "deepHashCode", property.name);
+        } else {
+            return String.format("java.util.Objects.hashCode(%s)", property.name);
+        }
+    }
+
+    private void writeToString(Source source, List<Property> properties) {
+        source.line("    @Override")
+                .line("    public String toString() {")
+                .line("        StringBuilder buf = new StringBuilder();")
+                .line("        buf.append('{');");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String formatted = property.type.getKind() == TypeKind.ARRAY
+                    ? String.format("java.util.Arrays.toString(%s)", property.name)
+                    : String.format("String.valueOf(%s)", property.name);
+            if (property.sensitive) {
+                formatted = String.format("%s$missing ? %s : %s.values.SensitiveValue.MASKED_VALUE",
+                        property.name, formatted, ENVY);
+            }
+            source.line("        buf.append(\"%s%s=\").append(%s);", i == 0 ? "" : ", ", property.name, formatted);
+        }
+        source.line("        buf.append('}');")
+                .line("        return buf.toString();")
+                .line("    }");
+    }
+
+    private Map<String, ExecutableElement> getMethodsByName(TypeElement type) {
+        Map<String, ExecutableElement> methodsByName = new TreeMap<String, ExecutableElement>();
+        for (TypeMirror superInterface : type.getInterfaces()) {
+            methodsByName.putAll(getMethodsByName((TypeElement) types.asElement(superInterface)));
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.STATIC)) {
+                methodsByName.put(method.getSimpleName().toString(), method);
+            }
+        }
+        return methodsByName;
+    }
+
+    private String customParserValueType(TypeMirror parser) throws ProcessingException {
+        TypeElement parserElement = (TypeElement) types.asElement(parser);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(parserElement))) {
+            if (method.getSimpleName().contentEquals("getValueClass") && method.getParameters().isEmpty()) {
+                ExecutableType methodType = (ExecutableType) types.asMemberOf((DeclaredType) parser, method);
+                TypeMirror returnType = methodType.getReturnType();
+                if (returnType.getKind() == TypeKind.DECLARED
+                        && ((DeclaredType) returnType).getTypeArguments().size() == 1) {
+                    return types.erasure(((DeclaredType) returnType).getTypeArguments().get(0)).toString();
+                }
+            }
+        }
+        throw new ProcessingException("Cannot determine value class of parser " + parser, parserElement);
+    }
+
+    private String newParameter(Parameter parameter) {
+        return String.format("new %s.Parameter(\"%s\")", ENVY, parameter.asEnvironmentVariableName());
+    }
+
+    private String parserKey(TypeMirror type) {
+        TypeMirror boxed = type.getKind().isPrimitive()
+                ? types.boxedClass((PrimitiveType) type).asType()
+                : type;
+        return types.erasure(boxed).toString();
+    }
+
+    private String parseExpressionOrNull(TypeMirror type, String raw, Element method) throws ProcessingException {
+        Separator separator = method.getAnnotation(Separator.class);
+        String collectionFactory = type.getKind() == TypeKind.DECLARED
+                ? COLLECTION_FACTORIES.get(types.erasure(type).toString())
+                : null;
+        if (separator != null && type.getKind() != TypeKind.ARRAY && collectionFactory == null) {
+            throw new ProcessingException("@Separator is only applicable to array, collection and map values", method);
+        }
+        String tokenizer = separator != null
+                ? String.format("new %s.SeparatedValueTokenizer(%s, %s, %s)",
+                        PARSERS, javaString(separator.value()), separator.trim(), separator.quoting())
+                : null;
+
+        String parser = parserFieldOrNull(type);
+        if (parser != null) {
+            return String.format("%s.parseValue(%s)", parser, raw);
+        }
+
+        if (collectionFactory != null) {
+            List<String> typeArgumentParsers = new ArrayList<String>();
+            for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+                if (typeArgument.getKind() != TypeKind.DECLARED
+                        || !((DeclaredType) typeArgument).getTypeArguments().isEmpty()) {
+                    throw new ProcessingException("Unsupported type argument in " + type, method);
+                }
+                String typeArgumentParser = parserFieldOrNull(typeArgument);
+                if (typeArgumentParser == null) {
+                    throw new ProcessingException(
+                            String.format("Cannot parse elements of class %s in %s", typeArgument, type), method);
+                }
+                typeArgumentParsers.add(typeArgumentParser);
+            }
+            if (typeArgumentParsers.isEmpty()) {
+                throw new ProcessingException("Missing type arguments for " + type, method);
+            }
+            typeArgumentParsers.add(tokenizer != null ? tokenizer : PARSERS + ".SeparatedValueTokenizer.DEFAULT");
+            String collectionParser = parserField(String.format("%s.ValueParser<%s>", ENVY, type),
+                    String.format("%s(%s)", collectionFactory, join(typeArgumentParsers)));
+            return String.format("%s.parseValue(%s)", collectionParser, raw);
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror componentType = ((ArrayType) type).getComponentType();
+            if (componentType.getKind() == TypeKind.ARRAY) {
+                throw new ProcessingException("Nested arrays are not supported", method);
+            }
+            String componentParser = parserFieldOrNull(componentType);
+            if (componentParser == null) {
+                return null;
+            }
+            if (tokenizer != null) {
+                String fieldType = String.format("%s.ValueParser<%s>", ENVY, type);
+                String initializer = componentType.getKind().isPrimitive()
+                        ? String.format("(%s) %s.PrimitiveArrayValueParser.forComponentType(%s.class, %s, %s)",
+                                fieldType, PARSERS, componentType, componentParser, tokenizer)
+                        : String.format("new %s.ArrayValueParser<%s>(%s, %s)",
+                                PARSERS, componentType, componentParser, tokenizer);
+                return String.format("%s.parseValue(%s)", parserField(fieldType, initializer), raw);
+            }
+            if (componentType.getKind().isPrimitive()) {
+                String fieldType = String.format("%s.ValueParser<%s>", ENVY, type);
+                String primitiveArrayParser = parserField(fieldType, String.format(
+                        "(%s) %s.PrimitiveArrayValueParser.forComponentType(%s.class, %s, %s.ArrayValueParser.DEFAULT_SEPARATOR)",
+                        fieldType, PARSERS, componentType, componentParser, PARSERS));
+                return String.format("%s.parseValue(%s)", primitiveArrayParser, raw);
+            }
+            return String.format("%s(%s)", arrayHelper(type, componentType, componentParser), raw);
+        }
+        return null;
+    }
+
+    private String parserFieldOrNull(TypeMirror type) {
+        String key = parserKey(type);
+        String parserClass = customParsers.containsKey(key) ? customParsers.get(key) : BUILT_IN_PARSERS.get(key);
+
+        if (parserClass != null) {
+            return parserField(parserClass, String.format("new %s()", parserClass));
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) types.asElement(type);
+        if (element.getKind() == ElementKind.ENUM) {
+            return parserField(String.format("%s.ValueParser<%s>", ENVY, key), enumParser(key));
+        } else if (element.getKind() == ElementKind.CLASS && hasStringConstructor(element)) {
+            return parserField(String.format("%s.ValueParser<%s>", ENVY, key),
+                    creatingParser(key, String.format("new %s(value)", key)));
+        }
+        String factoryMethod = element.getKind() == ElementKind.CLASS ? factoryMethodOrNull(element) : null;
+        if (factoryMethod != null) {
+            return parserField(String.format("%s.ValueParser<%s>", ENVY, key),
+                    creatingParser(key, String.format("%s.%s(value)", key, factoryMethod)));
+        }
+        return null;
+    }
+
+    private String parserField(String fieldType, String initializer) {
+        String field = parserFields.get(initializer);
+        if (field == null) {
+            field = "PARSER_" + parserFields.size();
+            parserFields.put(initializer, field);
+            declarations.add(String.format("private static final %s %s = %s;", fieldType, field, initializer));
+        }
+        return field;
+    }
+
+    private boolean hasStringConstructor(TypeElement element) {
+        TypeMirror stringType = elements.getTypeElement(String.class.getName()).asType();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)
+                    && constructor.getParameters().size() == 1
+                    && types.isAssignable(stringType, constructor.getParameters().get(0).asType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a factory method as {@link com.statemachinesystems.envy.parsers.ReflectionValueParser} does,
+     * returning its name, or null.
+     */
+    private String factoryMethodOrNull(TypeElement element) {
+        TypeMirror elementType = types.erasure(element.asType());
+        List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(element));
+        for (String name : FACTORY_METHOD_NAMES) {
+            String best = null;
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().contentEquals(name)
+                        && method.getModifiers().contains(Modifier.PUBLIC)
+                        && method.getModifiers().contains(Modifier.STATIC)
+                        && method.getParameters().size() == 1
+                        && types.isAssignable(types.erasure(method.getReturnType()), elementType)) {
+                    String parameterType = types.erasure(method.getParameters().get(0).asType()).toString();
+                    if (parameterType.equals(String.class.getName())) {
+                        return name;
+                    } else if (parameterType.equals(CharSequence.class.getName())) {
+                        best = name;
+                    }
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    private String enumParser(String enumName) {
+        return String.format("new %s.EnumValueParser<%s>(%s.class)", PARSERS, enumName, enumName);
+    }
+
+    private String creatingParser(String className, String creation) {
+        return new Source()
+                .line("new %s.ValueParser<%s>() {", ENVY, className)
+                .line("        @Override")
+                .line("        public %s parseValue(String value) {", className)
+                .line("            try {")
+                .line("                return %s;", creation)
+                .line("            } catch (RuntimeException e) {")
+                .line("                throw e;")
+                .line("            } catch (Exception e) {")
+                .line("                throw new IllegalArgumentException(e.getMessage(), e);")
+                .line("            }")
+                .line("        }")
+                .line()
+                .line("        @Override")
+                .line("        public Class<%s> getValueClass() {", className)
+                .line("            return %s.class;", className)
+                .line("        }")
+                .append("    }")
+                .toString();
+    }
+
+    private String arrayHelper(TypeMirror arrayType, TypeMirror componentType, String componentParser) {
+        String name = "parseArray" + helpers.size();
+        helpers.add(new Source()
+                .line("    private static %s %s(String value) {", arrayType, name)
+                .line("        String[] parts = value.isEmpty()")
+                .line("                ? new String[0]")
+                .line("                : value.split(%s.ArrayValueParser.DEFAULT_SEPARATOR, -1);", PARSERS)
+                .line("        %s array = new %s[parts.length];", arrayType, types.erasure(componentType))
+                .line("        for (int i = 0; i < parts.length; i++) {")
+                .line("            array[i] = %s.parseValue(parts[i]);", componentParser)
+                .line("        }")
+                .line("        return array;")
+                .line("    }")
+                .toString());
+        return name;
+    }
+
+    private static String constructorArguments(List<Property> properties, String localPrefix) {
+        List<String> arguments = new ArrayList<String>();
+        for (Property property : properties) {
+            arguments.add(localPrefix + property.name);
+            if (property.sensitive) {
+                arguments.add("m$" + property.name);
+            }
+        }
+        return join(arguments);
+    }
+
+    private static String join(List<String> parts) {
+        StringBuilder buf = new StringBuilder();
+        for (String part : parts) {
+            if (buf.length() > 0) {
+                buf.append(", ");
+            }
+            buf.append(part);
+        }
+        return buf.toString();
+    }
+
+    private static String javaString(String value) {
+        StringBuilder buf = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    buf.append("\\\"");
+                    break;
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                case '\r':
+                    buf.append("\\r");
+                    break;
+                case '\t':
+                    buf.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        buf.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buf.append(c);
+                    }
+            }
+        }
+        return buf.append('"').toString();
+    }
+
+    /**
+     * A single accessor method of the configuration interface, with the code that extracts its value.
+     */
+    private class Property {
+
+        private final ExecutableElement method;
+        private final String name;
+        private final TypeMirror type;
+        private final String typeName;
+        private final String parameterField;
+        private final boolean sensitive;
+
+        private Property(ExecutableElement method, int index) throws ProcessingException {
+            this.method = method;
+            this.name = method.getSimpleName().toString();
+            this.type = ((ExecutableType) types.asMemberOf(configType, method)).getReturnType();
+            this.typeName = type.toString();
+            this.sensitive = method.getAnnotation(Sensitive.class) != null;
+
+            if (!method.getParameters().isEmpty()) {
+                throw new ProcessingException(String.format("%s must not take any parameters", name), method);
+            }
+            if (type.getKind() == TypeKind.VOID) {
+                throw new ProcessingException(String.format("%s must not have a void return type", name), method);
+            }
+            if (isObjectMethod()) {
+                throw new ProcessingException(
+                        String.format("Illegal overridden java.lang.Object method: %s", name), method);
+            }
+
+            Name customName = method.getAnnotation(Name.class);
+            Parameter parameter;
+            try {
+                parameter = customName != null
+                        ? new Parameter(customName.value())
+                        : Parameter.fromMethodName(name);
+            } catch (IllegalArgumentException e) {
+                throw new ProcessingException(e.getMessage(), method);
+            }
+            this.parameterField = "PARAMETER_" + index;
+            declarations.add(String.format("private static final %s.Parameter %s = %s;",
+                    ENVY, parameterField, newParameter(parameter)));
+        }
+
+        private boolean isObjectMethod() {
+            return name.equals("toString") && typeName.equals(String.class.getName())
+                    || name.equals("hashCode") && type.getKind() == TypeKind.INT;
+        }
+
+        private List<String> extraction() throws ProcessingException {
+            List<String> lines = new ArrayList<String>();
+            lines.add(String.format("// %s", name));
+            lines.add(String.format("parameter = parameter(prefix, %s);", parameterField));
+
+            String wrapperFactory = wrapperFactoryOrNull(type);
+            String primitiveWrapper = PRIMITIVE_WRAPPERS.get(typeName);
+            if (primitiveWrapper != null) {
+                TypeMirror propertyType = elements.getTypeElement(primitiveWrapper).asType();
+                extractValue(lines, propertyType, "u$" + name, false);
+                lines.add(String.format("%s v$%s = u$%s == null ? %s.empty() : %s.of(u$%s);",
+                        typeName, name, name, typeName, typeName, name));
+            } else if (wrapperFactory != null) {
+                TypeMirror propertyType = ((DeclaredType) type).getTypeArguments().get(0);
+                extractValue(lines, propertyType, "u$" + name, false);
+                lines.add(String.format("%s v$%s = %s(u$%s);", typeName, name, wrapperFactory, name));
+            } else {
+                extractValue(lines, type, "v$" + name, isMandatory());
+            }
+            return lines;
+        }
+
+        private void extractValue(List<String> lines, TypeMirror propertyType, String local, boolean mandatory)
+                throws ProcessingException {
+            String propertyTypeName = propertyType.toString();
+            String parseExpression = parseExpressionOrNull(propertyType, "value", method);
+
+            if (parseExpression != null) {
+                lines.add("value = configSource.getValue(parameter);");
+                Default defaultValue = method.getAnnotation(Default.class);
+                if (defaultValue != null) {
+                    lines.add(String.format("if (value == null) value = %s;", javaString(defaultValue.value())));
+                }
+                if (mandatory && defaultValue == null) {
+                    lines.add(String.format(
+                            "if (value == null) throw new %s.MissingParameterValueException(%s.class, \"%s\", parameter);",
+                            ENVY, interfaceName, name));
+                }
+                if (mandatory || defaultValue != null) {
+                    lines.add(String.format("%s %s = %s;", propertyTypeName, local, parseExpression));
+                } else {
+                    lines.add(String.format("%s %s = value == null ? null : %s;",
+                            propertyTypeName, local, parseExpression));
+                }
+            } else if (isInterface(propertyType)) {
+                if (method.getAnnotation(Default.class) != null) {
+                    throw new ProcessingException("Default values are not applicable to nested configuration", method);
+                }
+                TypeElement nestedInterface = (TypeElement) types.asElement(propertyType);
+                nestedInterfaces.add(nestedInterface);
+                String extract = String.format("%s.extract(configSource, parameter)",
+                        EnvyProcessor.generatedClassName(nestedInterface));
+                if (mandatory) {
+                    lines.add(String.format("%s %s = %s;", propertyTypeName, local, extract));
+                } else {
+                    lines.add(String.format("%s %s;", propertyTypeName, local));
+                    lines.add(String.format("try { %s = %s; } catch (%s.MissingParameterValueException e) { %s = null; }",
+                            local, extract, ENVY, local));
+                }
+            } else {
+                throw new ProcessingException(
+                        String.format("Cannot parse value of class %s (%s.%s)",
+                                propertyTypeName, configInterface.getSimpleName(), name), method);
+            }
+
+            if (sensitive) {
+                lines.add(String.format("boolean m$%s = %s == null;", name, local));
+            }
+        }
+
+        @SuppressWarnings("deprecation")
+        private boolean isMandatory() {
+            boolean notAnnotated = method.getAnnotation(Nullable.class) == null
+                    && method.getAnnotation(com.statemachinesystems.envy.Optional.class) == null;
+            return type.getKind().isPrimitive() || notAnnotated;
+        }
+
+        private boolean isInterface(TypeMirror propertyType) {
+            return propertyType.getKind() == TypeKind.DECLARED
+                    && types.asElement(propertyType).getKind() == ElementKind.INTERFACE;
+        }
+
+        private String wrapperFactoryOrNull(TypeMirror propertyType) {
+            return propertyType.getKind() == TypeKind.DECLARED
+                    ? WRAPPER_FACTORIES.get(types.erasure(propertyType).toString())
+                    : null;
+        }
+    }
+
+    private static class Source {
+        private final StringBuilder buf = new StringBuilder();
+
+        private Source line(String format, Object... args) {
+            buf.append(String.format(format, args)).append('\n');
+            return this;
+        }
+
+        private Source line() {
+            buf.append('\n');
+            return this;
+        }
+
+        private Source append(String text) {
+            buf.append(text);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return buf.toString();
+        }
+    }
+}
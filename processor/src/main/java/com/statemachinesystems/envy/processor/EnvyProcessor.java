@@ -0,0 +1,135 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.GenerateConfig;
+import com.statemachinesystems.envy.Prefix;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor that generates a plain Java implementation of each configuration interface
+ * annotated with {@link GenerateConfig} or {@link Prefix}, along with any nested configuration interfaces.
+ *
+ * For an interface <code>com.example.AppConfig</code>, the generated class is <code>com.example.Envy_AppConfig</code>,
+ * which provides static <code>configure()</code> and <code>extract(ConfigSource)</code> methods. Value parsers are
+ * resolved at compile time, so no reflection or proxies are used at runtime.
+ */
+public class EnvyProcessor extends AbstractProcessor {
+
+    static final String GENERATED_CLASS_PREFIX = "Envy_";
+
+    private final Set<String> generated = new HashSet<String>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<String>(Arrays.asList(GenerateConfig.class.getName(), Prefix.class.getName()));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> roots = new LinkedHashSet<Element>();
+        roots.addAll(roundEnv.getElementsAnnotatedWith(GenerateConfig.class));
+        roots.addAll(roundEnv.getElementsAnnotatedWith(Prefix.class));
+
+        for (Element root : roots) {
+            if (root.getKind() != ElementKind.INTERFACE) {
+                if (root.getAnnotation(GenerateConfig.class) != null) {
+                    error("@GenerateConfig is only applicable to interfaces", root);
+                }
+                continue;
+            }
+            generateAll((TypeElement) root);
+        }
+        return false;
+    }
+
+    private void generateAll(TypeElement root) {
+        List<TypeMirror> customParsers = customParsers(root);
+
+        Deque<TypeElement> pending = new ArrayDeque<TypeElement>();
+        pending.add(root);
+
+        while (!pending.isEmpty()) {
+            TypeElement configInterface = pending.remove();
+            String generatedName = generatedClassName(configInterface);
+            if (!generated.add(generatedName)
+                    || processingEnv.getElementUtils().getTypeElement(generatedName) != null) {
+                continue;
+            }
+
+            try {
+                ConfigWriter writer = new ConfigWriter(processingEnv, configInterface, customParsers);
+                write(generatedName, writer.write(), configInterface);
+                pending.addAll(writer.getNestedInterfaces());
+            } catch (ProcessingException e) {
+                error(e.getMessage(), e.getElement());
+            } catch (IOException e) {
+                error("Failed to write " + generatedName + ": " + e.getMessage(), configInterface);
+            }
+        }
+    }
+
+    private List<TypeMirror> customParsers(TypeElement root) {
+        List<TypeMirror> parsers = new ArrayList<TypeMirror>();
+        for (AnnotationMirror annotation : root.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(GenerateConfig.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("parsers")) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
+                    for (AnnotationValue value : values) {
+                        parsers.add((TypeMirror) value.getValue());
+                    }
+                }
+            }
+        }
+        return parsers;
+    }
+
+    private void write(String generatedName, String source, TypeElement configInterface) throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(generatedName, configInterface);
+        Writer out = file.openWriter();
+        try {
+            out.write(source);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    static String generatedClassName(TypeElement configInterface) {
+        StringBuilder simpleNames = new StringBuilder();
+        Element element = configInterface;
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            if (simpleNames.length() > 0) {
+                simpleNames.insert(0, '_');
+            }
+            simpleNames.insert(0, element.getSimpleName());
+            element = element.getEnclosingElement();
+        }
+        String packageName = ((PackageElement) element).getQualifiedName().toString();
+        return packageName.isEmpty()
+                ? GENERATED_CLASS_PREFIX + simpleNames
+                : packageName + "." + GENERATED_CLASS_PREFIX + simpleNames;
+    }
+}
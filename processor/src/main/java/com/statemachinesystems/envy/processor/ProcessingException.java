@@ -0,0 +1,20 @@
+package com.statemachinesystems.envy.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Exception reported as a compilation error against the offending element.
+ */
+class ProcessingException extends Exception {
+
+    private final transient Element element;
+
+    ProcessingException(String message, Element element) {
+        super(message);
+        this.element = element;
+    }
+
+    Element getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,8 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.GenerateConfig;
+
+@GenerateConfig(parsers = ReversingParser.class)
+public interface CustomParserConfig {
+    String reversed();
+}
@@ -0,0 +1,146 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.MissingParameterValueException;
+import com.statemachinesystems.envy.Parameter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class EnvyProcessorTest {
+
+    private Map<String, String> values;
+    private ConfigSource configSource;
+
+    @Before
+    public void setUp() {
+        values = new HashMap<String, String>();
+        values.put("EXAMPLE_NAME", "foo");
+        values.put("EXAMPLE_PORT", "8080");
+        values.put("EXAMPLE_ENABLED", "yes");
+        values.put("EXAMPLE_SHARD_IDS", "1,2,3");
+        values.put("EXAMPLE_MODES", "SLOW,quick");
+        values.put("EXAMPLE_HOSTS", "a:1; \"b;c\" ;d\\;e");
+        values.put("EXAMPLE_MY_VALUE", "bar");
+        values.put("EXAMPLE_RELEASE_DATE", "2020-02-29");
+        values.put("EXAMPLE_TAGS", "b,a,b");
+        values.put("EXAMPLE_MODE_SET", "SLOW");
+        values.put("EXAMPLE_LIMITS", "x = 1, y = 2");
+        values.put("EXAMPLE_OPTIONAL_COUNT", "3");
+        values.put("EXAMPLE_CUSTOM_NAME", "custom");
+        values.put("EXAMPLE_CREDENTIALS_USERNAME", "scott");
+        values.put("EXAMPLE_CREDENTIALS_PASSWORD", "tiger");
+        values.put("EXAMPLE_TIMEOUTS_READ", "10s");
+
+        configSource = new ConfigSource() {
+            @Override
+            public String getValue(Parameter parameter) {
+                return values.get(parameter.asEnvironmentVariableName());
+            }
+        };
+    }
+
+    @Test
+    public void generatesPlainImplementation() {
+        ExampleConfig config = Envy_ExampleConfig.extract(configSource);
+
+        assertThat(config, instanceOf(Envy_ExampleConfig.class));
+        assertFalse(Proxy.isProxyClass(config.getClass()));
+    }
+
+    @Test
+    public void extractsValues() {
+        ExampleConfig config = Envy_ExampleConfig.extract(configSource);
+
+        assertThat(config.getName(), is("foo"));
+        assertThat(config.getPort(), is(8080));
+        assertThat(config.isEnabled(), is(true));
+        assertArrayEquals(new long[] { 1, 2, 3 }, config.shardIds());
+        assertArrayEquals(new ExampleConfig.Mode[] { ExampleConfig.Mode.SLOW, ExampleConfig.Mode.FAST }, config.modes());
+        assertArrayEquals(new String[] { "a:1", "b;c", "d;e" }, config.hosts());
+        assertArrayEquals(new int[] { 1, 2 }, config.weights());
+        assertThat(config.tags(), is((Set<String>) new HashSet<String>(Arrays.asList("a", "b"))));
+        assertThat(config.modeSet(), is(EnumSet.of(ExampleConfig.Mode.SLOW)));
+        assertThat(config.limits().get("y"), is(2));
+        assertThat(config.myValue(), is(new MyValue("bar")));
+        assertThat(config.releaseDate(), is(LocalDate.of(2020, 2, 29)));
+        assertThat(config.mode(), is(ExampleConfig.Mode.FAST));
+        assertThat(config.missing(), nullValue());
+        assertThat(config.optionalCount(), is(Optional.of(3)));
+        assertThat(config.optionalTimeout(), is(OptionalLong.empty()));
+        assertThat(config.customName(), is("custom"));
+    }
+
+    @Test
+    public void extractsNestedValues() {
+        ExampleConfig config = Envy_ExampleConfig.extract(configSource);
+
+        assertThat(config.credentials().username(), is("scott"));
+        assertThat(config.credentials().password(), is("tiger"));
+        assertThat(config.backupCredentials(), nullValue());
+        assertThat(config.timeouts().connect(), is(Duration.ofSeconds(1)));
+        assertThat(config.timeouts().read(), is(Duration.ofSeconds(10)));
+    }
+
+    @Test(expected = MissingParameterValueException.class)
+    public void rejectsMissingMandatoryValue() {
+        values.remove("EXAMPLE_PORT");
+        Envy_ExampleConfig.extract(configSource);
+    }
+
+    @Test(expected = MissingParameterValueException.class)
+    public void rejectsMissingMandatoryNestedValue() {
+        values.remove("EXAMPLE_CREDENTIALS_PASSWORD");
+        Envy_ExampleConfig.extract(configSource);
+    }
+
+    @Test
+    public void formatsAndMasksValues() {
+        ExampleConfig.Credentials credentials = Envy_ExampleConfig.extract(configSource).credentials();
+
+        assertThat(credentials.toString(), is("{password=******, username=scott}"));
+    }
+
+    @Test
+    public void formatsArrays() {
+        assertThat(Envy_ExampleConfig.extract(configSource).toString(), containsString("shardIds=[1, 2, 3]"));
+    }
+
+    @Test
+    public void comparesValues() {
+        ExampleConfig config1 = Envy_ExampleConfig.extract(configSource);
+        ExampleConfig config2 = Envy_ExampleConfig.extract(configSource);
+        values.put("EXAMPLE_PORT", "8081");
+        ExampleConfig config3 = Envy_ExampleConfig.extract(configSource);
+
+        assertEquals(config1, config2);
+        assertThat(config1.hashCode(), is(config2.hashCode()));
+        assertNotEquals(config1, config3);
+    }
+
+    @Test
+    public void generatedInstancesAreSerializable() throws IOException, ClassNotFoundException {
+        ExampleConfig.Credentials credentials = Envy_ExampleConfig.extract(configSource).credentials();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ObjectOutputStream(out).writeObject(credentials);
+
+        Object deserialized = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())).readObject();
+        assertThat(deserialized, is((Object) credentials));
+    }
+
+    @Test
+    public void usesCustomParsers() {
+        values.put("REVERSED", "abc");
+
+        assertThat(Envy_CustomParserConfig.extract(configSource).reversed(), is("cba"));
+    }
+}
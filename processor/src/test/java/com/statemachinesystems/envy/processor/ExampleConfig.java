@@ -0,0 +1,76 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+@Prefix("example")
+public interface ExampleConfig {
+
+    enum Mode { @Name("quick") FAST, SLOW }
+
+    interface Credentials {
+        String username();
+
+        @Sensitive
+        String password();
+    }
+
+    interface Timeouts {
+        @Default("1s")
+        Duration connect();
+
+        @Default("5s")
+        Duration read();
+    }
+
+    String getName();
+    int getPort();
+    boolean isEnabled();
+    long[] shardIds();
+    Mode[] modes();
+
+    @Separator(";")
+    String[] hosts();
+
+    @Separator("|")
+    @Default(" 1 | 2 ")
+    int[] weights();
+
+    Set<String> tags();
+
+    EnumSet<Mode> modeSet();
+
+    @Separator(",")
+    Map<String, Integer> limits();
+
+    MyValue myValue();
+
+    LocalDate releaseDate();
+
+    @Default("FAST")
+    Mode mode();
+
+    @Nullable
+    String missing();
+
+    Optional<Integer> optionalCount();
+
+    OptionalLong optionalTimeout();
+
+    @Name("custom.name")
+    String customName();
+
+    Credentials credentials();
+
+    @Nullable
+    Credentials backupCredentials();
+
+    Timeouts timeouts();
+}
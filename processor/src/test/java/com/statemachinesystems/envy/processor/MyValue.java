@@ -0,0 +1,25 @@
+package com.statemachinesystems.envy.processor;
+
+public class MyValue {
+
+    private final String value;
+
+    public MyValue(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MyValue && ((MyValue) o).value.equals(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
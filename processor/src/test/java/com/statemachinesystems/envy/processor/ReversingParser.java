@@ -0,0 +1,16 @@
+package com.statemachinesystems.envy.processor;
+
+import com.statemachinesystems.envy.ValueParser;
+
+public class ReversingParser implements ValueParser<String> {
+
+    @Override
+    public String parseValue(String value) {
+        return new StringBuilder(value).reverse().toString();
+    }
+
+    @Override
+    public Class<String> getValueClass() {
+        return String.class;
+    }
+}
@@ -0,0 +1,77 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.sources.AsyncConfigSourceAdapter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A source of configuration values that are retrieved without blocking the caller.
+ *
+ * @see com.statemachinesystems.envy.Envy#configureAsync(Class, AsyncConfigSource, ValueParser[])
+ */
+public interface AsyncConfigSource {
+
+    /**
+     * Adapts a synchronous {@link com.statemachinesystems.envy.ConfigSource} that doesn't block,
+     * such as an in-memory source, by looking up values on the calling thread.
+     *
+     * @param configSource  the source to adapt
+     * @return  an asynchronous view of the source
+     */
+    static AsyncConfigSource of(ConfigSource configSource) {
+        return new AsyncConfigSourceAdapter(configSource, null);
+    }
+
+    /**
+     * Adapts a synchronous {@link com.statemachinesystems.envy.ConfigSource} that may block,
+     * by looking up values on the given {@link java.util.concurrent.Executor}.
+     *
+     * @param configSource  the source to adapt
+     * @param executor      the {@link java.util.concurrent.Executor} to look up values with
+     * @return  an asynchronous view of the source
+     */
+    static AsyncConfigSource of(ConfigSource configSource, Executor executor) {
+        return new AsyncConfigSourceAdapter(configSource, executor);
+    }
+
+    /**
+     * Retrieves the configuration value associated with the given parameter.
+     *
+     * @param parameter  the parameter to retrieve
+     * @return           a future of the value associated with the parameter, or null if no value was present
+     */
+    CompletableFuture<String> getValueAsync(Parameter parameter);
+
+    /**
+     * Retrieves the configuration values associated with the given parameters.
+     *
+     * Sources that can fetch several values at once should override this. The default implementation
+     * calls {@link #getValueAsync(Parameter)} for each parameter and combines the results.
+     *
+     * @param parameters  the parameters to retrieve
+     * @return            a future of the values that were present, indexed by parameter
+     */
+    default CompletableFuture<Map<Parameter, String>> getValuesAsync(Collection<Parameter> parameters) {
+        Map<Parameter, CompletableFuture<String>> futures = new LinkedHashMap<Parameter, CompletableFuture<String>>();
+        for (Parameter parameter : parameters) {
+            futures.put(parameter, getValueAsync(parameter));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<Parameter, String> values = new HashMap<Parameter, String>();
+                    for (Map.Entry<Parameter, CompletableFuture<String>> entry : futures.entrySet()) {
+                        String value = entry.getValue().join();
+                        if (value != null) {
+                            values.put(entry.getKey(), value);
+                        }
+                    }
+                    return values;
+                });
+    }
+}
@@ -0,0 +1,467 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.values.ConfigMap;
+import com.statemachinesystems.envy.values.ConfigValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.statemachinesystems.envy.Assertions.assertInterface;
+
+/**
+ * Generates a concrete class per configuration interface at runtime, as an alternative to
+ * {@link ProxyInvocationHandler}.
+ *
+ * Each generated class extends {@link GeneratedConfig} and holds every configuration value in a final field
+ * of the method's return type, so getters are plain field reads that can be inlined and return primitives
+ * without boxing.
+ *
+ * Classes can only be generated for public interfaces whose methods have public return types; other
+ * interfaces fall back to {@link ProxyInvocationHandler}.
+ */
+public class ConfigClassGenerator {
+
+    private static final class Implementation {
+        private final Constructor<?> constructor;
+
+        private Implementation(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+    }
+
+    private static final ClassValue<Implementation> IMPLEMENTATIONS = new ClassValue<Implementation>() {
+        @Override
+        protected Implementation computeValue(Class<?> configClass) {
+            return new Implementation(generateOrNull(configClass));
+        }
+    };
+
+    /**
+     * Builds a configuration object from the given interface and configuration values, using a class
+     * generated at runtime where possible.
+     *
+     * @param configClass  the configuration interface to be implemented
+     * @param values       map of configuration values indexed by method name
+     * @param <T>          the type of the configuration interface
+     * @return             a configuration object that implements the interface
+     */
+    public static <T> T instantiate(Class<T> configClass, ConfigMap values) {
+        assertInterface(configClass);
+
+        Constructor<?> constructor = IMPLEMENTATIONS.get(configClass).constructor;
+        if (constructor == null) {
+            return ProxyInvocationHandler.proxy(configClass, values);
+        }
+
+        try {
+            return configClass.cast(constructor.newInstance(configClass, values));
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indicates whether configuration objects for the given interface are instances of a generated class,
+     * rather than proxies.
+     *
+     * @param configClass  the configuration interface
+     * @return  true if a class can be generated for the interface
+     */
+    public static boolean isSupported(Class<?> configClass) {
+        return configClass.isInterface() && IMPLEMENTATIONS.get(configClass).constructor != null;
+    }
+
+    private static Constructor<?> generateOrNull(Class<?> configClass) {
+        if (!isAccessible(configClass)) {
+            return null;
+        }
+
+        Map<String, Method> methodsByName = ConfigMetadata.getMethodsByName(configClass);
+        for (Method method : methodsByName.values()) {
+            if (!isAccessible(method.getReturnType())) {
+                return null;
+            }
+        }
+
+        Set<Method> implementedMethods = new LinkedHashSet<Method>();
+        for (Method method : configClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Method fieldMethod = methodsByName.get(method.getName());
+            if (fieldMethod == null || !isCompatible(method.getReturnType(), fieldMethod.getReturnType())) {
+                return null;
+            }
+            implementedMethods.add(method);
+        }
+
+        String className = configClass.getName() + "$$Envy";
+        byte[] bytecode = new ClassFile(className, configClass, methodsByName.values(), implementedMethods)
+                .toByteArray();
+
+        try {
+            Class<?> generatedClass = new GeneratedClassLoader(configClass.getClassLoader())
+                    .define(className, bytecode);
+            return generatedClass.getConstructor(Class.class, ConfigMap.class);
+        } catch (LinkageError | SecurityException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Class<?> c) {
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        return c.isPrimitive() || Modifier.isPublic(c.getModifiers());
+    }
+
+    private static boolean isCompatible(Class<?> methodReturnType, Class<?> fieldType) {
+        return methodReturnType.equals(fieldType)
+                || !methodReturnType.isPrimitive() && !fieldType.isPrimitive()
+                        && methodReturnType.isAssignableFrom(fieldType);
+    }
+
+    private static String internalName(Class<?> c) {
+        return c.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> c) {
+        if (c.isArray()) {
+            return internalName(c);
+        } else if (c.isPrimitive()) {
+            return PRIMITIVE_DESCRIPTORS.get(c);
+        } else {
+            return "L" + internalName(c) + ";";
+        }
+    }
+
+    private static final Map<Class<?>, String> PRIMITIVE_DESCRIPTORS = new HashMap<Class<?>, String>();
+
+    static {
+        PRIMITIVE_DESCRIPTORS.put(boolean.class, "Z");
+        PRIMITIVE_DESCRIPTORS.put(byte.class, "B");
+        PRIMITIVE_DESCRIPTORS.put(char.class, "C");
+        PRIMITIVE_DESCRIPTORS.put(double.class, "D");
+        PRIMITIVE_DESCRIPTORS.put(float.class, "F");
+        PRIMITIVE_DESCRIPTORS.put(int.class, "I");
+        PRIMITIVE_DESCRIPTORS.put(long.class, "J");
+        PRIMITIVE_DESCRIPTORS.put(short.class, "S");
+    }
+
+    /**
+     * Defines each generated class in its own loader, so it can be unloaded along with its interface.
+     *
+     * Envy's own classes are always resolved from the loader that loaded Envy, and everything
+     * else from the loader of the configuration interface.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        private static final Class<?>[] RUNTIME_CLASSES = {
+                GeneratedConfig.class, ConfigMap.class, ConfigValue.class
+        };
+
+        private GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            for (Class<?> runtimeClass : RUNTIME_CLASSES) {
+                if (runtimeClass.getName().equals(name)) {
+                    return runtimeClass;
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        private Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    /**
+     * Minimal class file writer for generated configuration classes.
+     *
+     * The generated code never branches, so no stack map frames are needed for class file version 52.
+     */
+    private static class ClassFile {
+
+        private static final int VERSION_52 = 52;
+
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_PRIVATE = 0x0002;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+
+        private static final int ALOAD_0 = 0x2a;
+        private static final int ALOAD_1 = 0x2b;
+        private static final int ALOAD_2 = 0x2c;
+        private static final int LDC_W = 0x13;
+        private static final int IRETURN = 0xac;
+        private static final int LRETURN = 0xad;
+        private static final int FRETURN = 0xae;
+        private static final int DRETURN = 0xaf;
+        private static final int ARETURN = 0xb0;
+        private static final int RETURN = 0xb1;
+        private static final int GETFIELD = 0xb4;
+        private static final int PUTFIELD = 0xb5;
+        private static final int INVOKEVIRTUAL = 0xb6;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKEINTERFACE = 0xb9;
+        private static final int CHECKCAST = 0xc0;
+
+        private static final String SUPER_CLASS = internalName(GeneratedConfig.class);
+        private static final String CONFIG_MAP = internalName(ConfigMap.class);
+        private static final String CONFIG_VALUE = internalName(ConfigValue.class);
+
+        private final ByteArrayOutputStream constantPool = new ByteArrayOutputStream();
+        private final Map<String, Integer> constants = new HashMap<String, Integer>();
+        private int constantCount = 1;
+
+        private final String className;
+        private final Class<?> configClass;
+        private final Map<String, Class<?>> fieldTypes = new HashMap<String, Class<?>>();
+        private final List<byte[]> fields = new ArrayList<byte[]>();
+        private final List<byte[]> methods = new ArrayList<byte[]>();
+
+        private ClassFile(String className, Class<?> configClass,
+                          Iterable<Method> fieldMethods, Iterable<Method> implementedMethods) {
+            this.className = className.replace('.', '/');
+            this.configClass = configClass;
+
+            for (Method method : fieldMethods) {
+                fieldTypes.put(method.getName(), method.getReturnType());
+                fields.add(field(method.getName(), method.getReturnType()));
+            }
+            methods.add(constructor(fieldMethods));
+            for (Method method : implementedMethods) {
+                methods.add(getter(method));
+            }
+        }
+
+        private byte[] toByteArray() {
+            int thisClass = classRef(className);
+            int superClass = classRef(SUPER_CLASS);
+            int configInterface = classRef(internalName(configClass));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(VERSION_52);
+                out.writeShort(constantCount);
+                constantPool.writeTo(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(configInterface);
+                writeAll(out, fields);
+                writeAll(out, methods);
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeAll(DataOutputStream out, List<byte[]> members) throws IOException {
+            out.writeShort(members.size());
+            for (byte[] member : members) {
+                out.write(member);
+            }
+        }
+
+        private byte[] field(String name, Class<?> type) {
+            return member(ACC_PRIVATE | ACC_FINAL, name, descriptor(type), null, 0, 0);
+        }
+
+        private byte[] constructor(Iterable<Method> fieldMethods) {
+            Code code = new Code();
+            code.op(ALOAD_0).op(ALOAD_1).op(ALOAD_2)
+                    .op(INVOKESPECIAL).u2(methodRef(SUPER_CLASS, "<init>",
+                            "(Ljava/lang/Class;L" + CONFIG_MAP + ";)V"));
+
+            for (Method method : fieldMethods) {
+                String name = method.getName();
+                Class<?> type = method.getReturnType();
+
+                code.op(ALOAD_0).op(ALOAD_2)
+                        .op(LDC_W).u2(string(name))
+                        .op(INVOKEVIRTUAL).u2(methodRef(CONFIG_MAP, "getValue",
+                                "(Ljava/lang/String;)L" + CONFIG_VALUE + ";"))
+                        .op(ALOAD_0)
+                        .op(INVOKEINTERFACE).u2(interfaceMethodRef(CONFIG_VALUE, "getValue",
+                                "(Ljava/lang/Object;)Ljava/lang/Object;")).u1(2).u1(0);
+
+                if (type.isPrimitive()) {
+                    Class<?> boxed = Conversions.toBoxed(type);
+                    code.op(CHECKCAST).u2(classRef(internalName(boxed)))
+                            .op(INVOKEVIRTUAL).u2(methodRef(internalName(boxed), type.getName() + "Value",
+                                    "()" + descriptor(type)));
+                } else if (!type.equals(Object.class)) {
+                    code.op(CHECKCAST).u2(classRef(internalName(type)));
+                }
+
+                code.op(PUTFIELD).u2(fieldRef(className, name, descriptor(type)));
+            }
+            code.op(RETURN);
+
+            return member(ACC_PUBLIC, "<init>", "(Ljava/lang/Class;L" + CONFIG_MAP + ";)V", code, 4, 3);
+        }
+
+        private byte[] getter(Method method) {
+            Class<?> fieldType = fieldTypes.get(method.getName());
+            Class<?> returnType = method.getReturnType();
+
+            Code code = new Code();
+            code.op(ALOAD_0)
+                    .op(GETFIELD).u2(fieldRef(className, method.getName(), descriptor(fieldType)))
+                    .op(returnOpcode(returnType));
+
+            return member(ACC_PUBLIC, method.getName(), "()" + descriptor(returnType), code, 2, 1);
+        }
+
+        private static int returnOpcode(Class<?> type) {
+            if (type == long.class) {
+                return LRETURN;
+            } else if (type == float.class) {
+                return FRETURN;
+            } else if (type == double.class) {
+                return DRETURN;
+            } else if (type.isPrimitive()) {
+                return IRETURN;
+            } else {
+                return ARETURN;
+            }
+        }
+
+        private byte[] member(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeShort(access);
+                out.writeShort(utf8(name));
+                out.writeShort(utf8(descriptor));
+                if (code == null) {
+                    out.writeShort(0);
+                } else {
+                    byte[] instructions = code.bytes.toByteArray();
+                    out.writeShort(1);
+                    out.writeShort(utf8("Code"));
+                    out.writeInt(12 + instructions.length);
+                    out.writeShort(maxStack);
+                    out.writeShort(maxLocals);
+                    out.writeInt(instructions.length);
+                    out.write(instructions);
+                    out.writeShort(0);
+                    out.writeShort(0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private int utf8(String value) {
+            Integer index = constants.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            DataOutputStream out = new DataOutputStream(constantPool);
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return register("U" + value);
+        }
+
+        private int classRef(String internalName) {
+            return reference(7, "C" + internalName, utf8(internalName));
+        }
+
+        private int string(String value) {
+            return reference(8, "S" + value, utf8(value));
+        }
+
+        private int fieldRef(String owner, String name, String descriptor) {
+            return reference(9, "F" + owner + "." + name + ":" + descriptor,
+                    classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int methodRef(String owner, String name, String descriptor) {
+            return reference(10, "M" + owner + "." + name + descriptor,
+                    classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int interfaceMethodRef(String owner, String name, String descriptor) {
+            return reference(11, "I" + owner + "." + name + descriptor,
+                    classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            return reference(12, "N" + name + ":" + descriptor, utf8(name), utf8(descriptor));
+        }
+
+        private int reference(int tag, String key, int... indices) {
+            Integer index = constants.get(key);
+            if (index != null) {
+                return index;
+            }
+            constantPool.write(tag);
+            for (int i : indices) {
+                constantPool.write(i >>> 8);
+                constantPool.write(i);
+            }
+            return register(key);
+        }
+
+        private int register(String key) {
+            int index = constantCount++;
+            constants.put(key, index);
+            return index;
+        }
+    }
+
+    private static class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private Code op(int opcode) {
+            return u1(opcode);
+        }
+
+        private Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        private Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+    }
+
+    private ConfigClassGenerator() {}
+}
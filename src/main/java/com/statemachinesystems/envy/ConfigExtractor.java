@@ -2,17 +2,16 @@ package com.statemachinesystems.envy;
 
 import com.statemachinesystems.envy.values.ConfigMap;
 import com.statemachinesystems.envy.values.ConfigValue;
+import com.statemachinesystems.envy.values.LazyValue;
 import com.statemachinesystems.envy.values.ResolvedValue;
 import com.statemachinesystems.envy.values.SensitiveValue;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.TreeMap;
-
-import static com.statemachinesystems.envy.Assertions.*;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Extracts configuration values indexed by method name, as used by
@@ -23,61 +22,11 @@ import static com.statemachinesystems.envy.Assertions.*;
  */
 public class ConfigExtractor {
 
-    private static String getDefaultValue(Method method) {
-        Default defaultAnnotation = method.getAnnotation(Default.class);
-        return defaultAnnotation != null
-                ? defaultAnnotation.value()
-                : null;
-    }
-
-    private static boolean hasDefaultAnnotation(Method method) {
-        return method.getAnnotation(Default.class) != null;
-    }
-
-    private static boolean isMandatory(Method method) {
-        @SuppressWarnings("deprecation")
-        boolean notAnnotated = method.getAnnotation(Nullable.class) == null
-                && method.getAnnotation(Optional.class) == null;
-
-        return (method.getReturnType().isPrimitive() || notAnnotated)
-                && ! OptionalWrapper.isWrapperType(method.getReturnType());
-    }
-
-    private static Collection<Method> getMethods(Class<?> configClass) {
-        return getMethodsByName(configClass).values();
-    }
-
-    private static Map<String, Method> getMethodsByName(Class<?> configClass) {
-        Map<String, Method> methodsByName = new TreeMap<String, Method>();
-        for (Class<?> superInterface : configClass.getInterfaces()) {
-            methodsByName.putAll(getMethodsByName(superInterface));
-        }
-        for (Method method : configClass.getDeclaredMethods()) {
-            if (!Modifier.isStatic(method.getModifiers())) {
-                methodsByName.put(method.getName(), method);
-            }
-        }
-        return methodsByName;
-    }
-
-    private static Parameter getParameter(Method method, Parameter prefix) {
-        Name customParameterName = method.getAnnotation(Name.class);
-        Parameter parameter = customParameterName != null
-                ? new Parameter(customParameterName.value())
-                : Parameter.fromMethodName(method.getName());
-
-        return prefix != null
-                ? prefix.join(parameter)
-                : parameter;
-    }
-
-    private static Parameter getPrefix(Class<?> configClass) {
-        Prefix prefix = configClass.getAnnotation(Prefix.class);
-        return prefix != null ? new Parameter(prefix.value()) : null;
-    }
-
     private final ValueParserFactory valueParserFactory;
     private final ConfigSource configSource;
+    private final ConfigObjectFactory configObjectFactory;
+    private final Resolution resolution;
+    private final Executor executor;
 
     /**
      * Creates a new {@link com.statemachinesystems.envy.ConfigExtractor} instance with the given
@@ -87,8 +36,66 @@ public class ConfigExtractor {
      * @param configSource        the {@link com.statemachinesystems.envy.ConfigSource} to use
      */
     public ConfigExtractor(ValueParserFactory valueParserFactory, ConfigSource configSource) {
+        this(valueParserFactory, configSource, ConfigObjectFactory.proxies());
+    }
+
+    /**
+     * Creates a new {@link com.statemachinesystems.envy.ConfigExtractor} instance with the given
+     * {@link com.statemachinesystems.envy.ValueParserFactory}, {@link com.statemachinesystems.envy.ConfigSource}
+     * and {@link com.statemachinesystems.envy.ConfigObjectFactory} for nested configuration objects.
+     *
+     * @param valueParserFactory   the {@link com.statemachinesystems.envy.ValueParserFactory} to use
+     * @param configSource         the {@link com.statemachinesystems.envy.ConfigSource} to use
+     * @param configObjectFactory  the {@link com.statemachinesystems.envy.ConfigObjectFactory} to use
+     */
+    public ConfigExtractor(ValueParserFactory valueParserFactory, ConfigSource configSource,
+                           ConfigObjectFactory configObjectFactory) {
+        this(valueParserFactory, configSource, configObjectFactory, Resolution.EAGER);
+    }
+
+    /**
+     * Creates a new {@link com.statemachinesystems.envy.ConfigExtractor} instance with the given
+     * {@link com.statemachinesystems.envy.ValueParserFactory}, {@link com.statemachinesystems.envy.ConfigSource},
+     * {@link com.statemachinesystems.envy.ConfigObjectFactory} for nested configuration objects,
+     * and {@link com.statemachinesystems.envy.Resolution}.
+     *
+     * @param valueParserFactory   the {@link com.statemachinesystems.envy.ValueParserFactory} to use
+     * @param configSource         the {@link com.statemachinesystems.envy.ConfigSource} to use
+     * @param configObjectFactory  the {@link com.statemachinesystems.envy.ConfigObjectFactory} to use
+     * @param resolution           when values are looked up and parsed
+     */
+    public ConfigExtractor(ValueParserFactory valueParserFactory, ConfigSource configSource,
+                           ConfigObjectFactory configObjectFactory, Resolution resolution) {
+        this(valueParserFactory, configSource, configObjectFactory, resolution, null);
+    }
+
+    /**
+     * Creates a new {@link com.statemachinesystems.envy.ConfigExtractor} instance with the given
+     * {@link com.statemachinesystems.envy.ValueParserFactory}, {@link com.statemachinesystems.envy.ConfigSource},
+     * {@link com.statemachinesystems.envy.ConfigObjectFactory} for nested configuration objects,
+     * {@link com.statemachinesystems.envy.Resolution}, and an {@link java.util.concurrent.Executor} for extracting
+     * values in parallel.
+     *
+     * When an executor is given, each value, and each nested configuration object, is looked up and parsed
+     * as a separate task, rather than being fetched from the {@link com.statemachinesystems.envy.ConfigSource}
+     * in a single batch. Values are still assembled in a fixed order, and if any values fail, the first
+     * failure is thrown with the others attached as suppressed exceptions. Lazily resolved values are
+     * never extracted in parallel.
+     *
+     * @param valueParserFactory   the {@link com.statemachinesystems.envy.ValueParserFactory} to use
+     * @param configSource         the {@link com.statemachinesystems.envy.ConfigSource} to use
+     * @param configObjectFactory  the {@link com.statemachinesystems.envy.ConfigObjectFactory} to use
+     * @param resolution           when values are looked up and parsed
+     * @param executor             the {@link java.util.concurrent.Executor} to extract values with,
+     *                             or null to extract values on the calling thread
+     */
+    public ConfigExtractor(ValueParserFactory valueParserFactory, ConfigSource configSource,
+                           ConfigObjectFactory configObjectFactory, Resolution resolution, Executor executor) {
         this.valueParserFactory = valueParserFactory;
         this.configSource = configSource;
+        this.configObjectFactory = configObjectFactory;
+        this.resolution = resolution;
+        this.executor = executor;
     }
 
     /**
@@ -99,63 +106,177 @@ public class ConfigExtractor {
      * @return  a populated {@link ConfigMap} of method names to configuration values
      */
     public ConfigMap extractConfigMap(Class<?> configClass) {
-        return extractConfigMap(configClass, getPrefix(configClass));
+        ConfigMetadata metadata = ConfigMetadata.of(configClass);
+        if (resolution == Resolution.LAZY) {
+            return extractConfigMap(metadata);
+        } else if (executor == null) {
+            return prefetch(metadata).extractConfigMap(metadata);
+        }
+        try {
+            return extractConfigMapAsync(metadata).join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
     }
 
-    private ConfigMap extractConfigMap(Class<?> configClass, Parameter prefix) {
-        Map<String, ConfigValue> values = new TreeMap<>();
+    /**
+     * Extracts a {@link ConfigMap} without blocking, fetching the values of every parameter in the
+     * interface tree from the given {@link com.statemachinesystems.envy.AsyncConfigSource} with a single
+     * batch call, then parsing them with the given {@link com.statemachinesystems.envy.ValueParserFactory}
+     * once they arrive. Nested configuration objects are created as proxies.
+     *
+     * If any values are missing or invalid, the future fails with the first failure in method name order,
+     * with the others attached as suppressed exceptions.
+     *
+     * @param valueParserFactory  the {@link com.statemachinesystems.envy.ValueParserFactory} to use
+     * @param configClass         the class of the configuration interface
+     * @param asyncConfigSource   the {@link com.statemachinesystems.envy.AsyncConfigSource} to fetch values from
+     * @return  a future of the populated {@link ConfigMap}
+     */
+    public static CompletableFuture<ConfigMap> extractConfigMapAsync(ValueParserFactory valueParserFactory,
+                                                                     Class<?> configClass,
+                                                                     AsyncConfigSource asyncConfigSource) {
+        ConfigMetadata metadata;
+        Set<Parameter> parameters = new LinkedHashSet<Parameter>();
+        CompletableFuture<Map<Parameter, String>> values;
+        try {
+            metadata = ConfigMetadata.of(configClass);
+            collectParameters(valueParserFactory, metadata, parameters);
+            values = asyncConfigSource.getValuesAsync(parameters);
+        } catch (RuntimeException e) {
+            CompletableFuture<ConfigMap> failed = new CompletableFuture<ConfigMap>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
 
-        for (Method method : getMethods(configClass)) {
-            assertMethodWithNoParameters(method);
-            assertNotObjectMethod(method);
-            assertMethodWithNonVoidReturnType(method);
+        return values.thenCompose(fetched ->
+                new ConfigExtractor(valueParserFactory, new PrefetchedConfigSource(fetched),
+                        ConfigObjectFactory.proxies(), Resolution.EAGER, Runnable::run)
+                        .extractConfigMapAsync(metadata));
+    }
 
-            Parameter parameter = getParameter(method, prefix);
-            ConfigValue value = extractValue(configClass, method.getReturnType(), method, parameter);
-            values.put(method.getName(), value);
+    /**
+     * Fetches the values of every parameter in the interface tree, including nested interfaces,
+     * with a single batch call to the {@link com.statemachinesystems.envy.ConfigSource}.
+     *
+     * @param metadata  the metadata of the top-level interface
+     * @return  an extractor that reads from the fetched values
+     */
+    private ConfigExtractor prefetch(ConfigMetadata metadata) {
+        Set<Parameter> parameters = new LinkedHashSet<Parameter>();
+        collectParameters(valueParserFactory, metadata, parameters);
+
+        ConfigSource prefetched = new PrefetchedConfigSource(configSource.getValues(parameters));
+        return new ConfigExtractor(valueParserFactory, prefetched, configObjectFactory, resolution, executor);
+    }
+
+    private static void collectParameters(ValueParserFactory valueParserFactory, ConfigMetadata metadata,
+                                          Set<Parameter> parameters) {
+        for (ConfigMetadata.Accessor accessor : metadata.getAccessors()) {
+            Class<?> propertyClass = accessor.getPropertyClass();
+            if (propertyClass.isInterface()
+                    && valueParserFactory.getValueParser(accessor.getPropertyType(), accessor.getTokenizer()) == null) {
+                collectParameters(valueParserFactory, ConfigMetadata.of(propertyClass, accessor.getParameter()),
+                        parameters);
+            } else {
+                parameters.add(accessor.getParameter());
+            }
         }
+    }
+
+    private static class PrefetchedConfigSource implements ConfigSource {
+
+        private final Map<Parameter, String> values;
 
-        return new ConfigMap(Collections.unmodifiableMap(values));
+        private PrefetchedConfigSource(Map<Parameter, String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public String getValue(Parameter parameter) {
+            return values.get(parameter);
+        }
     }
 
-    private <T> ConfigValue<T> extractValue(Class<?> configClass, Class<T> propertyClass, Method method, Parameter parameter) {
-        OptionalWrapper<T> wrapper = OptionalWrapper.wrapperOrNull(propertyClass, method);
-        if (wrapper != null) {
-            ConfigValue<?> value = extractValue(configClass, wrapper.getPropertyClass(), method, parameter);
-            return ConfigValue.of(wrapper.wrap(value.getValue(null)), value.getStatus(), method);
+    private ConfigMap extractConfigMap(ConfigMetadata metadata) {
+        ConfigMetadata.Accessor[] accessors = metadata.getAccessors();
+        ConfigValue[] values = new ConfigValue[accessors.length];
+
+        for (int slot = 0; slot < accessors.length; slot++) {
+            values[slot] = extractValue(metadata.getConfigClass(), accessors[slot]);
+        }
+
+        return new ConfigMap(metadata.getLayout(), values);
+    }
+
+    private ConfigValue<?> extractValue(Class<?> configClass, ConfigMetadata.Accessor accessor) {
+        return resolution == Resolution.LAZY
+                ? ConfigValue.lazy(() -> resolveValue(configClass, accessor))
+                : resolveValue(configClass, accessor);
+    }
+
+    private <T> ConfigValue<T> resolveValue(Class<?> configClass, ConfigMetadata.Accessor accessor) {
+        ConfigValue<?> value = extractUnwrappedValue(configClass, accessor.getPropertyClass(), accessor);
+
+        @SuppressWarnings("unchecked")
+        OptionalWrapper<T> wrapper = (OptionalWrapper<T>) accessor.getWrapper();
+        if (wrapper == null) {
+            @SuppressWarnings("unchecked")
+            ConfigValue<T> unwrapped = (ConfigValue<T>) value;
+            return unwrapped;
         }
 
-        ValueParser<T> valueParser = valueParserFactory.getValueParser(propertyClass);
+        boolean sensitive = accessor.isSensitive();
+        return value instanceof LazyValue
+                ? ConfigValue.lazy(() -> ConfigValue.of(wrapper.wrap(value.getValue(null)), value.getStatus(), sensitive))
+                : ConfigValue.of(wrapper.wrap(value.getValue(null)), value.getStatus(), sensitive);
+    }
+
+    private <T> ConfigValue<T> extractUnwrappedValue(Class<?> configClass, Class<T> propertyClass,
+                                                     ConfigMetadata.Accessor accessor) {
+        @SuppressWarnings("unchecked")
+        ValueParser<T> valueParser = (ValueParser<T>) getValueParser(accessor);
 
         if (valueParser != null) {
-            ConfigValue<String> rawValue = getRawValue(parameter, configClass, method);
-            String rawStringValue = rawValue.getValue(null);
-            T parsedValue = parseValue(valueParser, rawStringValue, propertyClass);
-            return ConfigValue.of(parsedValue, rawValue.getStatus(), method);
+            ConfigValue<String> rawValue = getRawValue(configClass, accessor);
+            return resolution == Resolution.DEFERRED_PARSING
+                    ? ConfigValue.lazy(() -> parseValue(valueParser, rawValue, propertyClass, accessor))
+                    : parseValue(valueParser, rawValue, propertyClass, accessor);
         } else if (propertyClass.isInterface()) {
-            return extractNestedValue(method, parameter, propertyClass);
+            return extractNestedValue(accessor, propertyClass);
         } else {
             throw new UnsupportedTypeException(
                     String.format("Cannot parse value of class %s (%s.%s)",
-                            propertyClass.getName(), configClass.getSimpleName(), method.getName()));
+                            propertyClass.getName(), configClass.getSimpleName(), accessor.getMethod().getName()));
         }
     }
 
-    private ConfigValue<String> getRawValue(Parameter parameter, Class<?> configClass, Method method) {
+    private ValueParser<?> getValueParser(ConfigMetadata.Accessor accessor) {
+        return valueParserFactory.getValueParser(accessor.getPropertyType(), accessor.getTokenizer());
+    }
+
+    private ConfigValue<String> getRawValue(Class<?> configClass, ConfigMetadata.Accessor accessor) {
+        Parameter parameter = accessor.getParameter();
         String rawValue = configSource.getValue(parameter);
 
         ConfigValue.Status status;
         if (rawValue != null) {
             status = ConfigValue.Status.CONFIGURED;
         } else {
-            rawValue = getDefaultValue(method);
+            rawValue = accessor.getDefaultValue();
             status = rawValue != null ? ConfigValue.Status.DEFAULTED : ConfigValue.Status.MISSING;
         }
 
-        if (rawValue == null && isMandatory(method)) {
-            throw new MissingParameterValueException(configClass, method, parameter);
+        if (rawValue == null && accessor.isMandatory()) {
+            throw new MissingParameterValueException(configClass, accessor.getMethod(), parameter);
         }
-        return ConfigValue.of(rawValue, status, method);
+        return ConfigValue.of(rawValue, status, accessor.isSensitive());
+    }
+
+    private <T> ConfigValue<T> parseValue(ValueParser<T> valueParser, ConfigValue<String> rawValue,
+                                          Class<T> propertyClass, ConfigMetadata.Accessor accessor) {
+        T parsedValue = parseValue(valueParser, rawValue.getValue(null), propertyClass);
+        return ConfigValue.of(parsedValue, rawValue.getStatus(), accessor.isSensitive());
     }
 
     private <T> T parseValue(ValueParser<T> valueParser, String rawValue, Class<T> propertyClass) {
@@ -165,24 +286,114 @@ public class ConfigExtractor {
 
         T parsedValue = valueParser.parseValue(rawValue);
 
-        return Conversions.isPrimitiveArray(propertyClass)
+        return Conversions.isPrimitiveArray(propertyClass) && !propertyClass.isInstance(parsedValue)
                 ? Conversions.boxedArrayToPrimitiveArray(parsedValue)
                 : parsedValue;
     }
 
-    private <T> ConfigValue<T> extractNestedValue(Method method, Parameter parameter, Class<T> propertyClass) {
-        if (hasDefaultAnnotation(method)) {
+    private <T> ConfigValue<T> extractNestedValue(ConfigMetadata.Accessor accessor, Class<T> propertyClass) {
+        if (accessor.hasDefault()) {
             throw new IllegalArgumentException("Default values are not applicable to nested configuration");
         }
+        // Optional nested configuration must be checked for missing values up front, to decide whether it's null
+        ConfigExtractor nestedExtractor = resolution == Resolution.LAZY && !accessor.isMandatory()
+                ? new ConfigExtractor(valueParserFactory, configSource, configObjectFactory,
+                        Resolution.DEFERRED_PARSING, executor)
+                : this;
         try {
-            T proxy = ProxyInvocationHandler.proxy(propertyClass, extractConfigMap(propertyClass, parameter));
-            return ConfigValue.of(proxy, ConfigValue.Status.CONFIGURED, method);
+            ConfigMap nestedValues =
+                    nestedExtractor.extractConfigMap(ConfigMetadata.of(propertyClass, accessor.getParameter()));
+            T proxy = propertyClass.cast(configObjectFactory.create(propertyClass, nestedValues));
+            return ConfigValue.of(proxy, ConfigValue.Status.CONFIGURED, accessor.isSensitive());
         } catch (MissingParameterValueException missingParameterValue) {
-            if (isMandatory(method)) {
+            if (accessor.isMandatory()) {
                 throw missingParameterValue;
             } else {
-                return ConfigValue.of(null, ResolvedValue.Status.MISSING, method);
+                return ConfigValue.of(null, ResolvedValue.Status.MISSING, accessor.isSensitive());
             }
         }
     }
+
+    private CompletableFuture<ConfigMap> extractConfigMapAsync(ConfigMetadata metadata) {
+        Class<?> configClass = metadata.getConfigClass();
+        ConfigMetadata.Accessor[] accessors = metadata.getAccessors();
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<ConfigValue<?>>[] futures = new CompletableFuture[accessors.length];
+        for (int slot = 0; slot < accessors.length; slot++) {
+            futures[slot] = extractValueAsync(configClass, accessors[slot]);
+        }
+
+        return CompletableFuture.allOf(futures).handle((ignored, ignoredFailure) -> {
+            ConfigValue[] values = new ConfigValue[futures.length];
+            Throwable failure = null;
+            for (int slot = 0; slot < futures.length; slot++) {
+                try {
+                    values[slot] = futures[slot].join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+            return new ConfigMap(metadata.getLayout(), values);
+        });
+    }
+
+    private CompletableFuture<ConfigValue<?>> extractValueAsync(Class<?> configClass,
+                                                                ConfigMetadata.Accessor accessor) {
+        Class<?> propertyClass = accessor.getPropertyClass();
+        if (!propertyClass.isInterface() || getValueParser(accessor) != null) {
+            return CompletableFuture.supplyAsync(() -> resolveValue(configClass, accessor), executor);
+        }
+
+        CompletableFuture<ConfigValue<?>> nestedValue = extractNestedValueAsync(accessor, propertyClass);
+
+        OptionalWrapper<?> wrapper = accessor.getWrapper();
+        return wrapper == null
+                ? nestedValue
+                : nestedValue.thenApply(value ->
+                        ConfigValue.of(wrapper.wrap(value.getValue(null)), value.getStatus(), accessor.isSensitive()));
+    }
+
+    private CompletableFuture<ConfigValue<?>> extractNestedValueAsync(ConfigMetadata.Accessor accessor,
+                                                                      Class<?> propertyClass) {
+        CompletableFuture<ConfigMap> nestedValues;
+        try {
+            if (accessor.hasDefault()) {
+                throw new IllegalArgumentException("Default values are not applicable to nested configuration");
+            }
+            nestedValues = extractConfigMapAsync(ConfigMetadata.of(propertyClass, accessor.getParameter()));
+        } catch (RuntimeException e) {
+            nestedValues = new CompletableFuture<ConfigMap>();
+            nestedValues.completeExceptionally(e);
+        }
+
+        return nestedValues.handle((values, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                if (cause instanceof MissingParameterValueException && !accessor.isMandatory()) {
+                    return ConfigValue.of(null, ResolvedValue.Status.MISSING, accessor.isSensitive());
+                }
+                throw rethrow(cause);
+            }
+            Object proxy = propertyClass.cast(configObjectFactory.create(propertyClass, values));
+            return ConfigValue.of(proxy, ConfigValue.Status.CONFIGURED, accessor.isSensitive());
+        });
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else {
+            throw new IllegalStateException(failure);
+        }
+    }
 }
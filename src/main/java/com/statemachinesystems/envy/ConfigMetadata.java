@@ -0,0 +1,250 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.parsers.SeparatedValueTokenizer;
+import com.statemachinesystems.envy.values.ConfigLayout;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.statemachinesystems.envy.Assertions.*;
+
+/**
+ * Validated, reflectively-analysed structure of a configuration interface under a given prefix,
+ * as used by {@link com.statemachinesystems.envy.ConfigExtractor}.
+ *
+ * Metadata is cached per interface using a {@link ClassValue}, so it doesn't prevent
+ * the interface's class loader from being unloaded.
+ */
+class ConfigMetadata {
+
+    private static final String NO_PREFIX = "";
+
+    private static final ClassValue<ConcurrentMap<String, ConfigMetadata>> CACHE =
+            new ClassValue<ConcurrentMap<String, ConfigMetadata>>() {
+                @Override
+                protected ConcurrentMap<String, ConfigMetadata> computeValue(Class<?> configClass) {
+                    return new ConcurrentHashMap<String, ConfigMetadata>();
+                }
+            };
+
+    private static final ClassValue<ConfigLayout> LAYOUTS = new ClassValue<ConfigLayout>() {
+        @Override
+        protected ConfigLayout computeValue(Class<?> configClass) {
+            return new ConfigLayout(getMethodsByName(configClass).keySet());
+        }
+    };
+
+    /**
+     * Returns the metadata for a top-level configuration interface, using its {@link Prefix} annotation if present.
+     *
+     * @param configClass  the configuration interface
+     * @return  the metadata for the interface
+     */
+    static ConfigMetadata of(Class<?> configClass) {
+        return of(configClass, getPrefix(configClass));
+    }
+
+    /**
+     * Returns the metadata for a configuration interface with the given prefix.
+     *
+     * @param configClass  the configuration interface
+     * @param prefix       the prefix applied to each parameter, or null
+     * @return  the metadata for the interface
+     */
+    static ConfigMetadata of(Class<?> configClass, Parameter prefix) {
+        ConcurrentMap<String, ConfigMetadata> byPrefix = CACHE.get(configClass);
+        String key = prefix != null ? prefix.asEnvironmentVariableName() : NO_PREFIX;
+
+        ConfigMetadata metadata = byPrefix.get(key);
+        if (metadata == null) {
+            metadata = new ConfigMetadata(configClass, prefix);
+            ConfigMetadata existing = byPrefix.putIfAbsent(key, metadata);
+            if (existing != null) {
+                metadata = existing;
+            }
+        }
+        return metadata;
+    }
+
+    static Map<String, Method> getMethodsByName(Class<?> configClass) {
+        Map<String, Method> methodsByName = new TreeMap<String, Method>();
+        for (Class<?> superInterface : configClass.getInterfaces()) {
+            methodsByName.putAll(getMethodsByName(superInterface));
+        }
+        for (Method method : configClass.getDeclaredMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                methodsByName.put(method.getName(), method);
+            }
+        }
+        return methodsByName;
+    }
+
+    private static Parameter getPrefix(Class<?> configClass) {
+        Prefix prefix = configClass.getAnnotation(Prefix.class);
+        return prefix != null ? new Parameter(prefix.value()).intern() : null;
+    }
+
+    private static Parameter getParameter(Method method, Parameter prefix) {
+        Name customParameterName = method.getAnnotation(Name.class);
+        Parameter parameter = customParameterName != null
+                ? new Parameter(customParameterName.value())
+                : Parameter.fromMethodName(method.getName());
+
+        return prefix != null
+                ? prefix.join(parameter).intern()
+                : parameter.intern();
+    }
+
+    private static Type getPropertyType(Method method) {
+        Type type = method.getGenericReturnType();
+        return type instanceof ParameterizedType ? type : method.getReturnType();
+    }
+
+    private static SeparatedValueTokenizer getTokenizer(Method method, Class<?> propertyClass) {
+        Separator separator = method.getAnnotation(Separator.class);
+        if (separator == null) {
+            return null;
+        } else if (!propertyClass.isArray()
+                && !Collection.class.isAssignableFrom(propertyClass)
+                && !Map.class.isAssignableFrom(propertyClass)) {
+            throw new IllegalArgumentException(
+                    String.format("@Separator is only applicable to array, collection and map values (%s.%s)",
+                            method.getDeclaringClass().getSimpleName(), method.getName()));
+        }
+        return new SeparatedValueTokenizer(separator.value(), separator.trim(), separator.quoting());
+    }
+
+    private static boolean isMandatory(Method method) {
+        @SuppressWarnings("deprecation")
+        boolean notAnnotated = method.getAnnotation(Nullable.class) == null
+                && method.getAnnotation(Optional.class) == null;
+
+        return (method.getReturnType().isPrimitive() || notAnnotated)
+                && ! OptionalWrapper.isWrapperType(method.getReturnType());
+    }
+
+    private final Class<?> configClass;
+    private final ConfigLayout layout;
+    private final Accessor[] accessors;
+
+    private ConfigMetadata(Class<?> configClass, Parameter prefix) {
+        this.configClass = configClass;
+        this.layout = LAYOUTS.get(configClass);
+        this.accessors = new Accessor[layout.size()];
+
+        for (Method method : getMethodsByName(configClass).values()) {
+            assertMethodWithNoParameters(method);
+            assertNotObjectMethod(method);
+            assertMethodWithNonVoidReturnType(method);
+
+            int slot = layout.getSlot(method.getName());
+            accessors[slot] = new Accessor(method, getParameter(method, prefix));
+        }
+    }
+
+    Class<?> getConfigClass() {
+        return configClass;
+    }
+
+    ConfigLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the accessor methods of the interface, in slot order.
+     */
+    Accessor[] getAccessors() {
+        return accessors;
+    }
+
+    /**
+     * A single accessor method, with its annotations resolved.
+     */
+    static class Accessor {
+
+        private final Method method;
+        private final Parameter parameter;
+        private final OptionalWrapper<?> wrapper;
+        private final Class<?> propertyClass;
+        private final Type propertyType;
+        private final SeparatedValueTokenizer tokenizer;
+        private final String defaultValue;
+        private final boolean hasDefault;
+        private final boolean mandatory;
+        private final boolean sensitive;
+
+        private Accessor(Method method, Parameter parameter) {
+            Default defaultAnnotation = method.getAnnotation(Default.class);
+
+            this.method = method;
+            this.parameter = parameter;
+            this.wrapper = OptionalWrapper.wrapperOrNull(method.getReturnType(), method);
+            this.propertyClass = wrapper != null ? wrapper.getPropertyClass() : method.getReturnType();
+            this.propertyType = wrapper != null ? wrapper.getPropertyType() : ConfigMetadata.getPropertyType(method);
+            this.tokenizer = ConfigMetadata.getTokenizer(method, propertyClass);
+            this.defaultValue = defaultAnnotation != null ? defaultAnnotation.value() : null;
+            this.hasDefault = defaultAnnotation != null;
+            this.mandatory = ConfigMetadata.isMandatory(method);
+            this.sensitive = method.getAnnotation(Sensitive.class) != null;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        Parameter getParameter() {
+            return parameter;
+        }
+
+        /**
+         * Returns the wrapper for {@link java.util.Optional} and similar return types, or null.
+         */
+        OptionalWrapper<?> getWrapper() {
+            return wrapper;
+        }
+
+        /**
+         * Returns the class of the configuration value, unwrapped if the method returns an optional type.
+         */
+        Class<?> getPropertyClass() {
+            return propertyClass;
+        }
+
+        /**
+         * Returns the tokenizer given by a {@link Separator} annotation, or null.
+         */
+        SeparatedValueTokenizer getTokenizer() {
+            return tokenizer;
+        }
+
+        /**
+         * Returns the type of the configuration value, including any type arguments, e.g. <code>List&lt;String&gt;</code>.
+         */
+        Type getPropertyType() {
+            return propertyType;
+        }
+
+        String getDefaultValue() {
+            return defaultValue;
+        }
+
+        boolean hasDefault() {
+            return hasDefault;
+        }
+
+        boolean isMandatory() {
+            return mandatory;
+        }
+
+        boolean isSensitive() {
+            return sensitive;
+        }
+    }
+}
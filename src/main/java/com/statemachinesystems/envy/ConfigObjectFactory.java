@@ -0,0 +1,37 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.values.ConfigMap;
+
+/**
+ * Creates configuration objects implementing a configuration interface from extracted configuration values.
+ */
+public interface ConfigObjectFactory {
+
+    /**
+     * Provides a {@link ConfigObjectFactory} that creates {@link java.lang.reflect.Proxy} instances.
+     *
+     * @return  a {@link ConfigObjectFactory} backed by {@link ProxyInvocationHandler}
+     */
+    static ConfigObjectFactory proxies() {
+        return ProxyInvocationHandler::proxy;
+    }
+
+    /**
+     * Provides a {@link ConfigObjectFactory} that creates instances of classes generated at runtime,
+     * falling back to proxies where a class can't be generated.
+     *
+     * @return  a {@link ConfigObjectFactory} backed by {@link ConfigClassGenerator}
+     */
+    static ConfigObjectFactory generatedClasses() {
+        return ConfigClassGenerator::instantiate;
+    }
+
+    /**
+     * Creates a configuration object from the given interface and configuration values.
+     *
+     * @param configClass  the configuration interface to be implemented
+     * @param values       map of configuration values indexed by method name
+     * @return             a configuration object that implements the interface
+     */
+    Object create(Class<?> configClass, ConfigMap values);
+}
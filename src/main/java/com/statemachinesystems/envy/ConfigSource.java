@@ -1,5 +1,9 @@
 package com.statemachinesystems.envy;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * A source of configuration values.
  */
@@ -12,4 +16,24 @@ public interface ConfigSource {
      * @return           the value associated with the parameter, or null if no value was present
      */
     String getValue(Parameter parameter);
+
+    /**
+     * Retrieves the configuration values associated with the given parameters.
+     *
+     * Sources backed by a remote store or a file should override this to fetch all values at once.
+     * The default implementation calls {@link #getValue(Parameter)} for each parameter.
+     *
+     * @param parameters  the parameters to retrieve
+     * @return            the values that were present, indexed by parameter
+     */
+    default Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        for (Parameter parameter : parameters) {
+            String value = getValue(parameter);
+            if (value != null) {
+                values.put(parameter, value);
+            }
+        }
+        return values;
+    }
 }
@@ -3,13 +3,21 @@ package com.statemachinesystems.envy;
 import com.statemachinesystems.envy.parsers.*;
 import com.statemachinesystems.envy.sources.DelegatingConfigSource;
 import com.statemachinesystems.envy.sources.EnvironmentVariableConfigSource;
+import com.statemachinesystems.envy.sources.IndexedConfigSource;
+import com.statemachinesystems.envy.sources.SnapshotEnvironmentVariableConfigSource;
+import com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource;
 import com.statemachinesystems.envy.sources.SystemPropertyConfigSource;
 import com.statemachinesystems.envy.values.ConfigMap;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Top-level fa&ccedil;ade for creating configuration objects.
@@ -42,13 +50,40 @@ public class Envy {
     public static <T> T configure(Class<T> configClass, ConfigSource configSource,
             ValueParser<?>... customValueParsers) {
 
+        return new Envy(valueParserFactory(customValueParsers), configSource)
+                .proxy(configClass);
+    }
+
+    /**
+     * Create a configuration object from the given interface and {@link com.statemachinesystems.envy.AsyncConfigSource}
+     * without blocking, optionally with custom value parsers.
+     *
+     * All values are requested from the source in a single batch, and parsed when they arrive. If any values
+     * are missing or invalid, the future fails with the first failure in method name order, with the others
+     * attached as suppressed exceptions.
+     *
+     * @param configClass         the configuration interface from which to create the object
+     * @param configSource        the {@link com.statemachinesystems.envy.AsyncConfigSource} to use
+     * @param customValueParsers  additional value parsers to be used
+     * @param <T>                 the type of the configuration interface
+     * @return                    a future of a configuration object that implements the given interface
+     */
+    public static <T> CompletableFuture<T> configureAsync(Class<T> configClass, AsyncConfigSource configSource,
+            ValueParser<?>... customValueParsers) {
+
+        return ConfigExtractor
+                .extractConfigMapAsync(valueParserFactory(customValueParsers), configClass, configSource)
+                .thenApply(values -> ProxyInvocationHandler.proxy(configClass, values));
+    }
+
+    private static ValueParserFactory valueParserFactory(ValueParser<?>... customValueParsers) {
+        if (customValueParsers.length == 0) {
+            return DEFAULT_VALUE_PARSER_FACTORY;
+        }
         List<ValueParser<?>> valueParsers = new ArrayList<ValueParser<?>>();
         valueParsers.addAll(defaultValueParsers());
         valueParsers.addAll(Arrays.asList(customValueParsers));
-        ValueParserFactory valueParserFactory = new ValueParserFactory(valueParsers);
-
-        return new Envy(valueParserFactory, configSource)
-                .proxy(configClass);
+        return new ValueParserFactory(valueParsers);
     }
 
     /**
@@ -101,10 +136,78 @@ public class Envy {
         return DEFAULT_CONFIG_SOURCE;
     }
 
+    /**
+     * Provides a {@link com.statemachinesystems.envy.ConfigSource} implementation that retrieves
+     * configuration values from a snapshot of the JVM system properties and environment variables,
+     * taken when this method is called.
+     *
+     * As with {@link #defaultConfigSource()}, system properties override environment variables with
+     * equivalent names. Later changes to system properties aren't visible to the returned source.
+     *
+     * @return  a {@link com.statemachinesystems.envy.ConfigSource} backed by a snapshot of the current
+     *          system properties and environment variables
+     */
+    public static ConfigSource snapshotConfigSource() {
+        return new IndexedConfigSource(
+                new SnapshotSystemPropertyConfigSource(), new SnapshotEnvironmentVariableConfigSource());
+    }
+
+    /**
+     * Appends a configuration object's values to the given {@link Appendable}, formatted as by its
+     * <code>toString</code> method, without first building the whole string.
+     *
+     * @param config  a configuration object created by Envy
+     * @param out     where to append the formatted values
+     * @throws IOException               if appending fails
+     * @throws IllegalArgumentException  if the object wasn't created by Envy
+     */
+    public static void formatTo(Object config, Appendable out) throws IOException {
+        configMap(config).formatTo(config, out);
+    }
+
+    /**
+     * Formats a configuration object's values as a JSON object keyed by method name, with sensitive values
+     * masked and nested configuration objects as nested JSON objects.
+     *
+     * The result is computed once and reused, as with the <code>toString</code> method.
+     *
+     * @param config  a configuration object created by Envy
+     * @return        the configuration values formatted as JSON
+     * @throws IllegalArgumentException  if the object wasn't created by Envy
+     */
+    public static String formatJson(Object config) {
+        return configMap(config).formatJson(config);
+    }
+
+    /**
+     * Appends a configuration object's values to the given {@link Appendable} as JSON, as by
+     * {@link #formatJson(Object)}, without first building the whole string.
+     *
+     * @param config  a configuration object created by Envy
+     * @param out     where to append the formatted values
+     * @throws IOException               if appending fails
+     * @throws IllegalArgumentException  if the object wasn't created by Envy
+     */
+    public static void formatJsonTo(Object config, Appendable out) throws IOException {
+        configMap(config).formatJsonTo(config, out);
+    }
+
+    private static ConfigMap configMap(Object config) {
+        ConfigMap values = ProxyInvocationHandler.valuesOrNull(config);
+        if (values == null) {
+            throw new IllegalArgumentException("Not a configuration object created by Envy: " + config);
+        }
+        return values;
+    }
+
     private static final ConfigSource DEFAULT_CONFIG_SOURCE =
             new DelegatingConfigSource(new SystemPropertyConfigSource(), new EnvironmentVariableConfigSource());
 
-    private final ConfigExtractor configExtractor;
+    private static final ValueParserFactory DEFAULT_VALUE_PARSER_FACTORY =
+            new ValueParserFactory(defaultValueParsers());
+
+    private final ValueParserFactory valueParserFactory;
+    private final ConfigSource configSource;
 
     /**
      * Creates a new {@link com.statemachinesystems.envy.Envy} instance with the given
@@ -114,7 +217,8 @@ public class Envy {
      * @param configSource        the {@link com.statemachinesystems.envy.ConfigSource} to use
      */
     public Envy(ValueParserFactory valueParserFactory, ConfigSource configSource) {
-        this.configExtractor = new ConfigExtractor(valueParserFactory, configSource);
+        this.valueParserFactory = valueParserFactory;
+        this.configSource = configSource;
     }
 
     /**
@@ -125,7 +229,107 @@ public class Envy {
      * @return             a configuration object that implements the interface
      */
     public <T> T proxy(Class<T> configClass) {
-        ConfigMap values = configExtractor.extractConfigMap(configClass);
+        return proxy(configClass, Resolution.EAGER);
+    }
+
+    /**
+     * Builds a proxy configuration object from the given interface, looking up and parsing values
+     * according to the given {@link com.statemachinesystems.envy.Resolution}.
+     *
+     * With lazy resolution, only the values that are actually used are parsed, which avoids the cost of
+     * expensive parsers such as DNS lookups for unused values. Each value is parsed at most once.
+     *
+     * @param configClass  the configuration interface to be proxied
+     * @param resolution   when values are looked up and parsed
+     * @param <T>          the type of the configuration interface
+     * @return             a configuration object that implements the interface
+     */
+    public <T> T proxy(Class<T> configClass, Resolution resolution) {
+        ConfigMap values = new ConfigExtractor(valueParserFactory, configSource, ConfigObjectFactory.proxies(), resolution)
+                .extractConfigMap(configClass);
         return ProxyInvocationHandler.proxy(configClass, values);
     }
+
+    /**
+     * Builds a proxy configuration object from the given interface, looking up and parsing values in parallel
+     * using the given {@link java.util.concurrent.Executor}.
+     *
+     * This is useful when the {@link com.statemachinesystems.envy.ConfigSource} or some value parsers block,
+     * for example on remote lookups or DNS resolution. If any values are missing or invalid, the first failure
+     * in method name order is thrown, with the others attached as suppressed exceptions.
+     *
+     * @param configClass  the configuration interface to be proxied
+     * @param executor     the {@link java.util.concurrent.Executor} to extract values with
+     * @param <T>          the type of the configuration interface
+     * @return             a configuration object that implements the interface
+     * @see #parallelExecutor()
+     */
+    public <T> T proxy(Class<T> configClass, Executor executor) {
+        ConfigMap values = new ConfigExtractor(
+                valueParserFactory, configSource, ConfigObjectFactory.proxies(), Resolution.EAGER, executor)
+                .extractConfigMap(configClass);
+        return ProxyInvocationHandler.proxy(configClass, values);
+    }
+
+    /**
+     * Provides a shared {@link java.util.concurrent.Executor} suitable for parallel extraction of blocking
+     * lookups, which uses virtual threads on JVMs that support them, or a pool of daemon threads otherwise.
+     *
+     * @return  a shared {@link java.util.concurrent.Executor}
+     * @see #proxy(Class, Executor)
+     */
+    public static Executor parallelExecutor() {
+        return ParallelExecutorHolder.EXECUTOR;
+    }
+
+    private static class ParallelExecutorHolder {
+
+        private static final Executor EXECUTOR = createExecutor();
+
+        private static Executor createExecutor() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                AtomicInteger threadCount = new AtomicInteger();
+                return Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "envy-extractor-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
+    /**
+     * Builds a reloadable configuration object from the given interface.
+     *
+     * The configuration object reads through to the most recently loaded values, which can be refreshed
+     * from the {@link com.statemachinesystems.envy.ConfigSource} by calling
+     * {@link ReloadableConfig#reload()}.
+     *
+     * @param configClass  the configuration interface to be proxied
+     * @param <T>          the type of the configuration interface
+     * @return             a handle on a configuration object that implements the interface
+     */
+    public <T> ReloadableConfig<T> reloadable(Class<T> configClass) {
+        return new ReloadableConfig<T>(configClass, new ConfigExtractor(valueParserFactory, configSource));
+    }
+
+    /**
+     * Builds a configuration object from the given interface using a class generated at runtime,
+     * with direct getters in place of proxy dispatch.
+     *
+     * Nested configuration objects are generated in the same way. Interfaces that can't be implemented
+     * by a generated class, such as non-public interfaces, are proxied instead.
+     *
+     * @param configClass  the configuration interface to be implemented
+     * @param <T>          the type of the configuration interface
+     * @return             a configuration object that implements the interface
+     * @see ConfigClassGenerator
+     */
+    public <T> T generate(Class<T> configClass) {
+        ConfigMap values = new ConfigExtractor(valueParserFactory, configSource, ConfigObjectFactory.generatedClasses())
+                .extractConfigMap(configClass);
+        return ConfigClassGenerator.instantiate(configClass, values);
+    }
 }
@@ -0,0 +1,24 @@
+package com.statemachinesystems.envy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a configuration interface for which the optional <code>envy-processor</code> annotation processor
+ * should generate an implementation at compile time.
+ *
+ * Interfaces annotated with {@link Prefix} are processed too, so this annotation is only needed for
+ * interfaces without a prefix, or to declare custom value parsers.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateConfig {
+
+    /**
+     * Custom value parsers to be used by the generated implementation, in addition to the
+     * default built-in value parsers. Each must have a public no-argument constructor.
+     */
+    Class<? extends ValueParser<?>>[] parsers() default {};
+}
@@ -0,0 +1,71 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.values.ConfigMap;
+
+import java.io.Serializable;
+
+/**
+ * Base class for configuration classes generated by {@link ConfigClassGenerator}.
+ *
+ * Generated subclasses copy each configuration value into a final field with a direct getter,
+ * while <code>equals</code>, <code>hashCode</code> and <code>toString</code> behave exactly as
+ * they do for proxies created by {@link ProxyInvocationHandler}.
+ */
+public abstract class GeneratedConfig implements Serializable {
+
+    private final Class<?> configClass;
+    private final ConfigMap values;
+
+    protected GeneratedConfig(Class<?> configClass, ConfigMap values) {
+        this.configClass = configClass;
+        this.values = values;
+    }
+
+    static ConfigMap values(GeneratedConfig config) {
+        return config.values;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof GeneratedConfig)) return false;
+        GeneratedConfig that = (GeneratedConfig) other;
+        return configClass.equals(that.configClass)
+                && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return values.format(this);
+    }
+
+    /**
+     * Generated classes are defined by private class loaders, so they're serialized as their
+     * configuration interface and values, then regenerated on deserialization.
+     *
+     * @return  a serializable replacement for this object
+     */
+    protected final Object writeReplace() {
+        return new SerializedForm(configClass, values);
+    }
+
+    private static class SerializedForm implements Serializable {
+
+        private final Class<?> configClass;
+        private final ConfigMap values;
+
+        private SerializedForm(Class<?> configClass, ConfigMap values) {
+            this.configClass = configClass;
+            this.values = values;
+        }
+
+        private Object readResolve() {
+            return ConfigClassGenerator.instantiate(configClass, values);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.statemachinesystems.envy;
+
+import java.util.Map;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} whose values are fixed and can be listed in full,
+ * such as a snapshot or a file, so that a composite source can merge them into a single index.
+ *
+ * @see com.statemachinesystems.envy.sources.IndexedConfigSource
+ */
+public interface IndexableConfigSource extends ConfigSource {
+
+    /**
+     * Retrieves every configuration value that this source provides.
+     *
+     * The result must be consistent with {@link #getValue(Parameter)}: each parameter maps to
+     * the value that {@link #getValue(Parameter)} would return for it.
+     *
+     * @return  all values, indexed by parameter
+     */
+    Map<Parameter, String> getAllValues();
+}
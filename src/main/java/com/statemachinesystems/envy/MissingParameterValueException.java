@@ -8,7 +8,11 @@ import java.lang.reflect.Method;
 public class MissingParameterValueException extends RuntimeException  {
 
     public MissingParameterValueException(Class<?> configClass, Method method, Parameter parameter) {
+        this(configClass, method.getName(), parameter);
+    }
+
+    public MissingParameterValueException(Class<?> configClass, String methodName, Parameter parameter) {
         super(String.format("Missing configuration parameter value for %s in %s.%s",
-                parameter, configClass.getSimpleName(), method.getName()));
+                parameter, configClass.getSimpleName(), methodName));
     }
 }
@@ -6,10 +6,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Provides a different parameter name for an accessor method in a configuration interface.
+ * Provides a different parameter name for an accessor method in a configuration interface,
+ * or an alias for an enum constant.
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.FIELD})
 public @interface Name {
     String value();
 }
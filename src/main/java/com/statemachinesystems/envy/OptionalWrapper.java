@@ -1,41 +1,129 @@
 package com.statemachinesystems.envy;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
-
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps configuration values in an optional type, such as {@link java.util.Optional}, returning an empty
+ * instance for missing values.
+ *
+ * Each optional type's factory method is resolved once into a {@link MethodHandle}. {@link java.util.Optional},
+ * {@link OptionalInt}, {@link OptionalLong} and {@link OptionalDouble} are supported, along with Scala's
+ * <code>Option</code> and Guava's <code>Optional</code> when present; other types can be added using
+ * {@link #register(Class, String)}.
+ */
 public class OptionalWrapper<T> {
 
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object.class);
+
     private static class Invoker {
-        private final String className;
-        private final String methodName;
+        private final MethodHandle factory;
+        private final Class<?> propertyClass;
+
+        /**
+         * @param factory        a method handle of type <code>(Object)Object</code> that accepts null
+         * @param propertyClass  the class of the wrapped value, or null if it's given by a type argument
+         */
+        private Invoker(MethodHandle factory, Class<?> propertyClass) {
+            this.factory = factory;
+            this.propertyClass = propertyClass;
+        }
 
-        public Invoker(String className, String methodName) {
-            this.className = className;
-            this.methodName = methodName;
+        @SuppressWarnings("unchecked")
+        public <T> T create(Object object) throws Throwable {
+            Object wrapped = factory.invokeExact(object);
+            return (T) wrapped;
         }
+    }
+
+    private static final ConcurrentMap<Class<?>, Invoker> INVOKERS = new ConcurrentHashMap<Class<?>, Invoker>();
+
+    static {
+        register(java.util.Optional.class, "ofNullable");
+        registerPrimitive(OptionalInt.class, int.class);
+        registerPrimitive(OptionalLong.class, long.class);
+        registerPrimitive(OptionalDouble.class, double.class);
+        registerIfPresent("scala.Option", "apply");
+        registerIfPresent("com.google.common.base.Optional", "fromNullable");
+    }
 
-        private boolean supports(Class<?> c) {
-            return className.equals(c.getName());
+    /**
+     * Registers a generic optional type, whose single type argument gives the type of the wrapped value.
+     *
+     * The type must have a public static factory method that takes the value, or null if it's missing,
+     * e.g. <code>register(io.vavr.control.Option.class, "of")</code>.
+     *
+     * @param wrapperClass       the optional type
+     * @param factoryMethodName  the name of the factory method
+     * @throws IllegalArgumentException  if there's no applicable factory method
+     */
+    public static void register(Class<?> wrapperClass, String factoryMethodName) {
+        if (wrapperClass.getTypeParameters().length != 1) {
+            throw new IllegalArgumentException(
+                    "Optional type must have exactly one type parameter: " + wrapperClass.getName());
+        }
+        MethodHandle factory;
+        try {
+            factory = MethodHandles.publicLookup().findStatic(
+                    wrapperClass, factoryMethodName, MethodType.methodType(wrapperClass, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(
+                    String.format("No public static factory method %s.%s(Object)",
+                            wrapperClass.getName(), factoryMethodName), e);
         }
+        INVOKERS.put(wrapperClass, new Invoker(factory.asType(FACTORY_TYPE), null));
+    }
 
-        @SuppressWarnings("unchecked")
-        public <T> T create(Object object) throws Exception {
-            return (T) Class.forName(className)
-                    .getMethod(methodName, Object.class)
-                    .invoke(null, object);
+    /**
+     * Registers one of the primitive optional types, using its <code>of</code> and <code>empty</code>
+     * factory methods, so that the wrapped value is unboxed directly into the primitive parameter.
+     */
+    private static void registerPrimitive(Class<?> wrapperClass, Class<?> primitiveClass) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle of = lookup.findStatic(wrapperClass, "of", MethodType.methodType(wrapperClass, primitiveClass));
+            MethodHandle empty = lookup.findStatic(wrapperClass, "empty", MethodType.methodType(wrapperClass));
+            MethodHandle isNull = lookup.findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+
+            MethodHandle factory = MethodHandles.guardWithTest(
+                    isNull,
+                    MethodHandles.dropArguments(empty.asType(MethodType.methodType(Object.class)), 0, Object.class),
+                    of.asType(FACTORY_TYPE));
+            INVOKERS.put(wrapperClass, new Invoker(factory, primitiveClass));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    private static final Invoker[] INVOKERS = {
-            new Invoker("java.util.Optional", "ofNullable"),
-            new Invoker("scala.Option", "apply"),
-            new Invoker("com.google.common.base.Optional", "fromNullable")
-    };
+    private static void registerIfPresent(String className, String factoryMethodName) {
+        Class<?> wrapperClass;
+        try {
+            wrapperClass = Class.forName(className);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return;
+        }
+        register(wrapperClass, factoryMethodName);
+    }
 
     public static <T> OptionalWrapper<T> wrapperOrNull(Class<T> propertyClass, Method method) {
         Invoker invoker = invokerOrNull(propertyClass);
-        return invoker != null
-                ? new OptionalWrapper<>(invoker, extractPropertyClass(method.getGenericReturnType()))
-                : null;
+        if (invoker == null) {
+            return null;
+        }
+        if (invoker.propertyClass != null) {
+            return new OptionalWrapper<>(invoker, invoker.propertyClass);
+        }
+        Type propertyType = extractPropertyType(method.getGenericReturnType());
+        return new OptionalWrapper<>(invoker, rawClass(propertyType), propertyType);
     }
 
     public static boolean isWrapperType(Class<?> propertyClass) {
@@ -43,20 +131,19 @@ public class OptionalWrapper<T> {
     }
 
     private static Invoker invokerOrNull(Class<?> propertyClass) {
-        for (Invoker invoker : INVOKERS) {
-            if (invoker.supports(propertyClass)) {
-                return invoker;
-            }
-        }
-        return null;
+        return INVOKERS.get(propertyClass);
     }
 
-    private static Class<?> extractPropertyClass(Type type) {
+    private static Type extractPropertyType(Type type) {
         ParameterizedType parameterizedType = (ParameterizedType) type;
         Type propertyType = parameterizedType.getActualTypeArguments()[0];
 
         if (propertyType instanceof Class) {
-            return (Class<?>) propertyType;
+            return propertyType;
+        }
+
+        if (propertyType instanceof ParameterizedType && !isWrapperType(rawClass(propertyType))) {
+            return propertyType;
         }
 
         if (propertyType instanceof GenericArrayType) {
@@ -70,23 +157,46 @@ public class OptionalWrapper<T> {
         throw new UnsupportedTypeException("Unsupported generic type " + type);
     }
 
+    private static Class<?> rawClass(Type type) {
+        return type instanceof ParameterizedType
+                ? (Class<?>) ((ParameterizedType) type).getRawType()
+                : (Class<?>) type;
+    }
+
     private final Invoker invoker;
     private final Class<?> propertyClass;
+    private final Type propertyType;
 
     public OptionalWrapper(Invoker invoker, Class<?> propertyClass) {
+        this(invoker, propertyClass, propertyClass);
+    }
+
+    private OptionalWrapper(Invoker invoker, Class<?> propertyClass, Type propertyType) {
         this.invoker = invoker;
         this.propertyClass = propertyClass;
+        this.propertyType = propertyType;
     }
 
     public Class<?> getPropertyClass() {
         return propertyClass;
     }
 
+    /**
+     * Returns the wrapped type, including any type arguments, e.g. <code>List&lt;String&gt;</code>.
+     *
+     * @return  the wrapped type
+     */
+    public Type getPropertyType() {
+        return propertyType;
+    }
+
     public T wrap(Object object) {
         try {
             return invoker.create(object);
-        } catch (Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t.getMessage(), t);
         }
     }
 }
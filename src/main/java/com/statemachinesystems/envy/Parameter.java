@@ -1,18 +1,20 @@
 package com.statemachinesystems.envy;
 
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An identifier representing either a JVM system property in
  * lower.case.dotted format or an environment variable in UPPER_CASE_UNDERSCORED format.
+ *
+ * Both formats are computed once, when the parameter is created, so that lookups, comparisons and
+ * hashing don't allocate. Names must consist of one or more runs of letters and ASCII digits,
+ * separated by single dots or underscores.
  */
 public class Parameter {
 
-    private static final String unicodeAlphaNumeric = "[\\p{L}\\d]+";
-    private static final String separator = "[._]";
-
-    private static final Pattern validNamePattern =
-            Pattern.compile(String.format("(%s)(%s%s)*", unicodeAlphaNumeric, separator, unicodeAlphaNumeric));
+    private static final ConcurrentMap<String, Parameter> internedParameters =
+            new ConcurrentHashMap<String, Parameter>();
 
     public static Parameter fromMethodName(String name) {
         int prefixLength = getBeanPropertyPrefixLength(name);
@@ -49,34 +51,93 @@ public class Parameter {
                 && Character.isUpperCase(name.charAt(prefix.length()));
     }
 
-    private final String name;
+    private static boolean isValidName(String name) {
+        int length = name.length();
+        boolean expectingWordCharacter = true;
+        int position = 0;
+        while (position < length) {
+            int codePoint = name.codePointAt(position);
+            if (isWordCharacter(codePoint)) {
+                expectingWordCharacter = false;
+            } else if ((codePoint == '.' || codePoint == '_') && !expectingWordCharacter) {
+                expectingWordCharacter = true;
+            } else {
+                return false;
+            }
+            position += Character.charCount(codePoint);
+        }
+        return !expectingWordCharacter;
+    }
+
+    /**
+     * Matches <code>[\p{L}\d]</code> as used by {@link java.util.regex.Pattern} without Unicode character classes.
+     */
+    private static boolean isWordCharacter(int codePoint) {
+        return (codePoint >= '0' && codePoint <= '9') || Character.isLetter(codePoint);
+    }
+
+    private final String environmentVariableName;
+    private final String systemPropertyName;
+    private final int hash;
 
     public Parameter(String name) {
+        this(toEnvironmentVariableName(validName(name)), toSystemPropertyName(name));
+    }
+
+    private Parameter(String environmentVariableName, String systemPropertyName) {
+        this.environmentVariableName = environmentVariableName;
+        this.systemPropertyName = systemPropertyName;
+        this.hash = environmentVariableName.hashCode();
+    }
+
+    private static String validName(String name) {
         if (name == null) {
             throw new NullPointerException("Name must not be null");
         }
-        if (! validNamePattern.matcher(name).matches()) {
+        if (! isValidName(name)) {
             throw new IllegalArgumentException("Invalid name format: " + name);
         }
-        this.name = name;
+        return name;
+    }
+
+    private static String toEnvironmentVariableName(String name) {
+        return name.toUpperCase().replace('.', '_');
+    }
+
+    private static String toSystemPropertyName(String name) {
+        return name.toLowerCase().replace('_', '.');
     }
 
     public String asEnvironmentVariableName() {
-        return name.toUpperCase().replaceAll("\\.", "_");
+        return environmentVariableName;
     }
 
     public String asSystemPropertyName() {
-        return name.toLowerCase().replaceAll("_", ".");
+        return systemPropertyName;
     }
 
     public Parameter join(Parameter other) {
-        return new Parameter(
-                String.format("%s_%s", this.asEnvironmentVariableName(), other.asEnvironmentVariableName()));
+        String joined = environmentVariableName + '_' + other.environmentVariableName;
+        return new Parameter(joined, toSystemPropertyName(joined));
+    }
+
+    /**
+     * Returns a canonical instance equal to this parameter, like {@link String#intern()}, so that
+     * parameters used repeatedly share one instance and compare by identity.
+     *
+     * The pool is never cleared, so this is only for the parameters of configuration interfaces, which are
+     * bounded by the number of interfaces, not for names built at runtime.
+     *
+     * @return  the canonical instance
+     */
+    Parameter intern() {
+        Parameter existing = internedParameters.putIfAbsent(environmentVariableName, this);
+        return existing != null ? existing : this;
     }
 
     @Override
     public String toString() {
-        return this.asEnvironmentVariableName();
+        return environmentVariableName;
     }
 
     @Override
@@ -86,11 +147,11 @@ public class Parameter {
 
         Parameter that = (Parameter) o;
 
-        return this.asEnvironmentVariableName().equals(that.asEnvironmentVariableName());
+        return this.hash == that.hash && this.environmentVariableName.equals(that.environmentVariableName);
     }
 
     @Override
     public int hashCode() {
-        return this.asEnvironmentVariableName().hashCode();
+        return hash;
     }
 }
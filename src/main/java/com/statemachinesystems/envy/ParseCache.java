@@ -0,0 +1,114 @@
+package com.statemachinesystems.envy;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache of parsed values, keyed by parser and raw string, shared by the parsers of a
+ * {@link com.statemachinesystems.envy.ValueParserFactory} that declare their output immutable.
+ *
+ * Lookups don't lock. Once the cache is full, an arbitrary entry is evicted for each new one.
+ * Parse failures aren't cached.
+ */
+class ParseCache {
+
+    private final int maximumSize;
+    private final ConcurrentMap<Key, Object> values = new ConcurrentHashMap<Key, Object>();
+
+    ParseCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Wraps the given parser so that its results are cached, if it declares them immutable.
+     *
+     * @param parser  the parser to wrap
+     * @return  a caching parser, or the given parser if its results can't be shared
+     */
+    <T> ValueParser<T> wrap(ValueParser<T> parser) {
+        return parser.isImmutable() ? new CachingValueParser<T>(parser) : parser;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    private Object get(ValueParser<?> parser, String value) {
+        Key key = new Key(parser, value);
+        Object parsed = values.get(key);
+        if (parsed == null) {
+            parsed = parser.parseValue(value);
+            if (parsed != null) {
+                evictIfFull();
+                Object existing = values.putIfAbsent(key, parsed);
+                if (existing != null) {
+                    parsed = existing;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private void evictIfFull() {
+        Iterator<Key> keys = values.keySet().iterator();
+        while (values.size() >= maximumSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static class Key {
+
+        private final ValueParser<?> parser;
+        private final String value;
+        private final int hash;
+
+        private Key(ValueParser<?> parser, String value) {
+            this.parser = parser;
+            this.value = value;
+            this.hash = 31 * System.identityHashCode(parser) + value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return parser == that.parser && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private class CachingValueParser<T> implements ValueParser<T> {
+
+        private final ValueParser<T> parser;
+
+        private CachingValueParser(ValueParser<T> parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T parseValue(String value) {
+            return (T) get(parser, value);
+        }
+
+        @Override
+        public Class<T> getValueClass() {
+            return parser.getValueClass();
+        }
+
+        @Override
+        public boolean isImmutable() {
+            return true;
+        }
+    }
+}
@@ -4,10 +4,10 @@ import com.statemachinesystems.envy.values.ConfigMap;
 import com.statemachinesystems.envy.values.ConfigValue;
 
 import java.io.Serializable;
-import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.statemachinesystems.envy.Assertions.assertInterface;
 
@@ -27,9 +27,24 @@ public class ProxyInvocationHandler implements InvocationHandler, Serializable {
      * @return             a configuration object that implements the interface
      */
     public static <T> T proxy(Class<T> configClass, ConfigMap values) {
-        assertInterface(configClass);
+        return proxy(configClass, new ProxyInvocationHandler(configClass, values));
+    }
 
-        InvocationHandler invocationHandler = new ProxyInvocationHandler(configClass, values);
+    /**
+     * Builds a proxy configuration object that reads its values from the current contents of the given
+     * reference on every call, so that replacing the referenced {@link ConfigMap} is immediately visible.
+     *
+     * @param configClass  the configuration interface to be proxied
+     * @param snapshot     reference to the current configuration values
+     * @param <T>          the type of the configuration interface
+     * @return             a configuration object that implements the interface
+     */
+    static <T> T reloadingProxy(Class<T> configClass, AtomicReference<ConfigMap> snapshot) {
+        return proxy(configClass, new ReloadingInvocationHandler(configClass, snapshot));
+    }
+
+    private static <T> T proxy(Class<T> configClass, ProxyInvocationHandler invocationHandler) {
+        assertInterface(configClass);
 
         ClassLoader classLoader = configClass.getClassLoader();
         Class<?>[] proxyInterfaces = new Class<?>[] { configClass };
@@ -40,6 +55,26 @@ public class ProxyInvocationHandler implements InvocationHandler, Serializable {
         return proxyInstance;
     }
 
+    /**
+     * Returns the configuration values of a configuration object created by Envy, either as a proxy
+     * or a generated class.
+     *
+     * @param config  a configuration object
+     * @return        its configuration values, or null if it wasn't created by Envy
+     */
+    public static ConfigMap valuesOrNull(Object config) {
+        if (config instanceof GeneratedConfig) {
+            return GeneratedConfig.values((GeneratedConfig) config);
+        }
+        if (config == null || !Proxy.isProxyClass(config.getClass())) {
+            return null;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(config);
+        return handler instanceof ProxyInvocationHandler
+                ? ((ProxyInvocationHandler) handler).values()
+                : null;
+    }
+
     private static Method getObjectMethod(String name, Class<?>... argumentTypes) {
         try {
             return Object.class.getMethod(name, argumentTypes);
@@ -67,15 +102,22 @@ public class ProxyInvocationHandler implements InvocationHandler, Serializable {
         this.values = values;
     }
 
+    /**
+     * Returns the configuration values to be used for the current call.
+     */
+    ConfigMap values() {
+        return values;
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) {
-        ConfigValue<?> value = values.getValue(method.getName());
+        ConfigValue<?> value = values().getProxyMethodValue(method);
 
         if (value == null) {
             if (TO_STRING_METHOD.equals(method)) {
                 return toString();
             } else if (EQUALS_METHOD.equals(method)) {
-                return proxyEquals(args[0]);
+                return proxy == args[0] || proxyEquals(args[0]);
             } else if (HASH_CODE_METHOD.equals(method)) {
                 return proxyHashCode();
             } else {
@@ -88,23 +130,7 @@ public class ProxyInvocationHandler implements InvocationHandler, Serializable {
 
     @Override
     public String toString() {
-        StringBuilder buf = new StringBuilder();
-        buf.append('{');
-
-        boolean first = true;
-        for (String methodName : values.getMethodNames()) {
-            if (first) {
-                first = false;
-            } else {
-                buf.append(", ");
-            }
-            buf.append(methodName)
-                    .append('=')
-                    .append(values.getValue(methodName).format(this));
-        }
-
-        buf.append('}');
-        return buf.toString();
+        return values().format(this);
     }
 
     private boolean proxyEquals(Object other) {
@@ -124,12 +150,44 @@ public class ProxyInvocationHandler implements InvocationHandler, Serializable {
         }
 
         ProxyInvocationHandler otherEnvyHandler = (ProxyInvocationHandler) otherHandler;
+        if (otherEnvyHandler == this) {
+            return true;
+        }
 
         return configClass.equals(otherEnvyHandler.configClass)
-                && values.equals(otherEnvyHandler.values);
+                && values().equals(otherEnvyHandler.values());
     }
 
+    /**
+     * Returns the hash code of the configuration values, which is computed once per {@link ConfigMap}.
+     */
     private int proxyHashCode() {
-        return values.hashCode();
+        return values().hashCode();
+    }
+
+    /**
+     * Reads configuration values through an {@link AtomicReference}, so that a reload can publish
+     * a complete new set of values in a single swap without readers taking any locks.
+     */
+    private static class ReloadingInvocationHandler extends ProxyInvocationHandler {
+
+        private final AtomicReference<ConfigMap> snapshot;
+
+        private ReloadingInvocationHandler(Class<?> configClass, AtomicReference<ConfigMap> snapshot) {
+            super(configClass, null);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        ConfigMap values() {
+            return snapshot.get();
+        }
+
+        /**
+         * Serialized proxies are detached from their source, so they're written as the current snapshot.
+         */
+        private Object writeReplace() {
+            return new ProxyInvocationHandler(super.configClass, values());
+        }
     }
 }
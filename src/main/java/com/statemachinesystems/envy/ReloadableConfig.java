@@ -0,0 +1,64 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.values.ConfigMap;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A handle on a configuration object whose values can be reloaded from its
+ * {@link com.statemachinesystems.envy.ConfigSource} at runtime.
+ *
+ * The configuration object returned by {@link #get()} stays the same across reloads, and reads
+ * through to the most recently loaded snapshot of values. Each reload extracts a complete new snapshot
+ * and publishes it in a single atomic swap, so readers never see a mix of old and new values and never
+ * take a lock. Reloads themselves are serialized, so a slow reload can't overwrite the values published by
+ * a later one. If a reload fails, the previous snapshot remains in place.
+ *
+ * Nested configuration objects are part of the snapshot, so a reference to a nested object obtained
+ * before a reload continues to return the old values.
+ *
+ * @param <T>  the type of the configuration interface
+ */
+public class ReloadableConfig<T> {
+
+    private final Class<T> configClass;
+    private final ConfigExtractor configExtractor;
+    private final AtomicReference<ConfigMap> snapshot;
+    private final T config;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.ReloadableConfig} instance, loading the initial values
+     * using the given {@link com.statemachinesystems.envy.ConfigExtractor}.
+     *
+     * @param configClass      the configuration interface
+     * @param configExtractor  the {@link com.statemachinesystems.envy.ConfigExtractor} to load values with
+     */
+    public ReloadableConfig(Class<T> configClass, ConfigExtractor configExtractor) {
+        this.configClass = configClass;
+        this.configExtractor = configExtractor;
+        this.snapshot = new AtomicReference<ConfigMap>(configExtractor.extractConfigMap(configClass));
+        this.config = ProxyInvocationHandler.reloadingProxy(configClass, snapshot);
+    }
+
+    /**
+     * Returns the configuration object, which always reflects the most recently loaded values.
+     *
+     * @return  the configuration object
+     */
+    public T get() {
+        return config;
+    }
+
+    /**
+     * Reloads all configuration values from the {@link com.statemachinesystems.envy.ConfigSource}
+     * and publishes them atomically.
+     *
+     * If any value is missing or fails to parse, the exception is rethrown and the
+     * previously loaded values are kept.
+     *
+     * Concurrent calls are serialized, and reading the configuration object never waits for a reload.
+     */
+    public synchronized void reload() {
+        snapshot.set(configExtractor.extractConfigMap(configClass));
+    }
+}
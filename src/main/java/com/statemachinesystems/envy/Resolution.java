@@ -0,0 +1,28 @@
+package com.statemachinesystems.envy;
+
+/**
+ * Determines when configuration values are looked up and parsed.
+ *
+ * @see com.statemachinesystems.envy.Envy#proxy(Class, Resolution)
+ */
+public enum Resolution {
+
+    /**
+     * All values are looked up and parsed when the configuration object is created,
+     * so any missing or invalid value is reported immediately. This is the default.
+     */
+    EAGER,
+
+    /**
+     * Values are looked up and mandatory values are checked when the configuration object is created,
+     * but parsing is deferred until each value is first accessed. Missing values are reported immediately,
+     * while invalid values are reported on access.
+     */
+    DEFERRED_PARSING,
+
+    /**
+     * Each value, including nested configuration, is looked up and parsed when it's first accessed.
+     * Missing and invalid values are reported on access.
+     */
+    LAZY
+}
@@ -0,0 +1,30 @@
+package com.statemachinesystems.envy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies how an array-valued accessor method in a configuration interface splits its value into elements
+ * (see {@link com.statemachinesystems.envy.parsers.SeparatedValueTokenizer}).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Separator {
+
+    /**
+     * The literal separator between elements.
+     */
+    String value();
+
+    /**
+     * Whether to remove whitespace around each element.
+     */
+    boolean trim() default true;
+
+    /**
+     * Whether elements may be enclosed in double quotes, and characters escaped with a backslash.
+     */
+    boolean quoting() default true;
+}
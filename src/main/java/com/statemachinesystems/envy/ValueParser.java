@@ -21,4 +21,18 @@ public interface ValueParser<T> {
      * @return  a {@link java.lang.Class} object representing the required type
      */
     Class<T> getValueClass();
+
+    /**
+     * Indicates whether the values produced by this parser are immutable, so that a
+     * {@link com.statemachinesystems.envy.ValueParserFactory} with a parse cache can share one parsed
+     * instance between equal strings.
+     *
+     * Parsers whose results depend on anything other than the string, such as DNS lookups,
+     * should not declare themselves immutable.
+     *
+     * @return  true if parsed values can be shared, false by default
+     */
+    default boolean isImmutable() {
+        return false;
+    }
 }
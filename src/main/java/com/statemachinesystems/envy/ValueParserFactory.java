@@ -1,30 +1,105 @@
 package com.statemachinesystems.envy;
 
 import com.statemachinesystems.envy.parsers.ArrayValueParser;
+import com.statemachinesystems.envy.parsers.CollectionValueParser;
 import com.statemachinesystems.envy.parsers.EnumValueParser;
+import com.statemachinesystems.envy.parsers.MapValueParser;
+import com.statemachinesystems.envy.parsers.PrimitiveArrayValueParser;
 import com.statemachinesystems.envy.parsers.ReflectionValueParser;
+import com.statemachinesystems.envy.parsers.SeparatedValueTokenizer;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.statemachinesystems.envy.Conversions.toBoxed;
 
 /**
  * Creates {@link com.statemachinesystems.envy.ValueParser} instances with special
- * support for arrays, enums and types with a constructor that takes
- * a single {@link java.lang.String} argument (see {@link com.statemachinesystems.envy.parsers.ReflectionValueParser}).
+ * support for arrays (including primitive arrays, which are parsed without boxing), enums and types with a constructor or
+ * static factory method that takes a single {@link java.lang.String} argument
+ * (see {@link com.statemachinesystems.envy.parsers.ReflectionValueParser}).
+ *
+ * Parameterized {@link java.util.List}, {@link java.util.Collection}, {@link java.util.Set},
+ * {@link java.util.EnumSet}, {@link java.util.Map} and {@link java.util.EnumMap} types are supported too
+ * (see {@link com.statemachinesystems.envy.parsers.CollectionValueParser} and
+ * {@link com.statemachinesystems.envy.parsers.MapValueParser}).
+ *
+ * Resolved parsers are cached per property class using a {@link ClassValue}, so each class is only
+ * analysed once per factory without preventing its class loader from being unloaded.
+ *
+ * A factory can optionally keep a bounded cache of parsed values, so that parsers that declare their output
+ * immutable (see {@link ValueParser#isImmutable()}) parse each distinct string once and share the result.
  */
 public class ValueParserFactory {
 
+    private static final ValueParser<?> NO_PARSER = new ValueParser<Object>() {
+        @Override
+        public Object parseValue(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Class<Object> getValueClass() {
+            return Object.class;
+        }
+    };
+
     private final Map<Class<?>, ValueParser<?>> valueParsers;
+    private final ParseCache parseCache;
+    private final ClassValue<ValueParser<?>> resolvedParsers = new ClassValue<ValueParser<?>>() {
+        @Override
+        protected ValueParser<?> computeValue(Class<?> propertyClass) {
+            ValueParser<?> parser = getValueParser(propertyClass, true);
+            if (parser == null) {
+                return NO_PARSER;
+            }
+            return parseCache != null ? parseCache.wrap(parser) : parser;
+        }
+    };
+    private final ClassValue<ConcurrentMap<CollectionKey, ValueParser<?>>> collectionParsers =
+            new ClassValue<ConcurrentMap<CollectionKey, ValueParser<?>>>() {
+                @Override
+                protected ConcurrentMap<CollectionKey, ValueParser<?>> computeValue(Class<?> lastTypeArgument) {
+                    return new ConcurrentHashMap<CollectionKey, ValueParser<?>>();
+                }
+            };
+    private final ClassValue<ConcurrentMap<SeparatedValueTokenizer, ValueParser<?>>> tokenizedArrayParsers =
+            new ClassValue<ConcurrentMap<SeparatedValueTokenizer, ValueParser<?>>>() {
+                @Override
+                protected ConcurrentMap<SeparatedValueTokenizer, ValueParser<?>> computeValue(Class<?> arrayClass) {
+                    return new ConcurrentHashMap<SeparatedValueTokenizer, ValueParser<?>>();
+                }
+            };
 
     public ValueParserFactory(ValueParser<?>... valueParsers) {
         this(Arrays.asList(valueParsers));
     }
 
     public ValueParserFactory(Collection<ValueParser<?>> valueParsers) {
+        this(valueParsers, null);
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.ValueParserFactory} that caches up to the given number
+     * of parsed values from parsers that declare their output immutable. Factories created with the other
+     * constructors, including the one behind {@link com.statemachinesystems.envy.Envy#configure}, don't cache.
+     *
+     * The cache isn't LRU: once it's full, an arbitrary entry is evicted for each newly parsed value, and that
+     * may be one that's still in use. Choose a size larger than the number of distinct values expected, so that
+     * entries are never evicted in practice.
+     *
+     * @param valueParsers    the parsers to use
+     * @param parseCacheSize  the maximum number of parsed values to cache
+     */
+    public ValueParserFactory(Collection<ValueParser<?>> valueParsers, int parseCacheSize) {
+        this(valueParsers, new ParseCache(parseCacheSize));
+    }
+
+    private ValueParserFactory(Collection<ValueParser<?>> valueParsers, ParseCache parseCache) {
+        this.parseCache = parseCache;
         this.valueParsers = new HashMap<Class<?>, ValueParser<?>>();
 
         for (ValueParser<?> parser : valueParsers) {
@@ -43,7 +118,128 @@ public class ValueParserFactory {
      */
     @SuppressWarnings("unchecked")
     public <T> ValueParser<T> getValueParser(Class<T> propertyClass) {
-        return (ValueParser<T>) getValueParser(propertyClass, true);
+        ValueParser<?> parser = resolvedParsers.get(propertyClass);
+        return parser != NO_PARSER ? (ValueParser<T>) parser : null;
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.ValueParser} for the given class, splitting array values
+     * into elements with the given tokenizer.
+     *
+     * Returns null if no applicable parser is available.
+     *
+     * @param propertyClass  the class for which to create the {@link com.statemachinesystems.envy.ValueParser}
+     * @param tokenizer      the tokenizer for array values, or null to use the default separator
+     * @return               a {@link com.statemachinesystems.envy.ValueParser} for the given class, or null if
+     *                       no applicable parser is available
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ValueParser<T> getValueParser(Class<T> propertyClass, SeparatedValueTokenizer tokenizer) {
+        if (tokenizer == null || !propertyClass.isArray() || valueParsers.containsKey(propertyClass)) {
+            return getValueParser(propertyClass);
+        }
+
+        ConcurrentMap<SeparatedValueTokenizer, ValueParser<?>> parsers = tokenizedArrayParsers.get(propertyClass);
+        ValueParser<?> parser = parsers.get(tokenizer);
+        if (parser == null) {
+            parser = arrayValueParser(propertyClass, tokenizer);
+            if (parser == null) {
+                return null;
+            }
+            ValueParser<?> existing = parsers.putIfAbsent(tokenizer, parser);
+            if (existing != null) {
+                parser = existing;
+            }
+        }
+        return (ValueParser<T>) parser;
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.ValueParser} for the given type, which may be a parameterized
+     * collection or map type, splitting multi-valued values with the given tokenizer.
+     *
+     * Returns null if no applicable parser is available.
+     *
+     * @param propertyType  the type for which to create the {@link com.statemachinesystems.envy.ValueParser}
+     * @param tokenizer     the tokenizer for multi-valued values, or null to use the default separator
+     * @return              a {@link com.statemachinesystems.envy.ValueParser} for the given type, or null if
+     *                      no applicable parser is available
+     * @throws UnsupportedTypeException  if the type is a collection or map type whose type arguments
+     *                                   aren't supported
+     */
+    public ValueParser<?> getValueParser(Type propertyType, SeparatedValueTokenizer tokenizer) {
+        if (propertyType instanceof Class) {
+            Class<?> propertyClass = (Class<?>) propertyType;
+            if (isCollectionType(propertyClass) && !valueParsers.containsKey(propertyClass)) {
+                throw new UnsupportedTypeException(
+                        String.format("Missing type arguments for %s", propertyClass.getName()));
+            }
+            return getValueParser(propertyClass, tokenizer);
+        } else if (!(propertyType instanceof ParameterizedType)) {
+            throw new UnsupportedTypeException("Unsupported generic type " + propertyType);
+        }
+
+        ParameterizedType parameterizedType = (ParameterizedType) propertyType;
+        Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+        if (!isCollectionType(rawType) || valueParsers.containsKey(rawType)) {
+            return getValueParser(rawType, tokenizer);
+        }
+
+        Type[] typeArguments = parameterizedType.getActualTypeArguments();
+        Class<?> lastTypeArgument = typeArgumentClass(propertyType, typeArguments[typeArguments.length - 1]);
+        ConcurrentMap<CollectionKey, ValueParser<?>> parsers = collectionParsers.get(lastTypeArgument);
+        CollectionKey key = new CollectionKey(propertyType, tokenizer);
+
+        ValueParser<?> parser = parsers.get(key);
+        if (parser == null) {
+            parser = collectionValueParser(rawType, typeArguments,
+                    tokenizer != null ? tokenizer : SeparatedValueTokenizer.DEFAULT);
+            ValueParser<?> existing = parsers.putIfAbsent(key, parser);
+            if (existing != null) {
+                parser = existing;
+            }
+        }
+        return parser;
+    }
+
+    private static boolean isCollectionType(Class<?> c) {
+        return c == List.class || c == Collection.class || c == Set.class || c == EnumSet.class
+                || c == Map.class || c == EnumMap.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ValueParser<?> collectionValueParser(Class<?> rawType, Type[] typeArguments,
+                                                 SeparatedValueTokenizer tokenizer) {
+        ValueParser first = elementParser(rawType, typeArguments[0]);
+        if (rawType == List.class || rawType == Collection.class) {
+            return CollectionValueParser.listOf(first, tokenizer);
+        } else if (rawType == Set.class) {
+            return CollectionValueParser.setOf(first, tokenizer);
+        } else if (rawType == EnumSet.class) {
+            return CollectionValueParser.enumSetOf(first, tokenizer);
+        }
+
+        ValueParser second = elementParser(rawType, typeArguments[1]);
+        return rawType == EnumMap.class
+                ? MapValueParser.enumMapOf(first, second, tokenizer)
+                : MapValueParser.mapOf(first, second, tokenizer);
+    }
+
+    private ValueParser<?> elementParser(Class<?> rawType, Type typeArgument) {
+        Class<?> elementClass = typeArgumentClass(rawType, typeArgument);
+        ValueParser<?> parser = getValueParser(elementClass, false);
+        if (parser == null) {
+            throw new UnsupportedTypeException(
+                    String.format("Cannot parse elements of class %s in %s", elementClass.getName(), rawType.getName()));
+        }
+        return parser;
+    }
+
+    private static Class<?> typeArgumentClass(Type type, Type typeArgument) {
+        if (!(typeArgument instanceof Class) || ((Class<?>) typeArgument).isArray()) {
+            throw new UnsupportedTypeException("Unsupported type argument in " + type);
+        }
+        return (Class<?>) typeArgument;
     }
 
     private ValueParser<?> getValueParser(Class<?> propertyClass, boolean allowArrays) {
@@ -57,7 +253,7 @@ public class ValueParserFactory {
             if (! allowArrays) {
                 throw new UnsupportedTypeException("Nested arrays are not supported");
             }
-            return arrayValueParser(propertyClass);
+            return arrayValueParser(propertyClass, null);
         } else {
             return ReflectionValueParser.parserOrNull(propertyClass);
         }
@@ -69,7 +265,7 @@ public class ValueParserFactory {
         return enumValueParser;
     }
 
-    private ValueParser<?> arrayValueParser(Class<?> propertyClass) {
+    private ValueParser<?> arrayValueParser(Class<?> propertyClass, SeparatedValueTokenizer tokenizer) {
         Class<?> componentType = propertyClass.getComponentType();
 
         ValueParser<?> componentParser = getValueParser(componentType, false);
@@ -77,8 +273,42 @@ public class ValueParserFactory {
             return null;
         }
 
+        if (componentType.isPrimitive()) {
+            return tokenizer != null
+                    ? PrimitiveArrayValueParser.forComponentType(componentType, componentParser, tokenizer)
+                    : PrimitiveArrayValueParser.forComponentType(
+                            componentType, componentParser, ArrayValueParser.DEFAULT_SEPARATOR);
+        }
+
         @SuppressWarnings("unchecked")
-        ValueParser<?> arrayValueParser = new ArrayValueParser(componentParser);
+        ValueParser<?> arrayValueParser = tokenizer != null
+                ? new ArrayValueParser(componentParser, tokenizer)
+                : new ArrayValueParser(componentParser);
         return arrayValueParser;
     }
+
+    private static class CollectionKey {
+
+        private final Type type;
+        private final SeparatedValueTokenizer tokenizer;
+
+        private CollectionKey(Type type, SeparatedValueTokenizer tokenizer) {
+            this.type = type;
+            this.tokenizer = tokenizer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CollectionKey)) {
+                return false;
+            }
+            CollectionKey that = (CollectionKey) o;
+            return type.equals(that.type) && Objects.equals(tokenizer, that.tokenizer);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Objects.hashCode(tokenizer);
+        }
+    }
 }
@@ -3,10 +3,15 @@ package com.statemachinesystems.envy.parsers;
 import com.statemachinesystems.envy.ValueParser;
 
 import java.lang.reflect.Array;
+import java.util.List;
 
 /**
  * {@link ValueParser} implementation for array values.
  *
+ * Literal separators are matched by scanning the string once, without splitting it into an intermediate array.
+ * Separators containing regular expression metacharacters are treated as regular expressions.
+ * Alternatively, a {@link SeparatedValueTokenizer} can be given to support trimming, quoting and escaping.
+ *
  * @param <T>  the type of the array element to be parsed
  */
 public class ArrayValueParser<T> implements ValueParser<T[]> {
@@ -16,10 +21,21 @@ public class ArrayValueParser<T> implements ValueParser<T[]> {
 
     private final ValueParser<T> valueParser;
     private final String separator;
+    private final boolean literalSeparator;
+    private final SeparatedValueTokenizer tokenizer;
 
     public ArrayValueParser(ValueParser<T> valueParser, String separator) {
         this.valueParser = valueParser;
         this.separator = separator;
+        this.literalSeparator = SeparatedValues.isLiteral(separator);
+        this.tokenizer = null;
+    }
+
+    public ArrayValueParser(ValueParser<T> valueParser, SeparatedValueTokenizer tokenizer) {
+        this.valueParser = valueParser;
+        this.separator = null;
+        this.literalSeparator = false;
+        this.tokenizer = tokenizer;
     }
 
     public ArrayValueParser(ValueParser<T> valueParser) {
@@ -28,19 +44,36 @@ public class ArrayValueParser<T> implements ValueParser<T[]> {
 
     @Override
     public T[] parseValue(String value) {
-        String[] parts = value.isEmpty()
-            ? new String[] {}
-            : value.split(separator, INCLUDE_TRAILING);
+        if (tokenizer != null) {
+            List<String> tokens = tokenizer.tokenize(value);
+            return parseParts(tokens.toArray(new String[tokens.size()]));
+        } else if (!literalSeparator) {
+            return parseParts(value.isEmpty() ? new String[] {} : value.split(separator, INCLUDE_TRAILING));
+        }
 
-        @SuppressWarnings("unchecked")
-        T[] array = (T[]) Array.newInstance(valueParser.getValueClass(), parts.length);
+        T[] array = newArray(SeparatedValues.count(value, separator));
+        int start = 0;
+        for (int i = 0; i < array.length; i++) {
+            int end = SeparatedValues.end(value, separator, start);
+            array[i] = valueParser.parseValue(value.substring(start, end));
+            start = end + separator.length();
+        }
+        return array;
+    }
 
+    private T[] parseParts(String[] parts) {
+        T[] array = newArray(parts.length);
         for (int i = 0; i < parts.length; i++) {
             array[i] = valueParser.parseValue(parts[i]);
         }
         return array;
     }
 
+    @SuppressWarnings("unchecked")
+    private T[] newArray(int length) {
+        return (T[]) Array.newInstance(valueParser.getValueClass(), length);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Class<T[]> getValueClass() {
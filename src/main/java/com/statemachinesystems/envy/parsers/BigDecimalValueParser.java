@@ -18,4 +18,9 @@ public class BigDecimalValueParser implements ValueParser<BigDecimal> {
     public Class<BigDecimal> getValueClass() {
         return BigDecimal.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
@@ -18,4 +18,9 @@ public class BigIntegerValueParser implements ValueParser<BigInteger> {
     public Class<BigInteger> getValueClass() {
         return BigInteger.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
@@ -0,0 +1,100 @@
+package com.statemachinesystems.envy.parsers;
+
+import com.statemachinesystems.envy.ValueParser;
+import com.statemachinesystems.envy.values.ImmutableCollections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link ValueParser} implementation for {@link java.util.List}, {@link java.util.Set} and
+ * {@link java.util.EnumSet} values, split into elements with a {@link SeparatedValueTokenizer}.
+ *
+ * Lists and sets are immutable (see {@link ImmutableCollections}). An {@link java.util.EnumSet} can't be
+ * made immutable, so callers shouldn't modify it.
+ *
+ * @param <C>  the collection type to be parsed
+ * @param <E>  the type of the collection's elements
+ */
+public class CollectionValueParser<C extends Collection<E>, E> implements ValueParser<C> {
+
+    /**
+     * Creates a {@link ValueParser} for immutable lists.
+     *
+     * @param elementParser  the parser for each element
+     * @param tokenizer      the tokenizer that splits values into elements
+     * @param <E>            the type of the elements
+     * @return  a parser for lists
+     */
+    public static <E> ValueParser<List<E>> listOf(ValueParser<E> elementParser, SeparatedValueTokenizer tokenizer) {
+        Class<E> elementClass = elementParser.getValueClass();
+        return new CollectionValueParser<List<E>, E>(List.class, elementParser, tokenizer,
+                elements -> ImmutableCollections.listOf(elementClass, elements));
+    }
+
+    /**
+     * Creates a {@link ValueParser} for immutable sets, which ignore duplicate elements.
+     *
+     * @param elementParser  the parser for each element
+     * @param tokenizer      the tokenizer that splits values into elements
+     * @param <E>            the type of the elements
+     * @return  a parser for sets
+     */
+    public static <E> ValueParser<Set<E>> setOf(ValueParser<E> elementParser, SeparatedValueTokenizer tokenizer) {
+        Class<E> elementClass = elementParser.getValueClass();
+        return new CollectionValueParser<Set<E>, E>(Set.class, elementParser, tokenizer,
+                elements -> ImmutableCollections.setOf(elementClass, elements));
+    }
+
+    /**
+     * Creates a {@link ValueParser} for enum sets, which ignore duplicate elements.
+     *
+     * @param elementParser  the parser for each element
+     * @param tokenizer      the tokenizer that splits values into elements
+     * @param <E>            the enum type of the elements
+     * @return  a parser for enum sets
+     */
+    public static <E extends Enum<E>> ValueParser<EnumSet<E>> enumSetOf(ValueParser<E> elementParser,
+                                                                      SeparatedValueTokenizer tokenizer) {
+        Class<E> elementClass = elementParser.getValueClass();
+        return new CollectionValueParser<EnumSet<E>, E>(EnumSet.class, elementParser, tokenizer,
+                elements -> {
+                    EnumSet<E> enumSet = EnumSet.noneOf(elementClass);
+                    enumSet.addAll(elements);
+                    return enumSet;
+                });
+    }
+
+    private final Class<C> collectionClass;
+    private final ValueParser<E> elementParser;
+    private final SeparatedValueTokenizer tokenizer;
+    private final Function<List<E>, C> factory;
+
+    @SuppressWarnings("unchecked")
+    private CollectionValueParser(Class<?> collectionClass, ValueParser<E> elementParser,
+                                  SeparatedValueTokenizer tokenizer, Function<List<E>, C> factory) {
+        this.collectionClass = (Class<C>) collectionClass;
+        this.elementParser = elementParser;
+        this.tokenizer = tokenizer;
+        this.factory = factory;
+    }
+
+    @Override
+    public C parseValue(String value) {
+        List<String> tokens = tokenizer.tokenize(value);
+        List<E> elements = new ArrayList<E>(tokens.size());
+        for (String token : tokens) {
+            elements.add(elementParser.parseValue(token));
+        }
+        return factory.apply(elements);
+    }
+
+    @Override
+    public Class<C> getValueClass() {
+        return collectionClass;
+    }
+}
@@ -4,17 +4,18 @@ import com.statemachinesystems.envy.ValueParser;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * {@link ValueParser} implementation for {@link java.time.Duration} values.
  *
  * <p>Supports the following grammar:</p>
  * <pre>
- *     ("-"|"+")? digit+ (whitespace? unit)?
+ *     ("-"|"+")? amount (whitespace? unit)?
+ *     ("-"|"+")? amount whitespace? unit (whitespace? amount whitespace? unit)*
+ *
+ *     amount = digit+ ("." digit+)?
  * </pre>
  *
  * Where <code>unit</code> must be one of the following lower-case labels:
@@ -28,55 +29,242 @@ import java.util.regex.Pattern;
  *     <li><code>ns</code>, <code>nano</code>, <code>nanos</code>, <code>nanosecond</code> or <code>nanoseconds</code></li>
  * </ul>
  *
- * <p>Values without a unit label are treated as milliseconds.</p>
+ * <p>Values without a unit label are treated as milliseconds. Compound values such as <code>1h30m</code> are
+ * the sum of their parts, and the sign applies to the whole value. Fractional amounts such as <code>1.5s</code>
+ * must be a whole number of nanoseconds.</p>
+ *
+ * <p>Values are parsed by a single-pass scanner that doesn't allocate for valid input.</p>
  */
 public class DurationValueParser implements ValueParser<Duration> {
 
-    private static Pattern pattern = Pattern.compile("([-+]?\\d+)(\\s*(\\p{Lower}+))?", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final String[] labels;
+    private static final ChronoUnit[] labelUnits;
+    private static final long[] labelNanos;
+    private static final int[] labelScales;
+    private static final int millisLabel;
 
-    private static Map<String, ChronoUnit> units = new HashMap<>();
+    private static final long[] powersOfTen = new long[12];
+    private static final int maxFractionDigits = powersOfTen.length - 1;
 
     static {
-        for (String label : new String[] {"d", "day", "days"}) {
-            units.put(label, ChronoUnit.DAYS);
-        }
-        for (String label : new String[] {"h", "hour", "hours"}) {
-            units.put(label, ChronoUnit.HOURS);
+        List<String> labelList = new ArrayList<>();
+        List<ChronoUnit> unitList = new ArrayList<>();
+
+        addUnit(labelList, unitList, ChronoUnit.DAYS, "d", "day", "days");
+        addUnit(labelList, unitList, ChronoUnit.HOURS, "h", "hour", "hours");
+        addUnit(labelList, unitList, ChronoUnit.MINUTES, "m", "min", "mins", "minute", "minutes");
+        addUnit(labelList, unitList, ChronoUnit.SECONDS, "s", "sec", "secs", "second", "seconds");
+        addUnit(labelList, unitList, ChronoUnit.MILLIS, "ms", "milli", "millis", "millisecond", "milliseconds");
+        addUnit(labelList, unitList, ChronoUnit.MICROS, "us", "\u03BCs", "micro", "micros", "microsecond", "microseconds");
+        addUnit(labelList, unitList, ChronoUnit.NANOS, "ns", "nano", "nanos", "nanosecond", "nanoseconds");
+
+        labels = labelList.toArray(new String[0]);
+        millisLabel = labelList.indexOf("ms");
+        labelUnits = unitList.toArray(new ChronoUnit[0]);
+        labelNanos = new long[labels.length];
+        labelScales = new int[labels.length];
+
+        powersOfTen[0] = 1;
+        for (int i = 1; i < powersOfTen.length; i++) {
+            powersOfTen[i] = powersOfTen[i - 1] * 10;
         }
-        for (String label : new String[] {"m", "min", "mins", "minute", "minutes"}) {
-            units.put(label, ChronoUnit.MINUTES);
+
+        for (int i = 0; i < labels.length; i++) {
+            long nanos = labelUnits[i].getDuration().toNanos();
+            int scale = 0;
+            while (scale < maxFractionDigits && nanos % powersOfTen[scale + 1] == 0) {
+                scale++;
+            }
+            labelNanos[i] = nanos;
+            labelScales[i] = scale;
         }
-        for (String label : new String[] {"s", "sec", "secs", "second", "seconds"}) {
-            units.put(label, ChronoUnit.SECONDS);
+    }
+
+    private static void addUnit(List<String> labelList, List<ChronoUnit> unitList, ChronoUnit unit,
+                                String... unitLabels) {
+        for (String label : unitLabels) {
+            labelList.add(label);
+            unitList.add(unit);
         }
-        for (String label : new String[] {"ms", "milli", "millis", "millisecond", "milliseconds"}) {
-            units.put(label, ChronoUnit.MILLIS);
+    }
+
+    @Override
+    public Duration parseValue(String value) {
+        int length = value.length();
+        int position = 0;
+
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            position++;
         }
-        for (String label : new String[] {"us", "\u03BCs", "micro", "micros", "microsecond", "microseconds"}) {
-            units.put(label, ChronoUnit.MICROS);
+
+        Duration duration = Duration.ZERO;
+        int unknownLabelStart = -1;
+        int unknownLabelEnd = -1;
+        boolean compound = false;
+        int outOfRangeStart = -1;
+        int outOfRangeEnd = -1;
+        ArithmeticException overflow = null;
+
+        while (true) {
+            long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long multiplyLimit = limit / 10;
+            long amount = 0;
+            int amountStart = position;
+            boolean amountOutOfRange = false;
+            char c;
+            while (position < length && Character.isDigit(c = value.charAt(position))) {
+                int digit = Character.digit(c, 10);
+                if (amount < multiplyLimit || amount * 10 < limit + digit) {
+                    amountOutOfRange = true;
+                } else {
+                    amount = amount * 10 - digit;
+                }
+                position++;
+            }
+            if (position == amountStart) {
+                throw invalidFormat(value);
+            }
+            if (amountOutOfRange && outOfRangeStart < 0) {
+                outOfRangeStart = compound ? amountStart : 0;
+                outOfRangeEnd = position;
+            }
+            if (!negative) {
+                amount = -amount;
+            }
+
+            long fraction = 0;
+            int scale = 0;
+            if (position < length && value.charAt(position) == '.') {
+                position++;
+                int fractionStart = position;
+                int pendingZeros = 0;
+                while (position < length && Character.isDigit(c = value.charAt(position))) {
+                    int digit = Character.digit(c, 10);
+                    if (digit == 0) {
+                        pendingZeros++;
+                    } else {
+                        scale += pendingZeros + 1;
+                        if (scale > maxFractionDigits) {
+                            throw invalidFormat(value);
+                        }
+                        fraction = fraction * powersOfTen[pendingZeros + 1] + digit;
+                        pendingZeros = 0;
+                    }
+                    position++;
+                }
+                if (position == fractionStart) {
+                    throw invalidFormat(value);
+                }
+            }
+
+            int whitespaceStart = position;
+            position = skipWhitespace(value, position);
+
+            int label;
+            if (position < length && Character.isLowerCase(value.codePointAt(position))) {
+                int labelStart = position;
+                do {
+                    position += Character.charCount(value.codePointAt(position));
+                } while (position < length && Character.isLowerCase(value.codePointAt(position)));
+
+                label = findLabel(value, labelStart, position);
+                if (label < 0 && unknownLabelStart < 0) {
+                    unknownLabelStart = labelStart;
+                    unknownLabelEnd = position;
+                }
+            } else if (position == length && position == whitespaceStart && !compound) {
+                label = millisLabel;
+            } else {
+                throw invalidFormat(value);
+            }
+
+            if (label >= 0 && scale > labelScales[label]) {
+                throw invalidFormat(value);
+            }
+            if (label >= 0 && outOfRangeStart < 0 && overflow == null) {
+                long fractionNanos = fraction * (labelNanos[label] / powersOfTen[scale]);
+                try {
+                    Duration part = Duration.of(amount, labelUnits[label])
+                            .plusNanos(negative ? -fractionNanos : fractionNanos);
+                    duration = compound ? duration.plus(part) : part;
+                } catch (ArithmeticException e) {
+                    overflow = e;
+                }
+            }
+
+            whitespaceStart = position;
+            position = skipWhitespace(value, position);
+            if (position == length) {
+                if (position != whitespaceStart) {
+                    throw invalidFormat(value);
+                }
+                break;
+            } else if (!Character.isDigit(value.charAt(position))) {
+                throw invalidFormat(value);
+            }
+            compound = true;
         }
-        for (String label : new String[] {"ns", "nano", "nanos", "nanosecond", "nanoseconds"}) {
-            units.put(label, ChronoUnit.NANOS);
+
+        if (outOfRangeStart >= 0) {
+            throw new NumberFormatException(
+                    "For input string: \"" + value.substring(outOfRangeStart, outOfRangeEnd) + "\"");
+        } else if (unknownLabelStart >= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid duration unit: " + value.substring(unknownLabelStart, unknownLabelEnd));
+        } else if (overflow != null) {
+            throw overflow;
         }
+        return duration;
     }
 
-    @Override
-    public Duration parseValue(String value) {
-        Matcher matcher = pattern.matcher(value);
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException("Invalid duration format: " + value);
+    private static int findLabel(String value, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].length() == length && value.regionMatches(start, labels[i], 0, length)) {
+                return i;
+            }
         }
-        long amount = Long.parseLong(matcher.group(1));
-        String label = matcher.group(3);
-        ChronoUnit unit = label == null ? ChronoUnit.MILLIS : units.get(label);
-        if (unit == null) {
-            throw new IllegalArgumentException("Invalid duration unit: " + label);
+        return -1;
+    }
+
+    private static int skipWhitespace(String value, int position) {
+        while (position < value.length() && isWhitespace(value.charAt(position))) {
+            position++;
         }
-        return Duration.of(amount, unit);
+        return position;
+    }
+
+    /**
+     * Matches the Unicode <code>White_Space</code> property, as used by <code>\s</code> in
+     * {@link java.util.regex.Pattern#UNICODE_CHARACTER_CLASS} mode.
+     */
+    private static boolean isWhitespace(char c) {
+        return (c >= '\t' && c <= '\r')
+                || c == ' '
+                || c == '\u0085'
+                || c == '\u00A0'
+                || c == '\u1680'
+                || (c >= '\u2000' && c <= '\u200A')
+                || c == '\u2028'
+                || c == '\u2029'
+                || c == '\u202F'
+                || c == '\u205F'
+                || c == '\u3000';
+    }
+
+    private static IllegalArgumentException invalidFormat(String value) {
+        return new IllegalArgumentException("Invalid duration format: " + value);
     }
 
     @Override
     public Class<Duration> getValueClass() {
         return Duration.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
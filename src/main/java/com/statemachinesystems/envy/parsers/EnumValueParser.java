@@ -1,39 +1,124 @@
 package com.statemachinesystems.envy.parsers;
 
+import com.statemachinesystems.envy.Name;
 import com.statemachinesystems.envy.ValueParser;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import static com.statemachinesystems.envy.Assertions.assertEnum;
 
 /**
  * {@link ValueParser} implementation for enum values.
  *
+ * Values are matched against each constant's name, and against an alias given by a {@link Name} annotation
+ * on the constant, e.g. <code>@Name("fast") FAST</code>. Matching is exact unless the parser is created to
+ * ignore case, in which case an exact match is still preferred.
+ *
+ * Each enum class's names are indexed in a hash table once, and shared between parsers using a {@link ClassValue}.
+ *
  * @param <T>  the enum type to be parsed
  */
 public class EnumValueParser<T extends Enum<T>> implements ValueParser<T> {
 
+    private static final ClassValue<ConstantTable> TABLES = new ClassValue<ConstantTable>() {
+        @Override
+        protected ConstantTable computeValue(Class<?> enumClass) {
+            return new ConstantTable(enumClass);
+        }
+    };
+
     private final Class<T> enumClass;
+    private final boolean ignoreCase;
+    private final ConstantTable table;
 
     public EnumValueParser(Class<T> enumClass) {
+        this(enumClass, false);
+    }
+
+    /**
+     * Creates an {@link EnumValueParser} for the given enum class.
+     *
+     * @param enumClass   the enum class
+     * @param ignoreCase  whether to match names and aliases regardless of case
+     */
+    public EnumValueParser(Class<T> enumClass, boolean ignoreCase) {
         assertEnum(enumClass);
         this.enumClass = enumClass;
+        this.ignoreCase = ignoreCase;
+        this.table = TABLES.get(enumClass);
     }
 
     @Override
     public T parseValue(String value) {
-        for (Object constant : enumClass.getEnumConstants()) {
-            if (value.equals(((Enum<?>) constant).name())) {
-                @SuppressWarnings("unchecked")
-                T enumValue = (T) constant;
-
-                return enumValue;
+        Object constant = table.exact.get(value);
+        if (constant == null && ignoreCase) {
+            constant = table.folded.get(ConstantTable.fold(value));
+            if (constant == ConstantTable.AMBIGUOUS) {
+                throw new IllegalArgumentException(
+                        String.format("Ambiguous constant '%s' for enum %s", value, enumClass.getName()));
             }
         }
-        throw new IllegalArgumentException(
-                String.format("No constant '%s' for enum %s", value, enumClass.getName()));
+        if (constant == null) {
+            throw new IllegalArgumentException(
+                    String.format("No constant '%s' for enum %s", value, enumClass.getName()));
+        }
+
+        @SuppressWarnings("unchecked")
+        T enumValue = (T) constant;
+        return enumValue;
     }
 
     @Override
     public Class<T> getValueClass() {
         return enumClass;
     }
+
+    /**
+     * The constants of an enum class, indexed by name and alias, exactly and case-folded.
+     */
+    private static class ConstantTable {
+
+        private static final Object AMBIGUOUS = new Object();
+
+        private final Map<String, Object> exact = new HashMap<String, Object>();
+        private final Map<String, Object> folded = new HashMap<String, Object>();
+
+        private ConstantTable(Class<?> enumClass) {
+            for (Object constant : enumClass.getEnumConstants()) {
+                String name = ((Enum<?>) constant).name();
+                add(enumClass, name, constant);
+
+                Name alias = getAlias(enumClass, name);
+                if (alias != null && !alias.value().equals(name)) {
+                    add(enumClass, alias.value(), constant);
+                }
+            }
+        }
+
+        private void add(Class<?> enumClass, String name, Object constant) {
+            Object existing = exact.put(name, constant);
+            if (existing != null && existing != constant) {
+                throw new IllegalArgumentException(
+                        String.format("Duplicate name '%s' for enum %s", name, enumClass.getName()));
+            }
+
+            String foldedName = fold(name);
+            Object foldedExisting = folded.get(foldedName);
+            folded.put(foldedName, foldedExisting == null || foldedExisting == constant ? constant : AMBIGUOUS);
+        }
+
+        private static Name getAlias(Class<?> enumClass, String name) {
+            try {
+                return enumClass.getField(name).getAnnotation(Name.class);
+            } catch (NoSuchFieldException e) {
+                return null;
+            }
+        }
+
+        private static String fold(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
 }
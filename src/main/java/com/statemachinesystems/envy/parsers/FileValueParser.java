@@ -18,4 +18,9 @@ public class FileValueParser implements ValueParser<File> {
     public Class<File> getValueClass() {
         return File.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
@@ -0,0 +1,113 @@
+package com.statemachinesystems.envy.parsers;
+
+import com.statemachinesystems.envy.ValueParser;
+import com.statemachinesystems.envy.values.ImmutableCollections;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link ValueParser} implementation for {@link java.util.Map} and {@link java.util.EnumMap} values.
+ *
+ * Values are split into entries with a {@link SeparatedValueTokenizer}, and each entry is split into a key
+ * and a value at its first <code>=</code> character, e.g. <code>eu=10.0.0.1,us=10.0.1.1</code>. Keys and values
+ * are trimmed if the tokenizer trims elements. Duplicate keys are rejected.
+ *
+ * Maps are immutable (see {@link ImmutableCollections}). An {@link java.util.EnumMap} can't be made immutable,
+ * so callers shouldn't modify it.
+ *
+ * @param <M>  the map type to be parsed
+ * @param <K>  the type of the map's keys
+ * @param <V>  the type of the map's values
+ */
+public class MapValueParser<M extends Map<K, V>, K, V> implements ValueParser<M> {
+
+    private static final char KEY_VALUE_SEPARATOR = '=';
+
+    /**
+     * Creates a {@link ValueParser} for immutable maps.
+     *
+     * @param keyParser    the parser for each key
+     * @param valueParser  the parser for each value
+     * @param tokenizer    the tokenizer that splits values into entries
+     * @param <K>          the type of the keys
+     * @param <V>          the type of the values
+     * @return  a parser for maps
+     */
+    public static <K, V> ValueParser<Map<K, V>> mapOf(ValueParser<K> keyParser, ValueParser<V> valueParser,
+                                                      SeparatedValueTokenizer tokenizer) {
+        Class<K> keyClass = keyParser.getValueClass();
+        return new MapValueParser<Map<K, V>, K, V>(Map.class, keyParser, valueParser, tokenizer,
+                entries -> ImmutableCollections.mapOf(keyClass, entries));
+    }
+
+    /**
+     * Creates a {@link ValueParser} for enum maps.
+     *
+     * @param keyParser    the parser for each key
+     * @param valueParser  the parser for each value
+     * @param tokenizer    the tokenizer that splits values into entries
+     * @param <K>          the enum type of the keys
+     * @param <V>          the type of the values
+     * @return  a parser for enum maps
+     */
+    public static <K extends Enum<K>, V> ValueParser<EnumMap<K, V>> enumMapOf(ValueParser<K> keyParser,
+                                                                              ValueParser<V> valueParser,
+                                                                              SeparatedValueTokenizer tokenizer) {
+        Class<K> keyClass = keyParser.getValueClass();
+        return new MapValueParser<EnumMap<K, V>, K, V>(EnumMap.class, keyParser, valueParser, tokenizer,
+                entries -> {
+                    EnumMap<K, V> enumMap = new EnumMap<K, V>(keyClass);
+                    enumMap.putAll(entries);
+                    return enumMap;
+                });
+    }
+
+    private final Class<M> mapClass;
+    private final ValueParser<K> keyParser;
+    private final ValueParser<V> valueParser;
+    private final SeparatedValueTokenizer tokenizer;
+    private final Function<Map<K, V>, M> factory;
+
+    @SuppressWarnings("unchecked")
+    private MapValueParser(Class<?> mapClass, ValueParser<K> keyParser, ValueParser<V> valueParser,
+                           SeparatedValueTokenizer tokenizer, Function<Map<K, V>, M> factory) {
+        this.mapClass = (Class<M>) mapClass;
+        this.keyParser = keyParser;
+        this.valueParser = valueParser;
+        this.tokenizer = tokenizer;
+        this.factory = factory;
+    }
+
+    @Override
+    public M parseValue(String value) {
+        List<String> tokens = tokenizer.tokenize(value);
+        Map<K, V> entries = new LinkedHashMap<K, V>();
+        for (String token : tokens) {
+            int separator = token.indexOf(KEY_VALUE_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value entry: " + token);
+            }
+            String rawKey = token.substring(0, separator);
+            String rawValue = token.substring(separator + 1);
+            if (tokenizer.isTrimming()) {
+                rawKey = rawKey.trim();
+                rawValue = rawValue.trim();
+            }
+
+            K key = keyParser.parseValue(rawKey);
+            if (entries.put(key, valueParser.parseValue(rawValue)) != null) {
+                throw new IllegalArgumentException("Duplicate key: " + rawKey);
+            }
+        }
+        return factory.apply(entries);
+    }
+
+    @Override
+    public Class<M> getValueClass() {
+        return mapClass;
+    }
+}
@@ -18,4 +18,9 @@ public class PatternValueParser implements ValueParser<Pattern> {
     public Class<Pattern> getValueClass() {
         return Pattern.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
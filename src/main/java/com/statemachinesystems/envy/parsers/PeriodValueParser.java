@@ -4,10 +4,8 @@ import com.statemachinesystems.envy.ValueParser;
 
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * {@link ValueParser} implementation for {@link java.time.Period} values.
@@ -15,6 +13,7 @@ import java.util.regex.Pattern;
  * <p>Supports the following grammar:</p>
  * <pre>
  *     ("-"|"+")? digit+ (whitespace? unit)?
+ *     ("-"|"+")? digit+ whitespace? unit (whitespace? digit+ whitespace? unit)*
  * </pre>
  * <p>
  * Where <code>unit</code> must be one of the following lower-case labels:
@@ -25,59 +24,199 @@ import java.util.regex.Pattern;
  * <li><code>y</code>, <code>year</code> or <code>years</code></li>
  * </ul>
  * <p>
- * <p>Values without a unit label are treated as days.</p>
+ * <p>Values without a unit label are treated as days. Compound values such as <code>1y6m</code> are
+ * the sum of their parts, and the sign applies to the whole value.</p>
+ * <p>
+ * <p>Values are parsed by a single-pass scanner that doesn't allocate for valid input.</p>
  */
 public class PeriodValueParser implements ValueParser<Period> {
 
-    private static Pattern pattern = Pattern.compile("([-+]?\\d+)(\\s*(\\p{Lower}+))?");
-
-    private static Map<String, ChronoUnit> units = new HashMap<>();
+    private static final String[] labels;
+    private static final ChronoUnit[] labelUnits;
+    private static final int daysLabel;
 
     static {
-        for (String label : new String[]{"d", "day", "days"}) {
-            units.put(label, ChronoUnit.DAYS);
-        }
-        for (String label : new String[]{"w", "week", "weeks"}) {
-            units.put(label, ChronoUnit.WEEKS);
-        }
-        for (String label : new String[]{"m", "mo", "month", "months"}) {
-            units.put(label, ChronoUnit.MONTHS);
-        }
-        for (String label : new String[]{"y", "year", "years"}) {
-            units.put(label, ChronoUnit.YEARS);
+        List<String> labelList = new ArrayList<>();
+        List<ChronoUnit> unitList = new ArrayList<>();
+
+        addUnit(labelList, unitList, ChronoUnit.DAYS, "d", "day", "days");
+        addUnit(labelList, unitList, ChronoUnit.WEEKS, "w", "week", "weeks");
+        addUnit(labelList, unitList, ChronoUnit.MONTHS, "m", "mo", "month", "months");
+        addUnit(labelList, unitList, ChronoUnit.YEARS, "y", "year", "years");
+
+        labels = labelList.toArray(new String[0]);
+        labelUnits = unitList.toArray(new ChronoUnit[0]);
+        daysLabel = labelList.indexOf("d");
+    }
+
+    private static void addUnit(List<String> labelList, List<ChronoUnit> unitList, ChronoUnit unit,
+                                String... unitLabels) {
+        for (String label : unitLabels) {
+            labelList.add(label);
+            unitList.add(unit);
         }
     }
 
     @Override
     public Period parseValue(String value) {
-        Matcher matcher = pattern.matcher(value);
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException("Invalid period format: " + value);
+        int length = value.length();
+        int position = 0;
+
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            position++;
         }
 
-        int amount = Integer.parseInt(matcher.group(1));
-        String label = matcher.group(3);
-        ChronoUnit unit = label == null ? ChronoUnit.DAYS : units.get(label);
-        if (unit == null) {
-            throw new IllegalArgumentException("Invalid period unit: " + label);
+        int years = 0;
+        int months = 0;
+        int days = 0;
+        int unknownLabelStart = -1;
+        int unknownLabelEnd = -1;
+        boolean compound = false;
+        int outOfRangeStart = -1;
+        int outOfRangeEnd = -1;
+        ArithmeticException overflow = null;
+
+        while (true) {
+            int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+            int multiplyLimit = limit / 10;
+            int amount = 0;
+            int amountStart = position;
+            boolean amountOutOfRange = false;
+            char c;
+            while (position < length && isDigit(c = value.charAt(position))) {
+                int digit = c - '0';
+                if (amount < multiplyLimit || amount * 10 < limit + digit) {
+                    amountOutOfRange = true;
+                } else {
+                    amount = amount * 10 - digit;
+                }
+                position++;
+            }
+            if (position == amountStart) {
+                throw invalidFormat(value);
+            }
+            if (amountOutOfRange && outOfRangeStart < 0) {
+                outOfRangeStart = compound ? amountStart : 0;
+                outOfRangeEnd = position;
+            }
+            if (!negative) {
+                amount = -amount;
+            }
+
+            int whitespaceStart = position;
+            position = skipWhitespace(value, position);
+
+            int label;
+            if (position < length && isLowerCase(value.charAt(position))) {
+                int labelStart = position;
+                do {
+                    position++;
+                } while (position < length && isLowerCase(value.charAt(position)));
+
+                label = findLabel(value, labelStart, position);
+                if (label < 0 && unknownLabelStart < 0) {
+                    unknownLabelStart = labelStart;
+                    unknownLabelEnd = position;
+                }
+            } else if (position == length && position == whitespaceStart && !compound) {
+                label = daysLabel;
+            } else {
+                throw invalidFormat(value);
+            }
+
+            if (label >= 0 && outOfRangeStart < 0 && overflow == null) {
+                try {
+                    switch (labelUnits[label]) {
+                        case DAYS:
+                            days = Math.addExact(days, amount);
+                            break;
+                        case WEEKS:
+                            days = Math.addExact(days, Math.multiplyExact(amount, 7));
+                            break;
+                        case MONTHS:
+                            months = Math.addExact(months, amount);
+                            break;
+                        case YEARS:
+                            years = Math.addExact(years, amount);
+                            break;
+                        default:
+                            throw new IllegalStateException("Unsupported unit:" + labelUnits[label]);
+                    }
+                } catch (ArithmeticException e) {
+                    overflow = e;
+                }
+            }
+
+            whitespaceStart = position;
+            position = skipWhitespace(value, position);
+            if (position == length) {
+                if (position != whitespaceStart) {
+                    throw invalidFormat(value);
+                }
+                break;
+            } else if (!isDigit(value.charAt(position))) {
+                throw invalidFormat(value);
+            }
+            compound = true;
         }
 
-        switch (unit) {
-            case DAYS:
-                return Period.ofDays(amount);
-            case WEEKS:
-                return Period.ofWeeks(amount);
-            case MONTHS:
-                return Period.ofMonths(amount);
-            case YEARS:
-                return Period.ofYears(amount);
-            default:
-                throw new IllegalStateException("Unsupported unit:" + unit);
+        if (outOfRangeStart >= 0) {
+            throw new NumberFormatException(
+                    "For input string: \"" + value.substring(outOfRangeStart, outOfRangeEnd) + "\"");
+        } else if (unknownLabelStart >= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid period unit: " + value.substring(unknownLabelStart, unknownLabelEnd));
+        } else if (overflow != null) {
+            throw overflow;
         }
+        return Period.of(years, months, days);
+    }
+
+    private static int findLabel(String value, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].length() == length && value.regionMatches(start, labels[i], 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(String value, int position) {
+        while (position < value.length() && isWhitespace(value.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    /**
+     * Matches <code>\s</code> as used by {@link java.util.regex.Pattern} without Unicode character classes.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static IllegalArgumentException invalidFormat(String value) {
+        return new IllegalArgumentException("Invalid period format: " + value);
     }
 
     @Override
     public Class<Period> getValueClass() {
         return Period.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
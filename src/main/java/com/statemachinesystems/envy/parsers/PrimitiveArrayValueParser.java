@@ -0,0 +1,369 @@
+package com.statemachinesystems.envy.parsers;
+
+import com.statemachinesystems.envy.ValueParser;
+
+import java.util.List;
+
+/**
+ * {@link ValueParser} implementation for arrays of primitive values, such as <code>int[]</code>.
+ *
+ * Elements are parsed straight into the primitive array, without boxing them or copying a boxed array.
+ * With a literal separator, the string is scanned once without splitting it into an intermediate array.
+ * Alternatively, a {@link SeparatedValueTokenizer} can be given to support trimming, quoting and escaping.
+ * Elements are parsed with the given component parser, except that plain decimal values for the built-in
+ * integral parsers are parsed in place; anything else falls back to the component parser, so results and
+ * error messages are the same.
+ *
+ * @param <A>  the primitive array type to be parsed
+ */
+public abstract class PrimitiveArrayValueParser<A> implements ValueParser<A> {
+
+    /**
+     * Creates a {@link ValueParser} for arrays of the given primitive type.
+     *
+     * @param componentType    the primitive component type
+     * @param componentParser  the parser for the boxed component type
+     * @param separator        the separator between elements
+     * @return  a parser for the primitive array type
+     */
+    public static ValueParser<?> forComponentType(Class<?> componentType, ValueParser<?> componentParser,
+                                                  String separator) {
+        return forComponentType(componentType, componentParser, separator, null);
+    }
+
+    /**
+     * Creates a {@link ValueParser} for arrays of the given primitive type, split by the given tokenizer.
+     *
+     * @param componentType    the primitive component type
+     * @param componentParser  the parser for the boxed component type
+     * @param tokenizer        the tokenizer that splits values into elements
+     * @return  a parser for the primitive array type
+     */
+    public static ValueParser<?> forComponentType(Class<?> componentType, ValueParser<?> componentParser,
+                                                  SeparatedValueTokenizer tokenizer) {
+        return forComponentType(componentType, componentParser, null, tokenizer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueParser<?> forComponentType(Class<?> componentType, ValueParser<?> componentParser,
+                                                   String separator, SeparatedValueTokenizer tokenizer) {
+        if (componentType == int.class) {
+            return new IntArrayValueParser((ValueParser<Integer>) componentParser, separator, tokenizer);
+        } else if (componentType == long.class) {
+            return new LongArrayValueParser((ValueParser<Long>) componentParser, separator, tokenizer);
+        } else if (componentType == short.class) {
+            return new ShortArrayValueParser((ValueParser<Short>) componentParser, separator, tokenizer);
+        } else if (componentType == byte.class) {
+            return new ByteArrayValueParser((ValueParser<Byte>) componentParser, separator, tokenizer);
+        } else if (componentType == double.class) {
+            return new DoubleArrayValueParser((ValueParser<Double>) componentParser, separator, tokenizer);
+        } else if (componentType == float.class) {
+            return new FloatArrayValueParser((ValueParser<Float>) componentParser, separator, tokenizer);
+        } else if (componentType == boolean.class) {
+            return new BooleanArrayValueParser((ValueParser<Boolean>) componentParser, separator, tokenizer);
+        } else if (componentType == char.class) {
+            return new CharArrayValueParser((ValueParser<Character>) componentParser, separator, tokenizer);
+        }
+        throw new IllegalArgumentException(
+                String.format("%s is not a primitive type", componentType.getSimpleName()));
+    }
+
+    private static final int INCLUDE_TRAILING = -1;
+    private static final long NOT_PLAIN_DECIMAL = Long.MIN_VALUE;
+    private static final int MAX_PLAIN_DIGITS = 18;
+
+    private final Class<A> arrayClass;
+    private final String separator;
+    private final boolean literalSeparator;
+    private final SeparatedValueTokenizer tokenizer;
+
+    protected PrimitiveArrayValueParser(Class<A> arrayClass, String separator) {
+        this(arrayClass, separator, null);
+    }
+
+    protected PrimitiveArrayValueParser(Class<A> arrayClass, String separator, SeparatedValueTokenizer tokenizer) {
+        this.arrayClass = arrayClass;
+        this.separator = separator;
+        this.literalSeparator = tokenizer == null && SeparatedValues.isLiteral(separator);
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public A parseValue(String value) {
+        if (tokenizer != null) {
+            List<String> tokens = tokenizer.tokenize(value);
+            A array = newArray(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                setElement(array, i, token, 0, token.length());
+            }
+            return array;
+        } else if (!literalSeparator) {
+            String[] parts = value.isEmpty() ? new String[] {} : value.split(separator, INCLUDE_TRAILING);
+            A array = newArray(parts.length);
+            for (int i = 0; i < parts.length; i++) {
+                setElement(array, i, parts[i], 0, parts[i].length());
+            }
+            return array;
+        }
+
+        int length = SeparatedValues.count(value, separator);
+        A array = newArray(length);
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            int end = SeparatedValues.end(value, separator, start);
+            setElement(array, i, value, start, end);
+            start = end + separator.length();
+        }
+        return array;
+    }
+
+    @Override
+    public Class<A> getValueClass() {
+        return arrayClass;
+    }
+
+    /**
+     * Creates an array of the given length.
+     */
+    protected abstract A newArray(int length);
+
+    /**
+     * Parses the element between the given positions of the string and stores it in the array.
+     */
+    protected abstract void setElement(A array, int index, String value, int start, int end);
+
+    /**
+     * Parses an optionally signed string of up to 18 ASCII digits, or returns a sentinel
+     * if the value is anything else and must be parsed in full.
+     */
+    private static long parsePlainDecimal(String value, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end) {
+            char sign = value.charAt(position);
+            if (sign == '-' || sign == '+') {
+                negative = sign == '-';
+                position++;
+            }
+        }
+        int digits = end - position;
+        if (digits < 1 || digits > MAX_PLAIN_DIGITS) {
+            return NOT_PLAIN_DECIMAL;
+        }
+
+        long result = 0;
+        for (; position < end; position++) {
+            char c = value.charAt(position);
+            if (c < '0' || c > '9') {
+                return NOT_PLAIN_DECIMAL;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return negative ? -result : result;
+    }
+
+    private static boolean isPlainDecimalInRange(long parsed, long min, long max) {
+        return parsed != NOT_PLAIN_DECIMAL && parsed >= min && parsed <= max;
+    }
+
+    private static class IntArrayValueParser extends PrimitiveArrayValueParser<int[]> {
+
+        private final ValueParser<Integer> componentParser;
+        private final boolean builtIn;
+
+        private IntArrayValueParser(ValueParser<Integer> componentParser, String separator,
+                                    SeparatedValueTokenizer tokenizer) {
+            super(int[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == IntegerValueParser.class;
+        }
+
+        @Override
+        protected int[] newArray(int length) {
+            return new int[length];
+        }
+
+        @Override
+        protected void setElement(int[] array, int index, String value, int start, int end) {
+            long parsed = builtIn ? parsePlainDecimal(value, start, end) : NOT_PLAIN_DECIMAL;
+            array[index] = isPlainDecimalInRange(parsed, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                    ? (int) parsed
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class LongArrayValueParser extends PrimitiveArrayValueParser<long[]> {
+
+        private final ValueParser<Long> componentParser;
+        private final boolean builtIn;
+
+        private LongArrayValueParser(ValueParser<Long> componentParser, String separator,
+                                     SeparatedValueTokenizer tokenizer) {
+            super(long[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == LongValueParser.class;
+        }
+
+        @Override
+        protected long[] newArray(int length) {
+            return new long[length];
+        }
+
+        @Override
+        protected void setElement(long[] array, int index, String value, int start, int end) {
+            long parsed = builtIn ? parsePlainDecimal(value, start, end) : NOT_PLAIN_DECIMAL;
+            array[index] = parsed != NOT_PLAIN_DECIMAL
+                    ? parsed
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class ShortArrayValueParser extends PrimitiveArrayValueParser<short[]> {
+
+        private final ValueParser<Short> componentParser;
+        private final boolean builtIn;
+
+        private ShortArrayValueParser(ValueParser<Short> componentParser, String separator,
+                                      SeparatedValueTokenizer tokenizer) {
+            super(short[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == ShortValueParser.class;
+        }
+
+        @Override
+        protected short[] newArray(int length) {
+            return new short[length];
+        }
+
+        @Override
+        protected void setElement(short[] array, int index, String value, int start, int end) {
+            long parsed = builtIn ? parsePlainDecimal(value, start, end) : NOT_PLAIN_DECIMAL;
+            array[index] = isPlainDecimalInRange(parsed, Short.MIN_VALUE, Short.MAX_VALUE)
+                    ? (short) parsed
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class ByteArrayValueParser extends PrimitiveArrayValueParser<byte[]> {
+
+        private final ValueParser<Byte> componentParser;
+        private final boolean builtIn;
+
+        private ByteArrayValueParser(ValueParser<Byte> componentParser, String separator,
+                                     SeparatedValueTokenizer tokenizer) {
+            super(byte[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == ByteValueParser.class;
+        }
+
+        @Override
+        protected byte[] newArray(int length) {
+            return new byte[length];
+        }
+
+        @Override
+        protected void setElement(byte[] array, int index, String value, int start, int end) {
+            long parsed = builtIn ? parsePlainDecimal(value, start, end) : NOT_PLAIN_DECIMAL;
+            array[index] = isPlainDecimalInRange(parsed, Byte.MIN_VALUE, Byte.MAX_VALUE)
+                    ? (byte) parsed
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class DoubleArrayValueParser extends PrimitiveArrayValueParser<double[]> {
+
+        private final ValueParser<Double> componentParser;
+        private final boolean builtIn;
+
+        private DoubleArrayValueParser(ValueParser<Double> componentParser, String separator,
+                                       SeparatedValueTokenizer tokenizer) {
+            super(double[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == DoubleValueParser.class;
+        }
+
+        @Override
+        protected double[] newArray(int length) {
+            return new double[length];
+        }
+
+        @Override
+        protected void setElement(double[] array, int index, String value, int start, int end) {
+            array[index] = builtIn
+                    ? Double.parseDouble(value.substring(start, end))
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class FloatArrayValueParser extends PrimitiveArrayValueParser<float[]> {
+
+        private final ValueParser<Float> componentParser;
+        private final boolean builtIn;
+
+        private FloatArrayValueParser(ValueParser<Float> componentParser, String separator,
+                                      SeparatedValueTokenizer tokenizer) {
+            super(float[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == FloatValueParser.class;
+        }
+
+        @Override
+        protected float[] newArray(int length) {
+            return new float[length];
+        }
+
+        @Override
+        protected void setElement(float[] array, int index, String value, int start, int end) {
+            array[index] = builtIn
+                    ? Float.parseFloat(value.substring(start, end))
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class BooleanArrayValueParser extends PrimitiveArrayValueParser<boolean[]> {
+
+        private final ValueParser<Boolean> componentParser;
+
+        private BooleanArrayValueParser(ValueParser<Boolean> componentParser, String separator,
+                                        SeparatedValueTokenizer tokenizer) {
+            super(boolean[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+        }
+
+        @Override
+        protected boolean[] newArray(int length) {
+            return new boolean[length];
+        }
+
+        @Override
+        protected void setElement(boolean[] array, int index, String value, int start, int end) {
+            array[index] = componentParser.parseValue(value.substring(start, end));
+        }
+    }
+
+    private static class CharArrayValueParser extends PrimitiveArrayValueParser<char[]> {
+
+        private final ValueParser<Character> componentParser;
+        private final boolean builtIn;
+
+        private CharArrayValueParser(ValueParser<Character> componentParser, String separator,
+                                     SeparatedValueTokenizer tokenizer) {
+            super(char[].class, separator, tokenizer);
+            this.componentParser = componentParser;
+            this.builtIn = componentParser.getClass() == CharacterValueParser.class;
+        }
+
+        @Override
+        protected char[] newArray(int length) {
+            return new char[length];
+        }
+
+        @Override
+        protected void setElement(char[] array, int index, String value, int start, int end) {
+            array[index] = builtIn && start < end
+                    ? value.charAt(start)
+                    : componentParser.parseValue(value.substring(start, end));
+        }
+    }
+}
@@ -2,20 +2,50 @@ package com.statemachinesystems.envy.parsers;
 
 import com.statemachinesystems.envy.ValueParser;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
 
 /**
  * {@link ValueParser} implementation for anything with a constructor that takes
- * a single {@link java.lang.String} argument.
+ * a single {@link java.lang.String} argument, or failing that, a static factory method named
+ * <code>valueOf</code>, <code>parse</code>, <code>of</code> or <code>fromString</code> (in order of preference)
+ * that takes a single {@link java.lang.String} or {@link java.lang.CharSequence} argument.
+ *
+ * The constructor or factory method is found once per class, and bound to a function generated by
+ * {@link LambdaMetafactory}, so that parsing costs about the same as calling it directly. Classes that
+ * aren't visible from this class's class loader are bound to a {@link MethodHandle} instead.
  *
  * @param <T>  the type to be parsed
  */
 public class ReflectionValueParser<T> implements ValueParser<T> {
 
+    private static final String[] FACTORY_METHOD_NAMES = { "valueOf", "parse", "of", "fromString" };
+
+    private static final Function<String, Object> NO_FACTORY = value -> {
+        throw new UnsupportedOperationException();
+    };
+
+    private static final ClassValue<Function<String, ?>> FACTORIES = new ClassValue<Function<String, ?>>() {
+        @Override
+        protected Function<String, ?> computeValue(Class<?> valueClass) {
+            Function<String, ?> factory = factoryOrNull(valueClass);
+            return factory != null ? factory : NO_FACTORY;
+        }
+    };
+
     public static <T> ReflectionValueParser<T> parserOrNull(Class<T> valueClass) {
-        Constructor<T> constructor = stringConstructorOrNull(valueClass);
-        return constructor != null
-                ? new ReflectionValueParser<T>(constructor)
+        @SuppressWarnings("unchecked")
+        Function<String, T> factory = (Function<String, T>) FACTORIES.get(valueClass);
+        return factory != NO_FACTORY
+                ? new ReflectionValueParser<T>(valueClass, factory)
                 : null;
     }
 
@@ -34,26 +64,146 @@ public class ReflectionValueParser<T> implements ValueParser<T> {
     public static <T> boolean isStringConstructor(Constructor<T> constructor) {
         Class<?>[] parameterTypes = constructor.getParameterTypes();
         return parameterTypes.length == 1
-                && parameterTypes[0].isAssignableFrom(String.class);// TODO CharSequence instead?
+                && parameterTypes[0].isAssignableFrom(String.class);
+    }
+
+    /**
+     * Finds a public static factory method for the given class, preferring the names
+     * <code>valueOf</code>, <code>parse</code>, <code>of</code> and <code>fromString</code> in that order, and
+     * a {@link java.lang.String} parameter over a {@link java.lang.CharSequence} one.
+     *
+     * Generic factories such as <code>Optional.of(T)</code> take an {@link java.lang.Object} once erased, and
+     * aren't treated as parsers.
+     *
+     * Interfaces are never given factory methods, so that they can still be used for nested configuration.
+     *
+     * @param targetClass  the class to search
+     * @return             the factory method, or null if there's none
+     */
+    public static Method factoryMethodOrNull(Class<?> targetClass) {
+        if (targetClass.isInterface()) {
+            return null;
+        }
+        Method[] methods = targetClass.getMethods();
+        for (String name : FACTORY_METHOD_NAMES) {
+            Method best = null;
+            for (Method method : methods) {
+                if (method.getName().equals(name) && isFactoryMethod(method, targetClass)
+                        && (best == null || best.getParameterTypes()[0].isAssignableFrom(method.getParameterTypes()[0]))) {
+                    best = method;
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isFactoryMethod(Method method, Class<?> targetClass) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        return Modifier.isStatic(method.getModifiers())
+                && parameterTypes.length == 1
+                && (parameterTypes[0] == String.class || parameterTypes[0] == CharSequence.class)
+                && targetClass.isAssignableFrom(method.getReturnType());
+    }
+
+    private static Function<String, ?> factoryOrNull(Class<?> valueClass) {
+        MethodHandle handle;
+        try {
+            Constructor<?> constructor = stringConstructorOrNull(valueClass);
+            Method factoryMethod = constructor == null ? factoryMethodOrNull(valueClass) : null;
+            if (constructor != null) {
+                handle = MethodHandles.publicLookup().unreflectConstructor(constructor);
+            } else if (factoryMethod != null) {
+                handle = MethodHandles.publicLookup().unreflect(factoryMethod);
+            } else {
+                return null;
+            }
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+
+        return isVisible(valueClass) && isVisible(handle.type().parameterType(0))
+                ? bindFunction(handle)
+                : new MethodHandleFunction(handle);
+    }
+
+    /**
+     * Returns whether the given class can be named from this class, as required by the code that
+     * {@link LambdaMetafactory} generates.
+     */
+    private static boolean isVisible(Class<?> c) {
+        try {
+            return Class.forName(c.getName(), false, ReflectionValueParser.class.getClassLoader()) == c;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<String, ?> bindFunction(MethodHandle handle) {
+        MethodType functionType = MethodType.methodType(Object.class, Object.class);
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    MethodHandles.lookup(),
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    functionType,
+                    handle,
+                    MethodType.methodType(handle.type().returnType(), String.class));
+            return (Function<String, ?>) callSite.getTarget().invokeExact();
+        } catch (LambdaConversionException e) {
+            return new MethodHandleFunction(handle);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Invokes a constructor or factory method that {@link LambdaMetafactory} can't bind.
+     */
+    private static class MethodHandleFunction implements Function<String, Object> {
+
+        private final MethodHandle handle;
+
+        private MethodHandleFunction(MethodHandle handle) {
+            this.handle = handle.asType(MethodType.methodType(Object.class, String.class));
+        }
+
+        @Override
+        public Object apply(String value) {
+            try {
+                return handle.invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalArgumentException(t.getMessage(), t);
+            }
+        }
     }
 
-    private final Constructor<T> constructor;
+    private final Class<T> valueClass;
+    private final Function<String, T> factory;
 
-    private ReflectionValueParser(Constructor<T> constructor) {
-        this.constructor = constructor;
+    private ReflectionValueParser(Class<T> valueClass, Function<String, T> factory) {
+        this.valueClass = valueClass;
+        this.factory = factory;
     }
 
     @Override
     public T parseValue(String value) {
         try {
-            return constructor.newInstance(value);
+            return factory.apply(value);
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
     @Override
     public Class<T> getValueClass() {
-        return constructor.getDeclaringClass();
+        return valueClass;
     }
 }
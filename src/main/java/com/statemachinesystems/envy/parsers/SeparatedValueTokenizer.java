@@ -0,0 +1,189 @@
+package com.statemachinesystems.envy.parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a string into elements around a literal separator, optionally trimming whitespace around each
+ * element and recognising quoted elements and escape sequences.
+ *
+ * <p>With quoting enabled, an element may be enclosed in double quotes, in which case it's taken as-is
+ * (including any separators and whitespace it contains), and a backslash escapes the following character,
+ * both inside and outside quotes. For example, with a comma separator, <code>"a,b", c\,d</code> is split into
+ * <code>a,b</code> and <code>c,d</code>.</p>
+ *
+ * <p>The string is scanned once, without regular expressions. As with {@link String#split(String, int)}
+ * given a negative limit, empty elements are kept, but an empty string (or, when trimming, a blank one)
+ * has no elements at all.</p>
+ */
+public final class SeparatedValueTokenizer {
+
+    /**
+     * Splits around commas, without trimming or quoting, like an {@link ArrayValueParser} with the default separator.
+     */
+    public static final SeparatedValueTokenizer DEFAULT =
+            new SeparatedValueTokenizer(ArrayValueParser.DEFAULT_SEPARATOR, false, false);
+
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    private final String separator;
+    private final boolean trim;
+    private final boolean quoting;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.parsers.SeparatedValueTokenizer}.
+     *
+     * @param separator  the literal separator between elements
+     * @param trim       whether to remove whitespace around each element
+     * @param quoting    whether to recognise quoted elements and backslash escapes
+     */
+    public SeparatedValueTokenizer(String separator, boolean trim, boolean quoting) {
+        if (separator.isEmpty()) {
+            throw new IllegalArgumentException("Separator must not be empty");
+        }
+        this.separator = separator;
+        this.trim = trim;
+        this.quoting = quoting;
+    }
+
+    /**
+     * Returns whether whitespace is removed around each element.
+     *
+     * @return  true if elements are trimmed
+     */
+    public boolean isTrimming() {
+        return trim;
+    }
+
+    /**
+     * Splits the given string into its elements.
+     *
+     * @param value  the string to split
+     * @return  the elements, in order
+     * @throws IllegalArgumentException  if a quoted element or escape sequence is incomplete, or a quoted
+     *                                   element is followed by anything other than a separator
+     */
+    public List<String> tokenize(String value) {
+        List<String> tokens = new ArrayList<String>();
+        int length = value.length();
+        int position = skipWhitespace(value, 0);
+        if (position == length) {
+            return tokens;
+        }
+
+        StringBuilder buffer = new StringBuilder();
+        while (true) {
+            buffer.setLength(0);
+            if (quoting && position < length && value.charAt(position) == QUOTE) {
+                position = readQuoted(value, position + 1, buffer);
+                tokens.add(buffer.toString());
+                position = skipWhitespace(value, position);
+                if (position < length && !isSeparatorAt(value, position)) {
+                    throw new IllegalArgumentException(
+                            String.format("Expected separator after quoted element at position %d: %s",
+                                    position, value));
+                }
+            } else {
+                position = readUnquoted(value, position, buffer, tokens);
+            }
+
+            if (position == length) {
+                return tokens;
+            }
+            position = skipWhitespace(value, position + separator.length());
+        }
+    }
+
+    private int readQuoted(String value, int position, StringBuilder buffer) {
+        int length = value.length();
+        while (position < length) {
+            char c = value.charAt(position);
+            if (c == QUOTE) {
+                return position + 1;
+            } else if (c == ESCAPE) {
+                position = appendEscaped(value, position, buffer);
+            } else {
+                buffer.append(c);
+                position++;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated quoted element: " + value);
+    }
+
+    /**
+     * Reads an unquoted element up to the next separator, copying it into the buffer only once an
+     * escape sequence is found, and adds it to the tokens.
+     */
+    private int readUnquoted(String value, int position, StringBuilder buffer, List<String> tokens) {
+        int length = value.length();
+        int start = position;
+        int end = position;
+        boolean escaped = false;
+
+        while (position < length && !isSeparatorAt(value, position)) {
+            char c = value.charAt(position);
+            if (quoting && c == ESCAPE) {
+                if (!escaped) {
+                    buffer.append(value, start, position);
+                    end -= start;
+                    escaped = true;
+                }
+                position = appendEscaped(value, position, buffer);
+                end = buffer.length();
+            } else {
+                if (escaped) {
+                    buffer.append(c);
+                }
+                position++;
+                if (!trim || !Character.isWhitespace(c)) {
+                    end = escaped ? buffer.length() : position;
+                }
+            }
+        }
+
+        tokens.add(escaped ? buffer.substring(0, end) : value.substring(start, end));
+        return position;
+    }
+
+    private static int appendEscaped(String value, int position, StringBuilder buffer) {
+        if (position + 1 == value.length()) {
+            throw new IllegalArgumentException("Incomplete escape sequence: " + value);
+        }
+        buffer.append(value.charAt(position + 1));
+        return position + 2;
+    }
+
+    private boolean isSeparatorAt(String value, int position) {
+        return value.charAt(position) == separator.charAt(0) && value.startsWith(separator, position);
+    }
+
+    private int skipWhitespace(String value, int position) {
+        if (trim) {
+            while (position < value.length() && Character.isWhitespace(value.charAt(position))) {
+                position++;
+            }
+        }
+        return position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SeparatedValueTokenizer that = (SeparatedValueTokenizer) o;
+        return trim == that.trim && quoting == that.quoting && separator.equals(that.separator);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = separator.hashCode();
+        result = 31 * result + (trim ? 1 : 0);
+        result = 31 * result + (quoting ? 1 : 0);
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.statemachinesystems.envy.parsers;
+
+/**
+ * Helpers for scanning separated values with a literal separator, without splitting into an intermediate array.
+ */
+final class SeparatedValues {
+
+    private static final String REGEX_METACHARACTERS = ".$|()[]{}^?*+\\";
+
+    private SeparatedValues() {}
+
+    /**
+     * Determines whether a separator means the same thing as a regular expression and as a literal string.
+     *
+     * @param separator  the separator
+     * @return  true if the separator can be matched literally
+     */
+    static boolean isLiteral(String separator) {
+        if (separator.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < separator.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(separator.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the values in a string, including empty values, as {@link String#split(String, int)} would
+     * with a negative limit.
+     *
+     * @param value      the string to scan
+     * @param separator  the literal separator
+     * @return  the number of values, which is zero for an empty string
+     */
+    static int count(String value, String separator) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        int count = 1;
+        int index = value.indexOf(separator);
+        while (index >= 0) {
+            count++;
+            index = value.indexOf(separator, index + separator.length());
+        }
+        return count;
+    }
+
+    /**
+     * Finds the end of the value starting at the given position.
+     *
+     * @param value      the string to scan
+     * @param separator  the literal separator
+     * @param start      the start of the value
+     * @return  the end of the value, exclusive
+     */
+    static int end(String value, String separator, int start) {
+        int end = value.indexOf(separator, start);
+        return end >= 0 ? end : value.length();
+    }
+}
@@ -23,4 +23,9 @@ public class UriValueParser implements ValueParser<URI> {
     public Class<URI> getValueClass() {
         return URI.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
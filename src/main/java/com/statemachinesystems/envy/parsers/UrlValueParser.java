@@ -23,4 +23,9 @@ public class UrlValueParser implements ValueParser<URL> {
     public Class<URL> getValueClass() {
         return URL.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
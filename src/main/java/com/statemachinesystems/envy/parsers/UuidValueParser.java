@@ -18,4 +18,9 @@ public class UuidValueParser implements ValueParser<UUID> {
     public Class<UUID> getValueClass() {
         return UUID.class;
     }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
 }
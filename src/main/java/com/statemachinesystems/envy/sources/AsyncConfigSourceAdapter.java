@@ -0,0 +1,61 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.AsyncConfigSource;
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Adapts a synchronous {@link com.statemachinesystems.envy.ConfigSource} to the
+ * {@link com.statemachinesystems.envy.AsyncConfigSource} contract.
+ *
+ * Batch lookups are forwarded to {@link ConfigSource#getValues(Collection)} as a single call.
+ * Lookups run on the given {@link java.util.concurrent.Executor}, or on the calling thread if there is none.
+ */
+public class AsyncConfigSourceAdapter implements AsyncConfigSource {
+
+    private final ConfigSource configSource;
+    private final Executor executor;
+
+    /**
+     * Creates an {@link com.statemachinesystems.envy.sources.AsyncConfigSourceAdapter} for the given source.
+     *
+     * @param configSource  the source to adapt
+     * @param executor      the {@link java.util.concurrent.Executor} to look up values with,
+     *                      or null to look up values on the calling thread
+     */
+    public AsyncConfigSourceAdapter(ConfigSource configSource, Executor executor) {
+        this.configSource = configSource;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<String> getValueAsync(Parameter parameter) {
+        return supply(() -> configSource.getValue(parameter));
+    }
+
+    @Override
+    public CompletableFuture<Map<Parameter, String>> getValuesAsync(Collection<Parameter> parameters) {
+        Collection<Parameter> copy = new ArrayList<Parameter>(parameters);
+        return supply(() -> configSource.getValues(copy));
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        if (executor != null) {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        }
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            future.complete(supplier.get());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
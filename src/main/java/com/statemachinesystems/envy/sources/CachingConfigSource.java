@@ -0,0 +1,244 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} decorator that caches the values retrieved from
+ * a slower source, such as a remote store or a local agent.
+ *
+ * Entries expire after a fixed time to live, and once the cache is full the least recently used entries
+ * are evicted. Missing values are cached too, unless negative caching is disabled, so repeated lookups
+ * of absent parameters don't reach the underlying source either.
+ *
+ * The cache is split into independently locked segments, so concurrent lookups of different parameters
+ * rarely contend. Values are loaded outside the lock, so two threads that miss on the same parameter
+ * at the same time may both load it.
+ */
+public class CachingConfigSource implements ConfigSource {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 8;
+
+    private static final String MISSING = new String("<missing>");
+
+    private final ConfigSource source;
+    private final long timeToLiveMillis;
+    private final boolean cacheMissingValues;
+    private final Clock clock;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.CachingConfigSource} that caches both present
+     * and missing values from the given source.
+     *
+     * @param source       the {@link com.statemachinesystems.envy.ConfigSource} to cache
+     * @param timeToLive   how long each entry is cached for
+     * @param maximumSize  the maximum number of cached entries
+     */
+    public CachingConfigSource(ConfigSource source, Duration timeToLive, int maximumSize) {
+        this(source, timeToLive, maximumSize, true, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.CachingConfigSource} for the given source.
+     *
+     * @param source              the {@link com.statemachinesystems.envy.ConfigSource} to cache
+     * @param timeToLive          how long each entry is cached for
+     * @param maximumSize         the maximum number of cached entries
+     * @param cacheMissingValues  whether to cache parameters that have no value
+     * @param clock               the {@link java.time.Clock} used to expire entries
+     */
+    public CachingConfigSource(ConfigSource source, Duration timeToLive, int maximumSize,
+                               boolean cacheMissingValues, Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+
+        this.source = source;
+        this.timeToLiveMillis = toMillisSaturated(timeToLive);
+        this.cacheMissingValues = cacheMissingValues;
+        this.clock = clock;
+
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        long now = clock.millis();
+        Segment segment = segmentFor(parameter);
+
+        String cached = segment.get(parameter, now);
+        if (cached != null) {
+            hits.increment();
+            return cached == MISSING ? null : cached;
+        }
+
+        misses.increment();
+        String value = source.getValue(parameter);
+        store(segment, parameter, value, now);
+        return value;
+    }
+
+    /**
+     * Retrieves the given parameters from the cache, fetching any that aren't cached from the underlying
+     * source with a single batch call.
+     *
+     * @param parameters  the parameters to retrieve
+     * @return            the values that were present, indexed by parameter
+     */
+    @Override
+    public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+        long now = clock.millis();
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        Set<Parameter> uncached = new LinkedHashSet<Parameter>();
+
+        for (Parameter parameter : parameters) {
+            String cached = segmentFor(parameter).get(parameter, now);
+            if (cached == null) {
+                uncached.add(parameter);
+            } else if (cached != MISSING) {
+                values.put(parameter, cached);
+            }
+        }
+
+        hits.add(parameters.size() - uncached.size());
+        if (uncached.isEmpty()) {
+            return values;
+        }
+
+        misses.add(uncached.size());
+        Map<Parameter, String> loaded = source.getValues(uncached);
+        for (Parameter parameter : uncached) {
+            String value = loaded.get(parameter);
+            store(segmentFor(parameter), parameter, value, now);
+            if (value != null) {
+                values.put(parameter, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Discards all cached entries.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that were answered from the cache.
+     *
+     * @return  the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that were forwarded to the underlying source.
+     *
+     * @return  the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to keep the cache within its maximum size.
+     *
+     * @return  the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void store(Segment segment, Parameter parameter, String value, long now) {
+        if (value != null) {
+            segment.put(parameter, value, now);
+        } else if (cacheMissingValues) {
+            segment.put(parameter, MISSING, now);
+        }
+    }
+
+    private static long toMillisSaturated(Duration duration) {
+        try {
+            return duration.toMillis();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private Segment segmentFor(Parameter parameter) {
+        int hash = parameter.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private static class Entry {
+
+        private final String value;
+        private final long storedAt;
+
+        private Entry(String value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private class Segment {
+
+        private final LinkedHashMap<Parameter, Entry> entries;
+
+        private Segment(int maximumSize) {
+            this.entries = new LinkedHashMap<Parameter, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Parameter, Entry> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized String get(Parameter parameter, long now) {
+            Entry entry = entries.get(parameter);
+            if (entry == null) {
+                return null;
+            } else if (now - entry.storedAt >= timeToLiveMillis) {
+                entries.remove(parameter);
+                return null;
+            }
+            return entry.value;
+        }
+
+        private synchronized void put(Parameter parameter, String value, long storedAt) {
+            entries.put(parameter, new Entry(value, storedAt));
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
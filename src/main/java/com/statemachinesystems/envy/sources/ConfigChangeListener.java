@@ -0,0 +1,21 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.Parameter;
+
+import java.util.Set;
+
+/**
+ * Receives notifications when values in a {@link com.statemachinesystems.envy.ConfigSource} change.
+ *
+ * @see com.statemachinesystems.envy.sources.WatchingFileConfigSource
+ */
+public interface ConfigChangeListener {
+
+    /**
+     * Called after the source has been updated, with the parameters whose values were added,
+     * removed or changed.
+     *
+     * @param changedParameters  the parameters whose values changed
+     */
+    void configChanged(Set<Parameter> changedParameters);
+}
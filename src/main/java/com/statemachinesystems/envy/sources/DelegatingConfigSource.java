@@ -3,6 +3,8 @@ package com.statemachinesystems.envy.sources;
 import com.statemachinesystems.envy.ConfigSource;
 import com.statemachinesystems.envy.Parameter;
 
+import java.util.*;
+
 /**
  * A composite {@link com.statemachinesystems.envy.ConfigSource} implementation
  * that retrieves configuration values from its component sources in preference order.
@@ -31,4 +33,30 @@ public class DelegatingConfigSource implements ConfigSource {
         }
         return null;
     }
+
+    /**
+     * Retrieves the given parameters from each component source in preference order, with one batch
+     * call per source. Each source is only asked for the parameters that earlier sources didn't provide.
+     *
+     * @param parameters  the parameters to retrieve
+     * @return            the values that were present, indexed by parameter
+     */
+    @Override
+    public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        Set<Parameter> unresolved = new LinkedHashSet<Parameter>(parameters);
+
+        for (ConfigSource source : sources) {
+            if (unresolved.isEmpty()) {
+                break;
+            }
+            Collection<Parameter> requested = Collections.unmodifiableList(new ArrayList<Parameter>(unresolved));
+            for (Map.Entry<Parameter, String> entry : source.getValues(requested).entrySet()) {
+                if (entry.getValue() != null && unresolved.remove(entry.getKey())) {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return values;
+    }
 }
@@ -0,0 +1,486 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.IndexableConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} implementation that retrieves configuration values
+ * from a <code>.properties</code> or <code>.env</code> file.
+ *
+ * The file's bytes are copied into memory once, on construction, and scanned to build an index of keys to
+ * value positions. Values are only decoded when they're requested, but always from that copy, so the source
+ * is a snapshot of the file: later changes to the file, including truncation, don't affect it.
+ *
+ * A parameter matches a key using either its <code>lower.case.dotted</code> system property name or its
+ * <code>UPPER_CASE_UNDERSCORED</code> environment variable name, with the former taking precedence.
+ * When a key appears more than once, the last occurrence wins.
+ *
+ * The file is read using the given charset, UTF-8 by default, which must be ASCII-compatible.
+ */
+public class FileConfigSource implements IndexableConfigSource {
+
+    /**
+     * Supported file formats.
+     */
+    public enum Format {
+
+        /**
+         * The {@link java.util.Properties} format, supporting <code>=</code>, <code>:</code> and whitespace
+         * separators, <code>#</code> and <code>!</code> comments, escape sequences and line continuations.
+         */
+        PROPERTIES,
+
+        /**
+         * The dotenv format, supporting <code>KEY=value</code> lines with an optional <code>export</code> prefix,
+         * <code>#</code> comments, and single- or double-quoted values.
+         */
+        ENV;
+
+        static Format forPath(Path path) {
+            Path fileName = path.getFileName();
+            String name = fileName != null ? fileName.toString() : "";
+            return name.startsWith(".env") || name.endsWith(".env") ? ENV : PROPERTIES;
+        }
+    }
+
+    private static final byte PLAIN = 0;
+    private static final byte ESCAPED = 1;
+    private static final byte DOUBLE_QUOTED = 2;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final Entries entries;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.FileConfigSource} for the given file, using the
+     * {@link Format#ENV} format if the file name starts or ends with <code>.env</code>, or
+     * {@link Format#PROPERTIES} otherwise.
+     *
+     * @param path  the file to read
+     * @throws IOException  if the file can't be read
+     */
+    public FileConfigSource(Path path) throws IOException {
+        this(path, Format.forPath(path));
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.FileConfigSource} for the given file and format.
+     *
+     * @param path    the file to read
+     * @param format  the format of the file
+     * @throws IOException  if the file can't be read
+     */
+    public FileConfigSource(Path path, Format format) throws IOException {
+        this(path, format, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.FileConfigSource} for the given file, format and charset.
+     *
+     * @param path     the file to read
+     * @param format   the format of the file
+     * @param charset  the charset of the file
+     * @throws IOException  if the file can't be read
+     */
+    public FileConfigSource(Path path, Format format, Charset charset) throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        this.entries = new Entries();
+
+        if (format == Format.ENV) {
+            indexEnv();
+        } else {
+            indexProperties();
+        }
+    }
+
+    /**
+     * Index of keys to the positions of their values within the copied file contents.
+     */
+    private static class Entries {
+
+        private final Map<String, Integer> index = new HashMap<String, Integer>();
+        private int[] valueStarts = new int[16];
+        private int[] valueEnds = new int[16];
+        private byte[] valueKinds = new byte[16];
+        private int size;
+
+        private void add(String key, int valueStart, int valueEnd, byte valueKind) {
+            if (size == valueStarts.length) {
+                valueStarts = Arrays.copyOf(valueStarts, size * 2);
+                valueEnds = Arrays.copyOf(valueEnds, size * 2);
+                valueKinds = Arrays.copyOf(valueKinds, size * 2);
+            }
+            valueStarts[size] = valueStart;
+            valueEnds[size] = valueEnd;
+            valueKinds[size] = valueKind;
+            index.put(key, size++);
+        }
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        Integer entry = entries.index.get(parameter.asSystemPropertyName());
+        if (entry == null) {
+            entry = entries.index.get(parameter.asEnvironmentVariableName());
+        }
+        return entry != null ? decodeValue(entry) : null;
+    }
+
+    /**
+     * Retrieves every value in the file that a parameter would match, decoding them all.
+     *
+     * @return  all values, indexed by parameter
+     */
+    @Override
+    public Map<Parameter, String> getAllValues() {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        for (Map.Entry<String, Integer> entry : entries.index.entrySet()) {
+            Parameter parameter = ParameterNames.fromEnvironmentVariableName(entry.getKey());
+            if (parameter != null) {
+                values.put(parameter, decodeValue(entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, Integer> entry : entries.index.entrySet()) {
+            Parameter parameter = ParameterNames.fromSystemPropertyName(entry.getKey());
+            if (parameter != null) {
+                values.put(parameter, decodeValue(entry.getValue()));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "FileConfigSource(" + path + ")";
+    }
+
+    /**
+     * Returns the keys found in the file.
+     */
+    Set<String> getKeys() {
+        return Collections.unmodifiableSet(entries.index.keySet());
+    }
+
+    /**
+     * Compares the value of a key in this file with its value in another, without decoding
+     * either value unless their raw contents differ.
+     *
+     * @param key    the key to compare
+     * @param other  the other file
+     * @return  true if the key has the same value in both files, or is absent from both
+     */
+    boolean hasSameValue(String key, FileConfigSource other) {
+        Integer entry = entries.index.get(key);
+        Integer otherEntry = other.entries.index.get(key);
+        if (entry == null || otherEntry == null) {
+            return entry == otherEntry;
+        }
+        if (entries.valueKinds[entry] == other.entries.valueKinds[otherEntry]
+                && rawValue(entry).equals(other.rawValue(otherEntry))) {
+            return true;
+        }
+        return decodeValue(entry).equals(other.decodeValue(otherEntry));
+    }
+
+    private ByteBuffer rawValue(int entry) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(entries.valueEnds[entry]).position(entries.valueStarts[entry]);
+        return slice;
+    }
+
+    private String decodeValue(int entry) {
+        String raw = decode(entries.valueStarts[entry], entries.valueEnds[entry]);
+        switch (entries.valueKinds[entry]) {
+            case ESCAPED:
+                return unescapeProperties(raw);
+            case DOUBLE_QUOTED:
+                return unescapeDoubleQuoted(raw);
+            default:
+                return raw;
+        }
+    }
+
+    private String decode(int start, int end) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(end).position(start);
+        return charset.decode(slice).toString();
+    }
+
+    private int length() {
+        return buffer.limit();
+    }
+
+    private byte at(int pos) {
+        return buffer.get(pos);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\f';
+    }
+
+    private static boolean isLineTerminator(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < length() && isWhitespace(at(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipToLineEnd(int pos) {
+        while (pos < length() && !isLineTerminator(at(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipEscape(int pos) {
+        int next = pos + 1;
+        if (next < length() && at(next) == '\r' && next + 1 < length() && at(next + 1) == '\n') {
+            return next + 2;
+        }
+        return next + 1;
+    }
+
+    private void indexProperties() {
+        int pos = 0;
+        while (pos < length()) {
+            pos = skipWhitespace(pos);
+            if (pos >= length()) {
+                break;
+            }
+            byte b = at(pos);
+            if (isLineTerminator(b)) {
+                pos++;
+                continue;
+            }
+            if (b == '#' || b == '!') {
+                pos = skipToLineEnd(pos);
+                continue;
+            }
+
+            int keyStart = pos;
+            boolean keyEscaped = false;
+            while (pos < length()) {
+                b = at(pos);
+                if (b == '\\') {
+                    keyEscaped = true;
+                    boolean continuation = pos + 1 < length() && isLineTerminator(at(pos + 1));
+                    pos = skipEscape(pos);
+                    if (continuation) {
+                        pos = skipWhitespace(pos);
+                    }
+                } else if (b == '=' || b == ':' || isWhitespace(b) || isLineTerminator(b)) {
+                    break;
+                } else {
+                    pos++;
+                }
+            }
+            int keyEnd = Math.min(pos, length());
+
+            pos = skipWhitespace(pos);
+            if (pos < length() && (at(pos) == '=' || at(pos) == ':')) {
+                pos = skipWhitespace(pos + 1);
+            }
+
+            int valueStart = Math.min(pos, length());
+            boolean valueEscaped = false;
+            while (pos < length()) {
+                b = at(pos);
+                if (b == '\\') {
+                    valueEscaped = true;
+                    pos = skipEscape(pos);
+                } else if (isLineTerminator(b)) {
+                    break;
+                } else {
+                    pos++;
+                }
+            }
+            int valueEnd = Math.min(pos, length());
+
+            String key = decode(keyStart, keyEnd);
+            entries.add(keyEscaped ? unescapeProperties(key) : key, valueStart, valueEnd, valueEscaped ? ESCAPED : PLAIN);
+        }
+    }
+
+    private boolean startsWith(int pos, String prefix) {
+        if (pos + prefix.length() > length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (at(pos + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void indexEnv() {
+        int pos = 0;
+        while (pos < length()) {
+            pos = skipWhitespace(pos);
+            if (pos >= length()) {
+                break;
+            }
+            byte b = at(pos);
+            if (isLineTerminator(b)) {
+                pos++;
+                continue;
+            }
+            if (b == '#') {
+                pos = skipToLineEnd(pos);
+                continue;
+            }
+            if (startsWith(pos, "export") && pos + 6 < length() && isWhitespace(at(pos + 6))) {
+                pos = skipWhitespace(pos + 6);
+            }
+
+            int keyStart = pos;
+            while (pos < length() && at(pos) != '=' && !isLineTerminator(at(pos))) {
+                pos++;
+            }
+            if (pos >= length() || at(pos) != '=') {
+                continue;
+            }
+            int keyEnd = pos;
+            while (keyEnd > keyStart && isWhitespace(at(keyEnd - 1))) {
+                keyEnd--;
+            }
+
+            pos = skipWhitespace(pos + 1);
+
+            int valueStart;
+            int valueEnd;
+            byte valueKind = PLAIN;
+            if (pos < length() && (at(pos) == '"' || at(pos) == '\'')) {
+                byte quote = at(pos);
+                valueStart = ++pos;
+                while (pos < length() && at(pos) != quote) {
+                    if (quote == '"' && at(pos) == '\\') {
+                        valueKind = DOUBLE_QUOTED;
+                        pos += 2;
+                    } else {
+                        pos++;
+                    }
+                }
+                valueEnd = Math.min(pos, length());
+                pos = skipToLineEnd(valueEnd);
+            } else {
+                valueStart = pos;
+                while (pos < length() && !isLineTerminator(at(pos))
+                        && !(at(pos) == '#' && (pos == valueStart || isWhitespace(at(pos - 1))))) {
+                    pos++;
+                }
+                valueEnd = pos;
+                while (valueEnd > valueStart && isWhitespace(at(valueEnd - 1))) {
+                    valueEnd--;
+                }
+                pos = skipToLineEnd(pos);
+            }
+
+            entries.add(decode(keyStart, keyEnd), valueStart, valueEnd, valueKind);
+        }
+    }
+
+    private static String unescapeProperties(String s) {
+        StringBuilder buf = new StringBuilder(s.length());
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c != '\\') {
+                buf.append(c);
+                continue;
+            }
+            if (i >= s.length()) {
+                break;
+            }
+            c = s.charAt(i++);
+            switch (c) {
+                case '\r':
+                case '\n':
+                    if (c == '\r' && i < s.length() && s.charAt(i) == '\n') {
+                        i++;
+                    }
+                    while (i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t' || s.charAt(i) == '\f')) {
+                        i++;
+                    }
+                    break;
+                case 'u':
+                    if (i + 4 > s.length()) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding: " + s);
+                    }
+                    try {
+                        buf.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding: " + s);
+                    }
+                    i += 4;
+                    break;
+                case 't':
+                    buf.append('\t');
+                    break;
+                case 'n':
+                    buf.append('\n');
+                    break;
+                case 'r':
+                    buf.append('\r');
+                    break;
+                case 'f':
+                    buf.append('\f');
+                    break;
+                default:
+                    buf.append(c);
+            }
+        }
+        return buf.toString();
+    }
+
+    private static String unescapeDoubleQuoted(String s) {
+        StringBuilder buf = new StringBuilder(s.length());
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c != '\\' || i >= s.length()) {
+                buf.append(c);
+                continue;
+            }
+            c = s.charAt(i++);
+            switch (c) {
+                case 'n':
+                    buf.append('\n');
+                    break;
+                case 'r':
+                    buf.append('\r');
+                    break;
+                case 't':
+                    buf.append('\t');
+                    break;
+                case '"':
+                case '\\':
+                case '$':
+                    buf.append(c);
+                    break;
+                default:
+                    buf.append('\\').append(c);
+            }
+        }
+        return buf.toString();
+    }
+}
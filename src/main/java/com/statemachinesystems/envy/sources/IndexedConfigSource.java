@@ -0,0 +1,125 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.IndexableConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.util.*;
+
+/**
+ * A composite {@link com.statemachinesystems.envy.ConfigSource} implementation
+ * that retrieves configuration values from its component sources in preference order,
+ * like {@link com.statemachinesystems.envy.sources.DelegatingConfigSource}.
+ *
+ * The values of every {@link com.statemachinesystems.envy.IndexableConfigSource} are merged on construction
+ * into a single immutable index that records which source each value came from. A lookup probes the index
+ * once, and only consults the other component sources that take precedence over the indexed value,
+ * or all of them if the index has no value. Later changes to indexable sources aren't visible.
+ */
+public class IndexedConfigSource implements ConfigSource {
+
+    private static final int NOT_INDEXED = Integer.MAX_VALUE;
+
+    private final Map<Parameter, IndexedValue> index;
+    private final ConfigSource[] unindexedSources;
+    private final int[] unindexedPositions;
+
+    /**
+     * Creates an {@link com.statemachinesystems.envy.sources.IndexedConfigSource} using
+     * the given component sources in preference order.
+     *
+     * @param sources  component {@link com.statemachinesystems.envy.ConfigSource}s in preference order
+     */
+    public IndexedConfigSource(ConfigSource... sources) {
+        Map<Parameter, IndexedValue> index = new HashMap<Parameter, IndexedValue>();
+        List<ConfigSource> unindexedSources = new ArrayList<ConfigSource>();
+        List<Integer> unindexedPositions = new ArrayList<Integer>();
+
+        for (int position = sources.length - 1; position >= 0; position--) {
+            ConfigSource source = sources[position];
+            if (source instanceof IndexableConfigSource) {
+                for (Map.Entry<Parameter, String> entry : ((IndexableConfigSource) source).getAllValues().entrySet()) {
+                    if (entry.getValue() != null) {
+                        index.put(entry.getKey(), new IndexedValue(entry.getValue(), position));
+                    }
+                }
+            } else {
+                unindexedSources.add(0, source);
+                unindexedPositions.add(0, position);
+            }
+        }
+
+        this.index = index;
+        this.unindexedSources = unindexedSources.toArray(new ConfigSource[0]);
+        this.unindexedPositions = new int[unindexedPositions.size()];
+        for (int i = 0; i < this.unindexedPositions.length; i++) {
+            this.unindexedPositions[i] = unindexedPositions.get(i);
+        }
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        IndexedValue indexed = index.get(parameter);
+        int indexedPosition = indexed != null ? indexed.position : NOT_INDEXED;
+
+        for (int i = 0; i < unindexedSources.length && unindexedPositions[i] < indexedPosition; i++) {
+            String value = unindexedSources[i].getValue(parameter);
+            if (value != null) {
+                return value;
+            }
+        }
+        return indexed != null ? indexed.value : null;
+    }
+
+    /**
+     * Retrieves the given parameters from the index, with one batch call per unindexed source
+     * for the parameters that it takes precedence for.
+     *
+     * @param parameters  the parameters to retrieve
+     * @return            the values that were present, indexed by parameter
+     */
+    @Override
+    public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        Map<Parameter, IndexedValue> unresolved = new LinkedHashMap<Parameter, IndexedValue>();
+        for (Parameter parameter : parameters) {
+            unresolved.put(parameter, index.get(parameter));
+        }
+
+        for (int i = 0; i < unindexedSources.length && !unresolved.isEmpty(); i++) {
+            List<Parameter> batch = new ArrayList<Parameter>();
+            for (Map.Entry<Parameter, IndexedValue> entry : unresolved.entrySet()) {
+                if (entry.getValue() == null || unindexedPositions[i] < entry.getValue().position) {
+                    batch.add(entry.getKey());
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            for (Map.Entry<Parameter, String> entry : unindexedSources[i].getValues(batch).entrySet()) {
+                if (entry.getValue() != null && unresolved.containsKey(entry.getKey())) {
+                    unresolved.remove(entry.getKey());
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        for (Map.Entry<Parameter, IndexedValue> entry : unresolved.entrySet()) {
+            if (entry.getValue() != null) {
+                values.put(entry.getKey(), entry.getValue().value);
+            }
+        }
+        return values;
+    }
+
+    private static class IndexedValue {
+
+        private final String value;
+        private final int position;
+
+        private IndexedValue(String value, int position) {
+            this.value = value;
+            this.position = position;
+        }
+    }
+}
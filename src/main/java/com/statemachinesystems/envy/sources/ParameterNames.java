@@ -0,0 +1,41 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.Parameter;
+
+/**
+ * Maps the raw keys of a source back to the parameters that would look them up.
+ */
+final class ParameterNames {
+
+    private ParameterNames() {}
+
+    /**
+     * Returns the parameter whose environment variable name is exactly the given key.
+     *
+     * @param key  the key to match
+     * @return  the matching parameter, or null if no parameter would look up this key
+     */
+    static Parameter fromEnvironmentVariableName(String key) {
+        Parameter parameter = parse(key);
+        return parameter != null && parameter.asEnvironmentVariableName().equals(key) ? parameter : null;
+    }
+
+    /**
+     * Returns the parameter whose system property name is exactly the given key.
+     *
+     * @param key  the key to match
+     * @return  the matching parameter, or null if no parameter would look up this key
+     */
+    static Parameter fromSystemPropertyName(String key) {
+        Parameter parameter = parse(key);
+        return parameter != null && parameter.asSystemPropertyName().equals(key) ? parameter : null;
+    }
+
+    private static Parameter parse(String key) {
+        try {
+            return new Parameter(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
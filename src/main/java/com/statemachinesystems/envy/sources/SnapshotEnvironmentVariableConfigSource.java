@@ -0,0 +1,57 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.IndexableConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} implementation
+ * that retrieves configuration values from a point-in-time copy of the environment variables,
+ * using an <code>UPPER_CASE_UNDERSCORED</code> naming convention.
+ *
+ * The environment is copied once on construction, so lookups are plain hash lookups
+ * and every value is read from the same snapshot.
+ *
+ * @see com.statemachinesystems.envy.sources.EnvironmentVariableConfigSource
+ */
+public class SnapshotEnvironmentVariableConfigSource implements IndexableConfigSource {
+
+    private final Map<String, String> variables;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.SnapshotEnvironmentVariableConfigSource}
+     * from the current environment.
+     */
+    public SnapshotEnvironmentVariableConfigSource() {
+        this(System.getenv());
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.SnapshotEnvironmentVariableConfigSource}
+     * from the given environment variables.
+     *
+     * @param variables  environment variables indexed by name
+     */
+    public SnapshotEnvironmentVariableConfigSource(Map<String, String> variables) {
+        this.variables = new HashMap<String, String>(variables);
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        return variables.get(parameter.asEnvironmentVariableName());
+    }
+
+    @Override
+    public Map<Parameter, String> getAllValues() {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            Parameter parameter = ParameterNames.fromEnvironmentVariableName(entry.getKey());
+            if (parameter != null) {
+                values.put(parameter, entry.getValue());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,62 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.IndexableConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} implementation
+ * that retrieves configuration values from a point-in-time copy of the JVM system properties,
+ * using a <code>lower.case.dotted</code> naming convention.
+ *
+ * The properties are copied once on construction, so lookups are plain hash lookups
+ * and every value is read from the same snapshot.
+ *
+ * @see com.statemachinesystems.envy.sources.SystemPropertyConfigSource
+ */
+public class SnapshotSystemPropertyConfigSource implements IndexableConfigSource {
+
+    private final Map<String, String> properties;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource}
+     * from the current system properties.
+     */
+    public SnapshotSystemPropertyConfigSource() {
+        this(System.getProperties());
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource}
+     * from the given properties.
+     *
+     * @param properties  the properties to copy
+     */
+    public SnapshotSystemPropertyConfigSource(Properties properties) {
+        Map<String, String> copy = new HashMap<String, String>();
+        for (String name : properties.stringPropertyNames()) {
+            copy.put(name, properties.getProperty(name));
+        }
+        this.properties = copy;
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        return properties.get(parameter.asSystemPropertyName());
+    }
+
+    @Override
+    public Map<Parameter, String> getAllValues() {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            Parameter parameter = ParameterNames.fromSystemPropertyName(entry.getKey());
+            if (parameter != null) {
+                values.put(parameter, entry.getValue());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,222 @@
+package com.statemachinesystems.envy.sources;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Parameter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * A {@link com.statemachinesystems.envy.ConfigSource} implementation that reads a <code>.properties</code> or
+ * <code>.env</code> file like {@link com.statemachinesystems.envy.sources.FileConfigSource}, and watches its
+ * directory for changes using a {@link java.nio.file.WatchService}.
+ *
+ * When the file changes, it's re-read and compared with the previous version key by key, without decoding
+ * values whose raw contents are unchanged. Each version is a snapshot of the file's contents when it was
+ * read, so a file rewritten in place is compared against what it held before, not against its current
+ * contents. The new version then replaces the old one, and each registered
+ * {@link com.statemachinesystems.envy.sources.ConfigChangeListener} is notified of the parameters whose
+ * values changed. If the file can't be read or is malformed, for example while it's being replaced, the
+ * previous version remains in use until the next change.
+ *
+ * The whole directory is watched, so that files replaced by renaming or by swapping symbolic links,
+ * as with Kubernetes ConfigMap and Secret volumes, are detected.
+ *
+ * Listeners are called on a daemon thread, which is stopped by {@link #close()}.
+ */
+public class WatchingFileConfigSource implements ConfigSource, Closeable {
+
+    private final Path path;
+    private final FileConfigSource.Format format;
+    private final Charset charset;
+    private final WatchService watchService;
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<ConfigChangeListener>();
+    private volatile FileConfigSource current;
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.WatchingFileConfigSource} for the given file, using the
+     * format implied by its name, and starts watching it.
+     *
+     * @param path  the file to read
+     * @throws IOException  if the file can't be read or watched
+     */
+    public WatchingFileConfigSource(Path path) throws IOException {
+        this(path, FileConfigSource.Format.forPath(path));
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.WatchingFileConfigSource} for the given file and format,
+     * and starts watching it.
+     *
+     * @param path    the file to read
+     * @param format  the format of the file
+     * @throws IOException  if the file can't be read or watched
+     */
+    public WatchingFileConfigSource(Path path, FileConfigSource.Format format) throws IOException {
+        this(path, format, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a {@link com.statemachinesystems.envy.sources.WatchingFileConfigSource} for the given file, format
+     * and charset, and starts watching it.
+     *
+     * @param path     the file to read
+     * @param format   the format of the file
+     * @param charset  the charset of the file
+     * @throws IOException  if the file can't be read or watched
+     */
+    public WatchingFileConfigSource(Path path, FileConfigSource.Format format, Charset charset) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.format = format;
+        this.charset = charset;
+        this.current = new FileConfigSource(this.path, format, charset);
+
+        Path directory = this.path.getParent();
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        Thread watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "envy-watcher-" + this.path.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Registers a listener to be notified of changes.
+     *
+     * @param listener  the listener to register
+     */
+    public void addListener(ConfigChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously registered listener.
+     *
+     * @param listener  the listener to unregister
+     */
+    public void removeListener(ConfigChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String getValue(Parameter parameter) {
+        return current.getValue(parameter);
+    }
+
+    /**
+     * Stops watching the file. Values remain available from the most recently read version.
+     *
+     * @throws IOException  if the watch service can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    @Override
+    public String toString() {
+        return "WatchingFileConfigSource(" + path + ")";
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                try {
+                    key.pollEvents();
+                    refresh();
+                } finally {
+                    if (!key.reset()) {
+                        return;
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Re-reads the file, notifying listeners if any values changed. This is called automatically
+     * whenever the watched directory changes.
+     *
+     * @return  the parameters whose values changed
+     */
+    public synchronized Set<Parameter> refresh() {
+        FileConfigSource previous = current;
+        FileConfigSource next;
+        Set<String> changedKeys;
+        try {
+            next = new FileConfigSource(path, format, charset);
+            changedKeys = changedKeys(previous, next);
+        } catch (IOException | RuntimeException e) {
+            return Collections.emptySet();
+        }
+
+        if (changedKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        current = next;
+
+        Set<Parameter> changedParameters = toParameters(changedKeys);
+        if (changedParameters.isEmpty()) {
+            return changedParameters;
+        }
+        for (ConfigChangeListener listener : listeners) {
+            try {
+                listener.configChanged(changedParameters);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        return changedParameters;
+    }
+
+    private static Set<String> changedKeys(FileConfigSource previous, FileConfigSource next) {
+        Set<String> keys = new HashSet<String>(previous.getKeys());
+        keys.addAll(next.getKeys());
+
+        Set<String> changedKeys = new HashSet<String>();
+        for (String key : keys) {
+            if (!previous.hasSameValue(key, next)) {
+                changedKeys.add(key);
+            }
+        }
+        return changedKeys;
+    }
+
+    private static Set<Parameter> toParameters(Set<String> keys) {
+        Set<Parameter> parameters = new HashSet<Parameter>();
+        for (String key : keys) {
+            Parameter parameter = parameterOrNull(key);
+            if (parameter != null) {
+                parameters.add(parameter);
+            }
+        }
+        return Collections.unmodifiableSet(parameters);
+    }
+
+    private static Parameter parameterOrNull(String key) {
+        try {
+            return new Parameter(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.statemachinesystems.envy.values;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Assigns each method of a configuration interface a slot index, in alphabetical order of method name,
+ * so that a {@link ConfigMap} can store its values in a flat array.
+ *
+ * Methods passed to a proxy's invocation handler are resolved to slots by identity, using a copy-on-write
+ * cache that's populated as they're first looked up, so that repeated calls on a configuration object avoid
+ * hashing method names. Other methods are matched by name and aren't cached, since each reflective lookup
+ * returns a new {@link Method} instance.
+ */
+public final class ConfigLayout implements Serializable {
+
+    private static final int NO_SLOT = -1;
+
+    private final String[] methodNames;
+    private transient Map<String, Integer> slotsByName;
+    private transient Set<String> methodNameSet;
+    private transient volatile Map<Method, Integer> slotsByMethod;
+
+    /**
+     * Creates a {@link ConfigLayout} for the given method names.
+     *
+     * @param methodNames  the method names of the configuration interface
+     */
+    public ConfigLayout(Collection<String> methodNames) {
+        this.methodNames = new TreeSet<String>(methodNames).toArray(new String[0]);
+        init();
+    }
+
+    private void init() {
+        Map<String, Integer> slotsByName = new HashMap<String, Integer>();
+        for (int i = 0; i < methodNames.length; i++) {
+            slotsByName.put(methodNames[i], i);
+        }
+        this.slotsByName = slotsByName;
+        this.methodNameSet = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(methodNames)));
+        this.slotsByMethod = new IdentityHashMap<Method, Integer>();
+    }
+
+    /**
+     * Returns the number of slots in this layout.
+     *
+     * @return  the number of slots
+     */
+    public int size() {
+        return methodNames.length;
+    }
+
+    /**
+     * Returns the method name for the given slot.
+     *
+     * @param slot  the slot index
+     * @return  the method name
+     */
+    public String getMethodName(int slot) {
+        return methodNames[slot];
+    }
+
+    /**
+     * Returns the method names, in slot order.
+     *
+     * @return  the method names
+     */
+    public Set<String> getMethodNames() {
+        return methodNameSet;
+    }
+
+    /**
+     * Returns the slot for the given method name.
+     *
+     * @param methodName  the method name
+     * @return  the slot index, or -1 if there's no such method
+     */
+    public int getSlot(String methodName) {
+        Integer slot = slotsByName.get(methodName);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     * Returns the slot for the given method, which is matched by name unless it's already been cached
+     * by {@link #getProxyMethodSlot(Method)}.
+     *
+     * @param method  the method
+     * @return  the slot index, or -1 if there's no such method
+     */
+    public int getSlot(Method method) {
+        Integer slot = slotsByMethod.get(method);
+        return slot != null ? slot : slotByName(method);
+    }
+
+    /**
+     * Returns the slot for the given method, which is matched by name on first lookup and then cached
+     * by identity. This is only for the {@link Method} instances passed to a proxy's invocation handler,
+     * which are the same on every call; caching other instances would grow the cache without bound.
+     *
+     * @param method  the method passed to a proxy's invocation handler
+     * @return  the slot index, or -1 if there's no such method
+     */
+    public int getProxyMethodSlot(Method method) {
+        Integer slot = slotsByMethod.get(method);
+        return slot != null ? slot : cacheSlot(method);
+    }
+
+    private int slotByName(Method method) {
+        return method.getParameterCount() == 0 ? getSlot(method.getName()) : NO_SLOT;
+    }
+
+    private synchronized int cacheSlot(Method method) {
+        Integer slot = slotsByMethod.get(method);
+        if (slot == null) {
+            slot = slotByName(method);
+            Map<Method, Integer> copy = new IdentityHashMap<Method, Integer>(slotsByMethod);
+            copy.put(method, slot);
+            slotsByMethod = copy;
+        }
+        return slot;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConfigLayout that = (ConfigLayout) o;
+        return Arrays.equals(methodNames, that.methodNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(methodNames);
+    }
+}
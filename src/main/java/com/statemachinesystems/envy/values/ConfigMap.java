@@ -2,28 +2,183 @@ package com.statemachinesystems.envy.values;
 
 import com.statemachinesystems.envy.ProxyInvocationHandler;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 
 /**
  * Represents fully extracted and parsed configuration values, ready for use in a {@link ProxyInvocationHandler}.
+ *
+ * Values are stored in a flat array, indexed by the slots of a {@link ConfigLayout}.
+ *
+ * Since the values never change, the hash code and formatted forms are computed on first use and then reused.
+ * As with {@link String#hashCode()}, these are cached without synchronization, so concurrent first calls may
+ * each compute the same result.
  */
 public class ConfigMap implements Serializable {
 
-    private final Map<String, ConfigValue> values;
+    private final ConfigLayout layout;
+    private final ConfigValue[] values;
+
+    private transient int hash;
+    private transient String formatted;
+    private transient String formattedJson;
 
     public ConfigMap(Map<String, ConfigValue> values) {
-        this.values = values;
+        this.layout = new ConfigLayout(values.keySet());
+        this.values = new ConfigValue[layout.size()];
+        for (int slot = 0; slot < this.values.length; slot++) {
+            this.values[slot] = values.get(layout.getMethodName(slot));
+        }
+    }
+
+    /**
+     * Creates a {@link ConfigMap} from values indexed by slot.
+     *
+     * @param layout  the layout of the configuration interface
+     * @param values  the configuration values, indexed by slot
+     */
+    public ConfigMap(ConfigLayout layout, ConfigValue[] values) {
+        if (values.length != layout.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %d values, got %d", layout.size(), values.length));
+        }
+        this.layout = layout;
+        this.values = values.clone();
     }
 
     public ConfigValue getValue(String methodName) {
-        return values.get(methodName);
+        int slot = layout.getSlot(methodName);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Returns the value for the given method.
+     *
+     * @param method  a method of the configuration interface
+     * @return  the value, or null if the method isn't part of this map's layout
+     */
+    public ConfigValue getValue(Method method) {
+        int slot = layout.getSlot(method);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Returns the value for the given method, as passed to a proxy's invocation handler. The method is
+     * cached by identity, so this mustn't be called with methods obtained by reflection.
+     *
+     * @param method  a method passed to a proxy's invocation handler
+     * @return  the value, or null if the method isn't part of this map's layout
+     */
+    public ConfigValue getProxyMethodValue(Method method) {
+        int slot = layout.getProxyMethodSlot(method);
+        return slot >= 0 ? values[slot] : null;
     }
 
     public Set<String> getMethodNames() {
-        return values.keySet();
+        return layout.getMethodNames();
+    }
+
+    public ConfigLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Formats the configuration values as a String, as used by the <code>toString</code> method
+     * of configuration objects.
+     *
+     * @param proxy  the configuration object these values belong to
+     * @return  the configuration values formatted as a String
+     */
+    public String format(Object proxy) {
+        String result = formatted;
+        if (result == null) {
+            result = formatString(proxy, false);
+            formatted = result;
+        }
+        return result;
+    }
+
+    /**
+     * Appends the configuration values to the given {@link Appendable}, formatted as by {@link #format(Object)},
+     * writing each value directly unless they've already been formatted.
+     *
+     * @param proxy  the configuration object these values belong to
+     * @param out    where to append the formatted values
+     * @throws IOException  if appending fails
+     */
+    public void formatTo(Object proxy, Appendable out) throws IOException {
+        String result = formatted;
+        if (result != null) {
+            out.append(result);
+        } else {
+            appendTo(proxy, out, false);
+        }
+    }
+
+    /**
+     * Formats the configuration values as a JSON object, keyed by method name, with sensitive values masked
+     * and nested configuration objects as nested JSON objects.
+     *
+     * @param proxy  the configuration object these values belong to
+     * @return  the configuration values formatted as JSON
+     */
+    public String formatJson(Object proxy) {
+        String result = formattedJson;
+        if (result == null) {
+            result = formatString(proxy, true);
+            formattedJson = result;
+        }
+        return result;
+    }
+
+    /**
+     * Appends the configuration values to the given {@link Appendable} as JSON, as by {@link #formatJson(Object)},
+     * writing each value directly unless they've already been formatted.
+     *
+     * @param proxy  the configuration object these values belong to
+     * @param out    where to append the formatted values
+     * @throws IOException  if appending fails
+     */
+    public void formatJsonTo(Object proxy, Appendable out) throws IOException {
+        String result = formattedJson;
+        if (result != null) {
+            out.append(result);
+        } else {
+            appendTo(proxy, out, true);
+        }
+    }
+
+    private String formatString(Object proxy, boolean json) {
+        StringBuilder buf = new StringBuilder();
+        try {
+            appendTo(proxy, buf, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf.toString();
+    }
+
+    private void appendTo(Object proxy, Appendable out, boolean json) throws IOException {
+        out.append('{');
+        for (int slot = 0; slot < values.length; slot++) {
+            if (slot > 0) {
+                out.append(json ? "," : ", ");
+            }
+            if (json) {
+                JsonFormat.appendString(layout.getMethodName(slot), out);
+                out.append(':');
+                values[slot].formatJsonTo(proxy, out);
+            } else {
+                out.append(layout.getMethodName(slot)).append('=');
+                values[slot].formatTo(proxy, out);
+            }
+        }
+        out.append('}');
     }
 
     @Override
@@ -31,11 +186,18 @@ public class ConfigMap implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ConfigMap configMap = (ConfigMap) o;
-        return Objects.equals(values, configMap.values);
+        return hashCode() == configMap.hashCode()
+                && layout.equals(configMap.layout)
+                && Arrays.equals(values, configMap.values);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(values);
+        int h = hash;
+        if (h == 0) {
+            h = 31 * layout.hashCode() + Arrays.hashCode(values);
+            hash = h;
+        }
+        return h;
     }
 }
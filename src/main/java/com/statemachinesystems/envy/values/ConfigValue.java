@@ -3,8 +3,10 @@ package com.statemachinesystems.envy.values;
 import com.statemachinesystems.envy.ConfigSource;
 import com.statemachinesystems.envy.Sensitive;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.function.Supplier;
 
 /**
  * Wrapper type for configuration values indicating whether the value was sourced
@@ -13,11 +15,26 @@ import java.lang.reflect.Method;
 public interface ConfigValue<T> extends Serializable {
 
     static <T> ConfigValue<T> of(T value, ConfigValue.Status status, Method method) {
-        return method.getAnnotation(Sensitive.class) != null
+        return of(value, status, method.getAnnotation(Sensitive.class) != null);
+    }
+
+    static <T> ConfigValue<T> of(T value, ConfigValue.Status status, boolean sensitive) {
+        return sensitive
             ? new SensitiveValue<>(value, status)
             : new ResolvedValue<>(value, status);
     }
 
+    /**
+     * Creates a value that's resolved on first access using the given resolver, then cached.
+     *
+     * @param resolver  resolves the value
+     * @param <T>       the type of the value
+     * @return  a lazily-resolved value
+     */
+    static <T> ConfigValue<T> lazy(Supplier<? extends ConfigValue<T>> resolver) {
+        return new LazyValue<>(resolver);
+    }
+
     enum Status {
         CONFIGURED,
         MISSING,
@@ -39,6 +56,28 @@ public interface ConfigValue<T> extends Serializable {
      */
     String format(Object proxy);
 
+    /**
+     * Appends the value, formatted as by {@link #format(Object)}, to the given {@link Appendable}.
+     *
+     * @param proxy  the proxy this value belongs to
+     * @param out    where to append the formatted value
+     * @throws IOException  if appending fails
+     */
+    default void formatTo(Object proxy, Appendable out) throws IOException {
+        out.append(format(proxy));
+    }
+
+    /**
+     * Appends the value as JSON to the given {@link Appendable}.
+     *
+     * @param proxy  the proxy this value belongs to
+     * @param out    where to append the value
+     * @throws IOException  if appending fails
+     */
+    default void formatJsonTo(Object proxy, Appendable out) throws IOException {
+        JsonFormat.appendValue(getValue(proxy), out);
+    }
+
     /**
      * Indicates whether the value was found in the underlying {@link ConfigSource},
      * missing, or replaced by a default value.
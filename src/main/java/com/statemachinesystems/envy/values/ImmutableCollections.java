@@ -0,0 +1,515 @@
+package com.statemachinesystems.envy.values;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Creates compact, immutable collections for multi-valued configuration values.
+ *
+ * Implementations are chosen by element type, so that membership checks on configuration-driven
+ * allow-lists are fast and the values take little memory:
+ * <ul>
+ *     <li>lists are backed by a single array, which is an <code>int[]</code> or <code>long[]</code>
+ *     for {@link Integer} and {@link Long} elements</li>
+ *     <li>sets of enums are backed by an {@link EnumSet}, which is a bitset</li>
+ *     <li>sets of {@link Integer} and {@link Long} are backed by a sorted <code>int[]</code> or
+ *     <code>long[]</code>, and sets of {@link String} and other types whose natural ordering is consistent
+ *     with <code>equals</code> by a sorted array, and are searched with a binary search</li>
+ *     <li>other sets, and maps with non-enum keys, use an open-addressing hash table over arrays in
+ *     insertion order</li>
+ *     <li>maps with enum keys are backed by an {@link EnumMap}</li>
+ * </ul>
+ *
+ * Sorted sets iterate in their natural order. Lists, hashed sets and maps keep the order they were created in.
+ * None of the collections accept null elements, keys or values.
+ */
+public final class ImmutableCollections {
+
+    private static final Set<Class<?>> SORTABLE_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Character.class, Byte.class, Short.class));
+
+    private ImmutableCollections() {}
+
+    /**
+     * Creates an immutable list of the given elements.
+     *
+     * @param elementClass  the class of the elements
+     * @param elements      the elements, in order
+     * @param <E>           the type of the elements
+     * @return  an immutable list
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> listOf(Class<E> elementClass, Collection<E> elements) {
+        Object[] array = toArray(elements);
+        if (elementClass == Integer.class) {
+            return (List<E>) new IntArrayList(toIntArray(array));
+        } else if (elementClass == Long.class) {
+            return (List<E>) new LongArrayList(toLongArray(array));
+        }
+        return new ArrayBackedList<E>(array);
+    }
+
+    /**
+     * Creates an immutable set of the given elements, ignoring any duplicates.
+     *
+     * @param elementClass  the class of the elements
+     * @param elements      the elements
+     * @param <E>           the type of the elements
+     * @return  an immutable set
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <E> Set<E> setOf(Class<E> elementClass, Collection<E> elements) {
+        Object[] array = toArray(elements);
+        if (elementClass.isEnum()) {
+            EnumSet enumSet = EnumSet.noneOf((Class<Enum>) elementClass);
+            Collections.addAll(enumSet, array);
+            return Collections.unmodifiableSet(enumSet);
+        } else if (elementClass == Integer.class) {
+            return (Set<E>) new SortedIntSet(toIntArray(array));
+        } else if (elementClass == Long.class) {
+            return (Set<E>) new SortedLongSet(toLongArray(array));
+        } else if (SORTABLE_CLASSES.contains(elementClass)) {
+            return new SortedArraySet<E>(elementClass, array);
+        }
+        return new HashArraySet<E>(array);
+    }
+
+    /**
+     * Creates an immutable map of the given entries.
+     *
+     * @param keyClass  the class of the keys
+     * @param entries   the entries, in order
+     * @param <K>       the type of the keys
+     * @param <V>       the type of the values
+     * @return  an immutable map
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <K, V> Map<K, V> mapOf(Class<K> keyClass, Map<K, V> entries) {
+        Object[] keys = toArray(entries.keySet());
+        Object[] values = toArray(entries.values());
+        if (keyClass.isEnum()) {
+            EnumMap enumMap = new EnumMap((Class<Enum>) keyClass);
+            enumMap.putAll(entries);
+            return Collections.unmodifiableMap(enumMap);
+        }
+        return new HashArrayMap<K, V>(keys, values);
+    }
+
+    private static Object[] toArray(Collection<?> elements) {
+        Object[] array = elements.toArray();
+        for (Object element : array) {
+            if (element == null) {
+                throw new IllegalArgumentException("Null values are not supported in collections");
+            }
+        }
+        return array;
+    }
+
+    private static int[] toIntArray(Object[] array) {
+        int[] ints = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            ints[i] = (Integer) array[i];
+        }
+        return ints;
+    }
+
+    private static long[] toLongArray(Object[] array) {
+        long[] longs = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            longs[i] = (Long) array[i];
+        }
+        return longs;
+    }
+
+    private static class ArrayBackedList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+        private final Object[] elements;
+
+        private ArrayBackedList(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    private static class IntArrayList extends AbstractList<Integer> implements RandomAccess, Serializable {
+
+        private final int[] elements;
+
+        private IntArrayList(int[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Integer) {
+                int value = (Integer) o;
+                for (int i = 0; i < elements.length; i++) {
+                    if (elements[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class LongArrayList extends AbstractList<Long> implements RandomAccess, Serializable {
+
+        private final long[] elements;
+
+        private LongArrayList(long[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Long get(int index) {
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Long) {
+                long value = (Long) o;
+                for (int i = 0; i < elements.length; i++) {
+                    if (elements[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class SortedIntSet extends AbstractSet<Integer> implements Serializable {
+
+        private final int[] elements;
+
+        private SortedIntSet(int[] elements) {
+            int[] sorted = elements.clone();
+            Arrays.sort(sorted);
+            int size = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[size - 1]) {
+                    sorted[size++] = sorted[i];
+                }
+            }
+            this.elements = Arrays.copyOf(sorted, size);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && Arrays.binarySearch(elements, (Integer) o) >= 0;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < elements.length;
+                }
+
+                @Override
+                public Integer next() {
+                    if (index == elements.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    private static class SortedLongSet extends AbstractSet<Long> implements Serializable {
+
+        private final long[] elements;
+
+        private SortedLongSet(long[] elements) {
+            long[] sorted = elements.clone();
+            Arrays.sort(sorted);
+            int size = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[size - 1]) {
+                    sorted[size++] = sorted[i];
+                }
+            }
+            this.elements = Arrays.copyOf(sorted, size);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && Arrays.binarySearch(elements, (Long) o) >= 0;
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return new Iterator<Long>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < elements.length;
+                }
+
+                @Override
+                public Long next() {
+                    if (index == elements.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    private static class SortedArraySet<E> extends AbstractSet<E> implements Serializable {
+
+        private final Class<E> elementClass;
+        private final Object[] elements;
+
+        private SortedArraySet(Class<E> elementClass, Object[] elements) {
+            Object[] sorted = elements.clone();
+            Arrays.sort(sorted);
+            int size = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || !sorted[i].equals(sorted[size - 1])) {
+                    sorted[size++] = sorted[i];
+                }
+            }
+            this.elementClass = elementClass;
+            this.elements = Arrays.copyOf(sorted, size);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return elementClass.isInstance(o) && Arrays.binarySearch(elements, o) >= 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new ArrayIterator<E>(elements);
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    private static class HashArraySet<E> extends AbstractSet<E> implements Serializable {
+
+        private final Object[] elements;
+        private transient HashIndex index;
+
+        private HashArraySet(Object[] elements) {
+            HashIndex index = new HashIndex(elements.length);
+            int size = 0;
+            for (Object element : elements) {
+                if (index.find(elements, element) < 0) {
+                    elements[size] = element;
+                    index.add(elements, size++);
+                }
+            }
+            this.elements = Arrays.copyOf(elements, size);
+            this.index = index;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && index.find(elements, o) >= 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new ArrayIterator<E>(elements);
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            this.index = HashIndex.of(elements);
+        }
+    }
+
+    private static class HashArrayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+        private final Object[] keys;
+        private final Object[] values;
+        private transient HashIndex index;
+
+        private HashArrayMap(Object[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+            this.index = HashIndex.of(keys);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            int position = key != null ? index.find(keys, key) : -1;
+            return position >= 0 ? (V) values[position] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && index.find(keys, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new Iterator<Entry<K, V>>() {
+                        private int position;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < keys.length;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Entry<K, V> next() {
+                            if (position == keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<K, V> entry = new SimpleImmutableEntry<K, V>((K) keys[position], (V) values[position]);
+                            position++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            this.index = HashIndex.of(keys);
+        }
+    }
+
+    private static class ArrayIterator<E> implements Iterator<E> {
+
+        private final Object[] elements;
+        private int index;
+
+        private ArrayIterator(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < elements.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (index == elements.length) {
+                throw new NoSuchElementException();
+            }
+            return (E) elements[index++];
+        }
+    }
+
+    /**
+     * An open-addressing hash table with linear probing that maps keys to their positions in an array.
+     * The table is at most half full, and stores each position plus one, so that zero marks an empty slot.
+     */
+    private static class HashIndex {
+
+        private final int[] slots;
+        private final int mask;
+
+        private HashIndex(int size) {
+            int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private static HashIndex of(Object[] keys) {
+            HashIndex index = new HashIndex(keys.length);
+            for (int position = 0; position < keys.length; position++) {
+                index.add(keys, position);
+            }
+            return index;
+        }
+
+        private int find(Object[] keys, Object key) {
+            for (int i = spread(key.hashCode()) & mask; ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot == 0) {
+                    return -1;
+                } else if (key.equals(keys[slot - 1])) {
+                    return slot - 1;
+                }
+            }
+        }
+
+        private void add(Object[] keys, int position) {
+            int i = spread(keys[position].hashCode()) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = position + 1;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
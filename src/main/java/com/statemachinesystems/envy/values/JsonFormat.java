@@ -0,0 +1,177 @@
+package com.statemachinesystems.envy.values;
+
+import com.statemachinesystems.envy.ProxyInvocationHandler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Writes configuration values as JSON.
+ *
+ * Numbers and booleans are written as JSON literals, arrays and collections as JSON arrays, maps as JSON
+ * objects keyed by each key's string form, nested configuration objects as JSON objects, and empty optionals
+ * as <code>null</code>. Anything else is written as its string form.
+ */
+final class JsonFormat {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private JsonFormat() {
+    }
+
+    static void appendValue(Object value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof BigDecimal) {
+            out.append(value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                appendString(value.toString(), out);
+            } else {
+                out.append(value.toString());
+            }
+        } else if (value.getClass().isArray()) {
+            appendArray(value, out);
+        } else if (value instanceof Collection) {
+            appendCollection((Collection<?>) value, out);
+        } else if (value instanceof Map) {
+            appendMap((Map<?, ?>) value, out);
+        } else if (value instanceof Optional) {
+            appendValue(((Optional<?>) value).orElse(null), out);
+        } else if (value instanceof OptionalInt) {
+            OptionalInt optional = (OptionalInt) value;
+            out.append(optional.isPresent() ? String.valueOf(optional.getAsInt()) : "null");
+        } else if (value instanceof OptionalLong) {
+            OptionalLong optional = (OptionalLong) value;
+            out.append(optional.isPresent() ? String.valueOf(optional.getAsLong()) : "null");
+        } else if (value instanceof OptionalDouble) {
+            OptionalDouble optional = (OptionalDouble) value;
+            appendValue(optional.isPresent() ? optional.getAsDouble() : null, out);
+        } else {
+            ConfigMap nested = ProxyInvocationHandler.valuesOrNull(value);
+            if (nested != null) {
+                nested.formatJsonTo(value, out);
+            } else {
+                appendString(value.toString(), out);
+            }
+        }
+    }
+
+    private static void appendArray(Object array, Appendable out) throws IOException {
+        if (array instanceof Object[]) {
+            out.append('[');
+            Object[] elements = (Object[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendValue(elements[i], out);
+            }
+            out.append(']');
+        } else if (array instanceof char[]) {
+            out.append('[');
+            char[] elements = (char[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendString(String.valueOf(elements[i]), out);
+            }
+            out.append(']');
+        } else if (array instanceof double[]) {
+            out.append('[');
+            double[] elements = (double[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendValue(elements[i], out);
+            }
+            out.append(']');
+        } else if (array instanceof float[]) {
+            out.append('[');
+            float[] elements = (float[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendValue(elements[i], out);
+            }
+            out.append(']');
+        } else {
+            ResolvedValue.appendArray(array, ",", out);
+        }
+    }
+
+    private static void appendCollection(Collection<?> collection, Appendable out) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (Object element : collection) {
+            if (!first) {
+                out.append(',');
+            }
+            appendValue(element, out);
+            first = false;
+        }
+        out.append(']');
+    }
+
+    private static void appendMap(Map<?, ?> map, Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            appendString(String.valueOf(entry.getKey()), out);
+            out.append(':');
+            appendValue(entry.getValue(), out);
+            first = false;
+        }
+        out.append('}');
+    }
+
+    static void appendString(String s, Appendable out) throws IOException {
+        out.append('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.append(s, start, i);
+                switch (c) {
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    default:
+                        out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                }
+                start = i + 1;
+            }
+        }
+        out.append(s, start, length);
+        out.append('"');
+    }
+}
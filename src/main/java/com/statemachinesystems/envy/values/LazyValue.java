@@ -0,0 +1,98 @@
+package com.statemachinesystems.envy.values;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Wrapper type for configuration values that are resolved on first access, then cached.
+ *
+ * Resolution happens at most once, using double-checked locking, so the resolved value is safely
+ * published to all threads. If resolution fails, the exception is thrown to the caller and
+ * resolution is retried on the next access.
+ */
+public class LazyValue<T> implements ConfigValue<T> {
+
+    private transient Supplier<? extends ConfigValue<T>> resolver;
+    private volatile ConfigValue<T> resolved;
+
+    LazyValue(Supplier<? extends ConfigValue<T>> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Resolves the value if it hasn't been resolved already.
+     *
+     * @return  the resolved value
+     */
+    public ConfigValue<T> resolve() {
+        ConfigValue<T> value = resolved;
+        if (value == null) {
+            synchronized (this) {
+                value = resolved;
+                if (value == null) {
+                    value = resolver.get();
+                    resolved = value;
+                    resolver = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Indicates whether the value has been resolved.
+     *
+     * @return  true if the value has been resolved
+     */
+    public boolean isResolved() {
+        return resolved != null;
+    }
+
+    @Override
+    public T getValue(Object proxy) {
+        return resolve().getValue(proxy);
+    }
+
+    @Override
+    public String format(Object proxy) {
+        return resolve().format(proxy);
+    }
+
+    @Override
+    public void formatTo(Object proxy, Appendable out) throws IOException {
+        resolve().formatTo(proxy, out);
+    }
+
+    @Override
+    public void formatJsonTo(Object proxy, Appendable out) throws IOException {
+        resolve().formatJsonTo(proxy, out);
+    }
+
+    @Override
+    public Status getStatus() {
+        return resolve().getStatus();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof LazyValue) {
+            return resolve().equals(((LazyValue<?>) o).resolve());
+        }
+        return resolve().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return resolve().hashCode();
+    }
+
+    /**
+     * Lazy values are serialized in their resolved form.
+     *
+     * @return  the resolved value
+     */
+    private Object writeReplace() {
+        return resolve();
+    }
+}
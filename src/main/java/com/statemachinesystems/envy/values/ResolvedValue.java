@@ -1,6 +1,6 @@
 package com.statemachinesystems.envy.values;
 
-import java.lang.reflect.Array;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -24,9 +24,22 @@ public class ResolvedValue<T> implements ConfigValue<T> {
     @Override
     public String format(Object proxy) {
         T value = getValue(proxy);
-        return value != null && value.getClass().isArray()
-                ? formatArray(value)
-                : String.valueOf(value);
+        if (value != null && value.getClass().isArray()) {
+            StringBuilder buf = new StringBuilder();
+            appendElements(value, ", ", buf);
+            return buf.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    @Override
+    public void formatTo(Object proxy, Appendable out) throws IOException {
+        T value = getValue(proxy);
+        if (value != null && value.getClass().isArray()) {
+            appendArray(value, ", ", out);
+        } else {
+            out.append(String.valueOf(value));
+        }
     }
 
     @Override
@@ -37,6 +50,9 @@ public class ResolvedValue<T> implements ConfigValue<T> {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
+        if (o instanceof LazyValue) {
+            o = ((LazyValue<?>) o).resolve();
+        }
         if (o == null || getClass() != o.getClass()) return false;
         ResolvedValue that = (ResolvedValue) o;
         return Objects.equals(value, that.value) &&
@@ -48,17 +64,74 @@ public class ResolvedValue<T> implements ConfigValue<T> {
         return Objects.hash(value, status);
     }
 
-    private static String formatArray(Object array) {
-        StringBuilder buf = new StringBuilder();
+    /**
+     * Appends the elements of an array of any type, separated by the given separator and enclosed in brackets.
+     */
+    static void appendArray(Object array, String separator, Appendable out) throws IOException {
+        StringBuilder buf = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+        appendElements(array, separator, buf);
+        if (buf != out) {
+            out.append(buf);
+        }
+    }
+
+    private static void appendElements(Object array, String separator, StringBuilder buf) {
         buf.append('[');
-        int length = Array.getLength(array);
-        for (int i = 0; i < length; i++) {
-            if (i > 0) {
-                buf.append(", ");
+        if (array instanceof Object[]) {
+            Object[] elements = (Object[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof int[]) {
+            int[] elements = (int[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof long[]) {
+            long[] elements = (long[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] elements = (double[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] elements = (boolean[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof char[]) {
+            char[] elements = (char[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] elements = (byte[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else if (array instanceof short[]) {
+            short[] elements = (short[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
+            }
+        } else {
+            float[] elements = (float[]) array;
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) buf.append(separator);
+                buf.append(elements[i]);
             }
-            buf.append(Array.get(array, i));
         }
         buf.append(']');
-        return buf.toString();
     }
 }
@@ -1,5 +1,7 @@
 package com.statemachinesystems.envy.values;
 
+import java.io.IOException;
+
 public class SensitiveValue<T> extends ResolvedValue<T> {
 
     public static final String MASKED_VALUE = "******";
@@ -14,4 +16,22 @@ public class SensitiveValue<T> extends ResolvedValue<T> {
                 ? super.format(proxy)
                 : MASKED_VALUE;
     }
+
+    @Override
+    public void formatTo(Object proxy, Appendable out) throws IOException {
+        if (getStatus() == Status.MISSING) {
+            super.formatTo(proxy, out);
+        } else {
+            out.append(MASKED_VALUE);
+        }
+    }
+
+    @Override
+    public void formatJsonTo(Object proxy, Appendable out) throws IOException {
+        if (getStatus() == Status.MISSING) {
+            super.formatJsonTo(proxy, out);
+        } else {
+            JsonFormat.appendString(MASKED_VALUE, out);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.common.StubConfigSource;
+import com.statemachinesystems.envy.sources.CachingConfigSource;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CachingConfigSourceTest {
+
+    private static class CountingConfigSource extends StubConfigSource {
+
+        private int lookups;
+
+        @Override
+        public String getValue(Parameter parameter) {
+            lookups++;
+            return super.getValue(parameter);
+        }
+    }
+
+    private static class ManualClock extends Clock {
+
+        private long millis;
+
+        private void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final CountingConfigSource source = new CountingConfigSource();
+    private final ManualClock clock = new ManualClock();
+
+    {
+        source.add("foo", "1").add("bar", "2").add("baz", "3");
+    }
+
+    @Test
+    public void servesRepeatedLookupsFromCache() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofMinutes(1), 100);
+
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+        assertThat(source.lookups, equalTo(1));
+        assertThat(configSource.getHitCount(), equalTo(1L));
+        assertThat(configSource.getMissCount(), equalTo(1L));
+    }
+
+    @Test
+    public void cachesMissingValues() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofMinutes(1), 100);
+
+        assertThat(configSource.getValue(new Parameter("qux")), nullValue());
+        assertThat(configSource.getValue(new Parameter("qux")), nullValue());
+        assertThat(source.lookups, equalTo(1));
+    }
+
+    @Test
+    public void optionallyDoesNotCacheMissingValues() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofMinutes(1), 100, false, clock);
+
+        configSource.getValue(new Parameter("qux"));
+        configSource.getValue(new Parameter("qux"));
+        assertThat(source.lookups, equalTo(2));
+    }
+
+    @Test
+    public void neverExpiresEntriesWithMaximumTimeToLive() {
+        Duration[] timeToLives = { Duration.ofMillis(Long.MAX_VALUE), ChronoUnit.FOREVER.getDuration() };
+        for (Duration timeToLive : timeToLives) {
+            CachingConfigSource configSource = new CachingConfigSource(source, timeToLive, 100, true, clock);
+            clock.advance(Duration.ofDays(1));
+
+            configSource.getValue(new Parameter("foo"));
+            clock.advance(Duration.ofDays(365));
+            configSource.getValue(new Parameter("foo"));
+        }
+        assertThat(source.lookups, equalTo(2));
+    }
+
+    @Test
+    public void expiresEntriesAfterTimeToLive() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofSeconds(10), 100, true, clock);
+
+        configSource.getValue(new Parameter("foo"));
+        clock.advance(Duration.ofSeconds(9));
+        configSource.getValue(new Parameter("foo"));
+        assertThat(source.lookups, equalTo(1));
+
+        clock.advance(Duration.ofSeconds(1));
+        configSource.getValue(new Parameter("foo"));
+        assertThat(source.lookups, equalTo(2));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofMinutes(1), 2);
+
+        configSource.getValue(new Parameter("foo"));
+        configSource.getValue(new Parameter("bar"));
+        configSource.getValue(new Parameter("foo"));
+        configSource.getValue(new Parameter("baz"));
+        assertThat(configSource.getEvictionCount(), equalTo(1L));
+
+        configSource.getValue(new Parameter("foo"));
+        assertThat(source.lookups, equalTo(3));
+
+        configSource.getValue(new Parameter("bar"));
+        assertThat(source.lookups, equalTo(4));
+    }
+
+    @Test
+    public void fetchesOnlyUncachedParametersInBatches() {
+        List<Collection<Parameter>> batches = new ArrayList<Collection<Parameter>>();
+        ConfigSource batchingSource = new StubConfigSource().add("foo", "1").add("bar", "2");
+        ConfigSource recordingSource = new ConfigSource() {
+            @Override
+            public String getValue(Parameter parameter) {
+                throw new AssertionError("Expected a batch lookup");
+            }
+
+            @Override
+            public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+                batches.add(new ArrayList<Parameter>(parameters));
+                return batchingSource.getValues(parameters);
+            }
+        };
+        CachingConfigSource configSource = new CachingConfigSource(recordingSource, Duration.ofMinutes(1), 100);
+
+        configSource.getValues(Arrays.asList(new Parameter("foo"), new Parameter("qux")));
+        Map<Parameter, String> values = configSource.getValues(
+                Arrays.asList(new Parameter("foo"), new Parameter("bar"), new Parameter("qux")));
+
+        Map<Parameter, String> expected = new HashMap<Parameter, String>();
+        expected.put(new Parameter("foo"), "1");
+        expected.put(new Parameter("bar"), "2");
+        assertThat(values, equalTo(expected));
+        assertThat(batches.size(), equalTo(2));
+        assertThat(batches.get(1), equalTo((Collection<Parameter>) Collections.singletonList(new Parameter("bar"))));
+        assertThat(configSource.getHitCount(), equalTo(2L));
+    }
+
+    @Test
+    public void invalidatesAllEntries() {
+        CachingConfigSource configSource = new CachingConfigSource(source, Duration.ofMinutes(1), 100);
+
+        configSource.getValue(new Parameter("foo"));
+        configSource.invalidateAll();
+        configSource.getValue(new Parameter("foo"));
+        assertThat(source.lookups, equalTo(2));
+    }
+}
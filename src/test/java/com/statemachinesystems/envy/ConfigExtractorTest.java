@@ -4,11 +4,15 @@ import com.statemachinesystems.envy.common.StubConfigSource;
 import com.statemachinesystems.envy.parsers.IntegerValueParser;
 import com.statemachinesystems.envy.parsers.ObjectAsStringValueParser;
 import com.statemachinesystems.envy.parsers.StringValueParser;
+import com.statemachinesystems.envy.values.ConfigMap;
 import com.statemachinesystems.envy.values.ConfigValue;
 import com.statemachinesystems.envy.values.ConfigValue.Status;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.util.*;
+
 import static org.junit.Assert.*;
 
 public class ConfigExtractorTest {
@@ -197,6 +201,90 @@ public class ConfigExtractorTest {
         }
     }
 
+    @Test
+    public void sharesLayoutBetweenExtractions() {
+        ConfigMap values1 = configExtractor.extractConfigMap(ExampleConfig.class);
+        ConfigMap values2 = configExtractor.extractConfigMap(ExampleConfig.class);
+
+        assertSame(values1.getLayout(), values2.getLayout());
+    }
+
+    @Test
+    public void cachesMetadataPerInterfaceAndPrefix() {
+        Parameter prefix = new Parameter("prefix");
+
+        assertSame(ConfigMetadata.of(ExampleConfig.class), ConfigMetadata.of(ExampleConfig.class));
+        assertSame(ConfigMetadata.of(ExampleConfig.class, prefix), ConfigMetadata.of(ExampleConfig.class, prefix));
+        assertNotSame(ConfigMetadata.of(ExampleConfig.class), ConfigMetadata.of(ExampleConfig.class, prefix));
+    }
+
+    public interface NestedConfig {
+        String name();
+        ExampleConfig example();
+
+        @Nullable
+        ExampleConfig missingExample();
+    }
+
+    @Test
+    public void fetchesAllParametersOfInterfaceTreeInOneBatch() {
+        final StubConfigSource values = new StubConfigSource()
+                .add("NAME", "foo")
+                .add("EXAMPLE_A_STRING", "foo")
+                .add("EXAMPLE_A_BOXED_INTEGER", "10")
+                .add("EXAMPLE_A_PRIMITIVE_INTEGER", "15")
+                .add("EXAMPLE_AN_ARRAY_OF_BOXED_INTEGERS", "7")
+                .add("EXAMPLE_AN_ARRAY_OF_PRIMITIVE_INTEGERS", "1,2,3")
+                .add("EXAMPLE_CUSTOM_PARAMETER_NAME", "bar")
+                .add("EXAMPLE_METHOD_WITH_OBJECT_RETURN_TYPE", "bar");
+        final List<Collection<Parameter>> requests = new ArrayList<Collection<Parameter>>();
+        ConfigSource batchingSource = new ConfigSource() {
+            @Override
+            public String getValue(Parameter parameter) {
+                throw new AssertionError("Unexpected single lookup of " + parameter);
+            }
+
+            @Override
+            public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+                requests.add(parameters);
+                return values.getValues(parameters);
+            }
+        };
+
+        ConfigMap configMap = new ConfigExtractor(valueParserFactory, batchingSource).extractConfigMap(NestedConfig.class);
+
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).contains(new Parameter("EXAMPLE_A_STRING")));
+        assertTrue(requests.get(0).contains(new Parameter("MISSING_EXAMPLE_A_STRING")));
+        assertEquals("foo", configMap.getValue("name").getValue(null));
+        assertNull(configMap.getValue("missingExample").getValue(null));
+    }
+
+    @Test
+    public void extractsAsynchronouslyWithoutSynchronousSource() {
+        ConfigMap values = ConfigExtractor
+                .extractConfigMapAsync(valueParserFactory, ExampleConfig.class, AsyncConfigSource.of(configSource))
+                .join();
+
+        assertEquals("foo", values.getValue("getAString").getValue(null));
+        assertArrayEquals(new int[] { 1, 2, 3 },
+                (int[]) values.getValue("getAnArrayOfPrimitiveIntegers").getValue(null));
+        assertEquals(Status.DEFAULTED, values.getValue("defaultedString").getStatus());
+    }
+
+    @Test
+    public void looksUpValuesByMethod() throws NoSuchMethodException {
+        ConfigMap values = configExtractor.extractConfigMap(ExampleConfig.class);
+        Method method = ExampleConfig.class.getMethod("getAString");
+
+        assertSame(values.getValue("getAString"), values.getValue(method));
+        assertSame(values.getValue("getAString"), values.getValue(ExampleConfig.class.getMethod("getAString")));
+        assertSame(values.getValue("getAString"), values.getProxyMethodValue(method));
+        assertSame(values.getValue("getAString"), values.getProxyMethodValue(method));
+        assertNull(values.getValue(Object.class.getMethod("toString")));
+        assertNull(values.getProxyMethodValue(Object.class.getMethod("toString")));
+    }
+
     private Object getValue(String methodName, Status expectedStatus) {
         ConfigValue configValue = configExtractor.extractConfigMap(ExampleConfig.class).getValue(methodName);
         assertEquals(expectedStatus, configValue.getStatus());
@@ -4,6 +4,8 @@ import com.statemachinesystems.envy.common.StubConfigSource;
 import com.statemachinesystems.envy.sources.DelegatingConfigSource;
 import org.junit.Test;
 
+import java.util.*;
+
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -55,4 +57,44 @@ public class DelegatingConfigSourceTest {
         assertThat(configSource.getValue(new Parameter("bar")), equalTo("2"));
         assertThat(configSource.getValue(new Parameter("baz")), equalTo("5"));
     }
+
+    @Test
+    public void forwardsOnlyUnresolvedParametersInBatches() {
+        final List<Collection<Parameter>> requests = new ArrayList<Collection<Parameter>>();
+        ConfigSource source1 = new StubConfigSource().add("foo", "1");
+        ConfigSource source2 = new StubConfigSource() {
+            @Override
+            public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+                requests.add(new ArrayList<Parameter>(parameters));
+                return super.getValues(parameters);
+            }
+        }.add("foo", "2").add("bar", "3");
+        ConfigSource configSource = new DelegatingConfigSource(source1, source2);
+
+        Map<Parameter, String> values = configSource.getValues(
+                Arrays.asList(new Parameter("foo"), new Parameter("bar"), new Parameter("baz")));
+
+        assertThat(values.get(new Parameter("foo")), equalTo("1"));
+        assertThat(values.get(new Parameter("bar")), equalTo("3"));
+        assertThat(values.containsKey(new Parameter("baz")), equalTo(false));
+        assertThat(requests.size(), equalTo(1));
+        assertThat(requests.get(0), equalTo((Collection<Parameter>) Arrays.asList(new Parameter("bar"), new Parameter("baz"))));
+    }
+
+    @Test
+    public void passesEachSourceACollectionThatDoesNotChangeLater() {
+        final List<Collection<Parameter>> requests = new ArrayList<Collection<Parameter>>();
+        ConfigSource retainingSource = new StubConfigSource() {
+            @Override
+            public Map<Parameter, String> getValues(Collection<Parameter> parameters) {
+                requests.add(parameters);
+                return super.getValues(parameters);
+            }
+        }.add("foo", "1");
+        ConfigSource configSource = new DelegatingConfigSource(retainingSource, new StubConfigSource().add("bar", "2"));
+
+        configSource.getValues(Arrays.asList(new Parameter("foo"), new Parameter("bar")));
+
+        assertThat(requests.get(0), equalTo((Collection<Parameter>) Arrays.asList(new Parameter("foo"), new Parameter("bar"))));
+    }
 }
@@ -0,0 +1,143 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.sources.FileConfigSource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class FileConfigSourceTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ConfigSource file(String name, String... lines) throws IOException {
+        Path path = folder.getRoot().toPath().resolve(name);
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return new FileConfigSource(path);
+    }
+
+    private static String value(ConfigSource configSource, String name) {
+        return configSource.getValue(new Parameter(name));
+    }
+
+    @Test
+    public void readsPropertiesFile() throws IOException {
+        ConfigSource configSource = file("app.properties",
+                "# comment",
+                "! another comment",
+                "",
+                "foo.bar=1",
+                "  baz : two words  ",
+                "qux 3",
+                "empty=");
+
+        assertThat(value(configSource, "FOO_BAR"), equalTo("1"));
+        assertThat(value(configSource, "baz"), equalTo("two words  "));
+        assertThat(value(configSource, "qux"), equalTo("3"));
+        assertThat(value(configSource, "empty"), equalTo(""));
+        assertThat(value(configSource, "missing"), nullValue());
+    }
+
+    @Test
+    public void matchesPropertiesLikeJavaUtilProperties() throws IOException {
+        ConfigSource configSource = file("app.properties",
+                "multi.line=first, \\",
+                "    second",
+                "escapes=tab\\there\\nnewline \\u00e9",
+                "key\\=with\\:separators=x",
+                "non.ascii=café",
+                "foo=1",
+                "foo=2");
+
+        assertThat(value(configSource, "multi.line"), equalTo("first, second"));
+        assertThat(value(configSource, "escapes"), equalTo("tab\there\nnewline é"));
+        assertThat(value(configSource, "non.ascii"), equalTo("café"));
+        assertThat(value(configSource, "foo"), equalTo("2"));
+    }
+
+    @Test
+    public void readsEnvFile() throws IOException {
+        ConfigSource configSource = file(".env",
+                "# comment",
+                "FOO_BAR=1",
+                "export EXPORTED=2",
+                "SPACED = three  # trailing comment",
+                "HASH=a#b",
+                "DOUBLE=\"quoted # not a comment\\nline\"",
+                "SINGLE='literal \\n'",
+                "MULTI=\"first",
+                "second\"",
+                "INVALID LINE",
+                "EMPTY=");
+
+        assertThat(value(configSource, "foo.bar"), equalTo("1"));
+        assertThat(value(configSource, "exported"), equalTo("2"));
+        assertThat(value(configSource, "spaced"), equalTo("three"));
+        assertThat(value(configSource, "hash"), equalTo("a#b"));
+        assertThat(value(configSource, "double"), equalTo("quoted # not a comment\nline"));
+        assertThat(value(configSource, "single"), equalTo("literal \\n"));
+        assertThat(value(configSource, "multi"), equalTo("first\nsecond"));
+        assertThat(value(configSource, "empty"), equalTo(""));
+    }
+
+    @Test
+    public void prefersSystemPropertyNames() throws IOException {
+        ConfigSource configSource = file("app.properties",
+                "foo.bar=dotted",
+                "FOO_BAR=underscored");
+
+        assertThat(value(configSource, "FOO_BAR"), equalTo("dotted"));
+    }
+
+    @Test
+    public void readsEmptyFile() throws IOException {
+        assertThat(value(file("empty.properties"), "foo"), nullValue());
+    }
+
+    @Test
+    public void readsPropertiesFormatWithWindowsLineEndings() throws IOException {
+        ConfigSource configSource = file("app.properties", "foo=1\r", "bar=a\\\r", "  b\r");
+
+        assertThat(value(configSource, "foo"), equalTo("1"));
+        assertThat(value(configSource, "bar"), equalTo("ab"));
+    }
+
+    @Test
+    public void listsAllValuesThatParametersWouldMatch() throws IOException {
+        ConfigSource configSource = file("app.properties",
+                "foo.bar=1",
+                "FOO_BAR=2",
+                "BAZ=3",
+                "Mixed.Case=4");
+
+        Map<Parameter, String> expected = new HashMap<Parameter, String>();
+        expected.put(new Parameter("foo.bar"), "1");
+        expected.put(new Parameter("baz"), "3");
+        assertThat(((IndexableConfigSource) configSource).getAllValues(), equalTo(expected));
+    }
+
+    @Test
+    public void isUnaffectedByLaterChangesToFile() throws IOException {
+        ConfigSource configSource = file("app.properties", "foo=1", "bar=two");
+        Path path = folder.getRoot().toPath().resolve("app.properties");
+
+        Files.write(path, "foo=9\nbar=owt".getBytes(StandardCharsets.UTF_8));
+        assertThat(value(configSource, "foo"), equalTo("1"));
+        assertThat(value(configSource, "bar"), equalTo("two"));
+
+        Files.write(path, new byte[0]);
+        assertThat(value(configSource, "foo"), equalTo("1"));
+        assertThat(value(configSource, "bar"), equalTo("two"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.common.MyEnum;
+import com.statemachinesystems.envy.values.ImmutableCollections;
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ImmutableCollectionsTest {
+
+    @Test
+    public void listsKeepOrderAndEqualOtherLists() {
+        List<Integer> list = ImmutableCollections.listOf(Integer.class, Arrays.asList(3, 1, 3));
+        assertThat(list, is(Arrays.asList(3, 1, 3)));
+        assertThat(list.hashCode(), is(Arrays.asList(3, 1, 3).hashCode()));
+        assertThat(list.indexOf(1), is(1));
+        assertThat(list.contains(2), is(false));
+        assertThat(list.contains(3L), is(false));
+    }
+
+    @Test
+    public void sortedSetsRemoveDuplicatesAndIterateInOrder() {
+        Set<String> strings = ImmutableCollections.setOf(String.class, Arrays.asList("b", "c", "a", "b"));
+        assertThat(new ArrayList<String>(strings), is(Arrays.asList("a", "b", "c")));
+        assertThat(strings.contains("c"), is(true));
+        assertThat(strings.contains("d"), is(false));
+        assertThat(strings.contains(1), is(false));
+
+        Set<Integer> ints = ImmutableCollections.setOf(Integer.class, Arrays.asList(5, -1, 5, 3));
+        assertThat(new ArrayList<Integer>(ints), is(Arrays.asList(-1, 3, 5)));
+        assertThat(ints, is((Set<Integer>) new HashSet<Integer>(Arrays.asList(-1, 3, 5))));
+        assertThat(ints.contains(3), is(true));
+        assertThat(ints.contains(4), is(false));
+    }
+
+    @Test
+    public void hashedSetsUseEquals() {
+        Set<BigDecimal> decimals = ImmutableCollections.setOf(BigDecimal.class,
+                Arrays.asList(new BigDecimal("1.0"), new BigDecimal("1.00"), new BigDecimal("1.0")));
+        assertThat(decimals.size(), is(2));
+        assertThat(decimals.contains(new BigDecimal("1.00")), is(true));
+        assertThat(decimals.contains(new BigDecimal("1")), is(false));
+        assertThat(decimals.contains(null), is(false));
+    }
+
+    @Test
+    public void enumSetsAreImmutable() {
+        Set<MyEnum> enums = ImmutableCollections.setOf(MyEnum.class, Arrays.asList(MyEnum.BAZ, MyEnum.FOO));
+        assertThat(enums, is((Set<MyEnum>) EnumSet.of(MyEnum.FOO, MyEnum.BAZ)));
+        try {
+            enums.clear();
+            throw new AssertionError("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void mapsKeepOrderAndFindEveryKey() {
+        Map<String, Integer> entries = new LinkedHashMap<String, Integer>();
+        for (int i = 0; i < 100; i++) {
+            entries.put("key" + i, i);
+        }
+        Map<String, Integer> map = ImmutableCollections.mapOf(String.class, entries);
+
+        assertThat(map, is(entries));
+        assertThat(map.hashCode(), is(entries.hashCode()));
+        assertThat(new ArrayList<String>(map.keySet()), is(new ArrayList<String>(entries.keySet())));
+        for (int i = 0; i < 100; i++) {
+            assertThat(map.get("key" + i), is(i));
+        }
+        assertThat(map.containsKey("key100"), is(false));
+        assertThat(map.get(null), is((Integer) null));
+    }
+
+    @Test
+    public void hashedCollectionsSurviveSerialization() throws Exception {
+        Map<String, Integer> entries = new LinkedHashMap<String, Integer>();
+        entries.put("a", 1);
+        entries.put("b", 2);
+        Map<String, Integer> map = roundTrip(ImmutableCollections.mapOf(String.class, entries));
+        Set<BigDecimal> set = roundTrip(ImmutableCollections.setOf(BigDecimal.class,
+                Collections.singletonList(BigDecimal.TEN)));
+
+        assertThat(map.get("b"), is(2));
+        assertThat(set.contains(BigDecimal.TEN), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullElements() {
+        ImmutableCollections.listOf(String.class, Arrays.asList("a", null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return (T) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+}
@@ -0,0 +1,115 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.common.StubConfigSource;
+import com.statemachinesystems.envy.sources.DelegatingConfigSource;
+import com.statemachinesystems.envy.sources.IndexedConfigSource;
+import com.statemachinesystems.envy.sources.SnapshotEnvironmentVariableConfigSource;
+import com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class IndexedConfigSourceTest {
+
+    private static class CountingConfigSource extends StubConfigSource {
+
+        private final List<Parameter> lookups = new ArrayList<Parameter>();
+
+        @Override
+        public String getValue(Parameter parameter) {
+            lookups.add(parameter);
+            return super.getValue(parameter);
+        }
+    }
+
+    private static ConfigSource properties(String... namesAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            properties.setProperty(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new SnapshotSystemPropertyConfigSource(properties);
+    }
+
+    private static ConfigSource environment(String... namesAndValues) {
+        Map<String, String> variables = new HashMap<String, String>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new SnapshotEnvironmentVariableConfigSource(variables);
+    }
+
+    @Test
+    public void choosesIndexedValuesInPreferenceOrder() {
+        ConfigSource configSource = new IndexedConfigSource(
+                properties("foo", "1"),
+                environment("FOO", "2", "BAR", "3"));
+
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("bar")), equalTo("3"));
+        assertThat(configSource.getValue(new Parameter("baz")), nullValue());
+    }
+
+    @Test
+    public void indexesOnlyNamesThatSourcesWouldLookUp() {
+        ConfigSource configSource = new IndexedConfigSource(
+                properties("FOO", "1", "bar_baz", "2"),
+                environment("foo", "3"));
+
+        assertThat(configSource.getValue(new Parameter("foo")), nullValue());
+        assertThat(configSource.getValue(new Parameter("bar.baz")), nullValue());
+    }
+
+    @Test
+    public void consultsUnindexedSourcesOnlyWhenTheyTakePrecedence() {
+        CountingConfigSource unindexed = new CountingConfigSource();
+        unindexed.add("foo", "2").add("baz", "4");
+        ConfigSource configSource = new IndexedConfigSource(
+                properties("foo", "1"),
+                unindexed,
+                environment("BAR", "3", "BAZ", "5"));
+
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("bar")), equalTo("3"));
+        assertThat(configSource.getValue(new Parameter("baz")), equalTo("4"));
+        assertThat(unindexed.lookups, equalTo(Arrays.asList(new Parameter("bar"), new Parameter("baz"))));
+    }
+
+    @Test
+    public void retrievesBatchesInPreferenceOrder() {
+        CountingConfigSource unindexed = new CountingConfigSource();
+        unindexed.add("foo", "2").add("baz", "4");
+        ConfigSource configSource = new IndexedConfigSource(
+                properties("foo", "1"),
+                unindexed,
+                environment("BAR", "3", "BAZ", "5"));
+
+        Map<Parameter, String> values = configSource.getValues(Arrays.asList(
+                new Parameter("foo"), new Parameter("bar"), new Parameter("baz"), new Parameter("qux")));
+
+        Map<Parameter, String> expected = new HashMap<Parameter, String>();
+        expected.put(new Parameter("foo"), "1");
+        expected.put(new Parameter("bar"), "3");
+        expected.put(new Parameter("baz"), "4");
+        assertThat(values, equalTo(expected));
+        assertThat(unindexed.lookups.size(), equalTo(3));
+    }
+
+    @Test
+    public void matchesDelegatingConfigSource() {
+        ConfigSource[] sources = {
+                properties("foo", "1", "bar.baz", "2"),
+                new StubConfigSource().add("bar.baz", "3").add("qux", "4"),
+                environment("FOO", "5", "QUX", "6", "QUUX", "7")
+        };
+        ConfigSource indexed = new IndexedConfigSource(sources);
+        ConfigSource delegating = new DelegatingConfigSource(sources);
+
+        for (String name : Arrays.asList("foo", "bar.baz", "qux", "quux", "missing")) {
+            assertThat(indexed.getValue(new Parameter(name)), equalTo(delegating.getValue(new Parameter(name))));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class ParameterTest {
@@ -221,4 +222,33 @@ public class ParameterTest {
         Parameter suffix = new Parameter("suffix");
         assertThat(prefix.join(suffix), equalTo(new Parameter("prefix.suffix")));
     }
+
+    @Test
+    public void joinsTwoParametersInBothFormats() {
+        Parameter joined = new Parameter("prefix").join(new Parameter("some_suffix"));
+        assertThat(joined.asEnvironmentVariableName(), equalTo("PREFIX_SOME_SUFFIX"));
+        assertThat(joined.asSystemPropertyName(), equalTo("prefix.some.suffix"));
+    }
+
+    @Test
+    public void internsEqualParametersAsSameInstance() {
+        Parameter parameter = new Parameter("interned.foo").intern();
+        assertThat(new Parameter("INTERNED_FOO").intern(), sameInstance(parameter));
+    }
+
+    @Test
+    public void allowsSupplementaryLettersInName() {
+        String name = "foo\uD801\uDC00";
+        assertThat(new Parameter(name).asSystemPropertyName(), equalTo(name.toLowerCase()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTrailingSeparatorInName() {
+        new Parameter("foo.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonAsciiDigitsInName() {
+        new Parameter("foo\u0661");
+    }
 }
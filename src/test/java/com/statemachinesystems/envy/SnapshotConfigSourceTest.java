@@ -0,0 +1,70 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.sources.SnapshotEnvironmentVariableConfigSource;
+import com.statemachinesystems.envy.sources.SnapshotSystemPropertyConfigSource;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SnapshotConfigSourceTest {
+
+    @Test
+    public void looksUpEnvironmentVariablesByUpperCaseName() {
+        Map<String, String> variables = new HashMap<String, String>();
+        variables.put("FOO_BAR", "1");
+        ConfigSource configSource = new SnapshotEnvironmentVariableConfigSource(variables);
+
+        assertThat(configSource.getValue(new Parameter("foo.bar")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("baz")), nullValue());
+    }
+
+    @Test
+    public void environmentVariableSnapshotIsUnaffectedByLaterChanges() {
+        Map<String, String> variables = new HashMap<String, String>();
+        variables.put("FOO", "1");
+        ConfigSource configSource = new SnapshotEnvironmentVariableConfigSource(variables);
+        variables.put("FOO", "2");
+
+        assertThat(configSource.getValue(new Parameter("FOO")), equalTo("1"));
+    }
+
+    @Test
+    public void looksUpSystemPropertiesByLowerCaseName() {
+        Properties properties = new Properties();
+        properties.setProperty("foo.bar", "1");
+        ConfigSource configSource = new SnapshotSystemPropertyConfigSource(properties);
+
+        assertThat(configSource.getValue(new Parameter("FOO_BAR")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("baz")), nullValue());
+    }
+
+    @Test
+    public void systemPropertySnapshotIsUnaffectedByLaterChanges() {
+        Properties properties = new Properties();
+        properties.setProperty("foo", "1");
+        ConfigSource configSource = new SnapshotSystemPropertyConfigSource(properties);
+        properties.setProperty("foo", "2");
+
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+    }
+
+    @Test
+    public void snapshotSourceCapturesSystemPropertiesWhenCreated() {
+        String name = "envy.snapshot.test." + System.nanoTime();
+        System.setProperty(name, "from property");
+        try {
+            ConfigSource configSource = Envy.snapshotConfigSource();
+            System.setProperty(name, "changed");
+
+            assertThat(configSource.getValue(new Parameter(name)), equalTo("from property"));
+        } finally {
+            System.clearProperty(name);
+        }
+    }
+}
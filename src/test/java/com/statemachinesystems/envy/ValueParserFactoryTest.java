@@ -3,13 +3,19 @@ package com.statemachinesystems.envy;
 import com.statemachinesystems.envy.common.MyClass;
 import com.statemachinesystems.envy.common.MyEnum;
 import com.statemachinesystems.envy.parsers.BooleanValueParser;
+import com.statemachinesystems.envy.parsers.UriValueParser;
 import org.junit.Test;
 
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ValueParserFactoryTest {
 
@@ -22,6 +28,51 @@ public class ValueParserFactoryTest {
         assertEquals(Boolean.TRUE, parser.parseValue("true"));
     }
 
+    @Test
+    public void cachesResolvedParsers() {
+        assertSame(valueParserFactory.getValueParser(MyEnum.class), valueParserFactory.getValueParser(MyEnum.class));
+        assertNull(valueParserFactory.getValueParser(Random.class));
+        assertNull(valueParserFactory.getValueParser(Random.class));
+    }
+
+    @Test
+    public void doesNotCacheParsedValuesByDefault() {
+        ValueParser<URI> parser = new ValueParserFactory(new UriValueParser()).getValueParser(URI.class);
+
+        assertNotSame(parser.parseValue("http://example.com/"), parser.parseValue("http://example.com/"));
+    }
+
+    @Test
+    public void sharesParsedValuesOfImmutableTypes() {
+        ValueParserFactory cachingFactory = new ValueParserFactory(
+                Arrays.<ValueParser<?>>asList(new UriValueParser(), new BooleanValueParser()), 16);
+
+        ValueParser<URI> parser = cachingFactory.getValueParser(URI.class);
+        URI uri = parser.parseValue("http://example.com/");
+        assertSame(uri, parser.parseValue(new String("http://example.com/")));
+        assertNotSame(uri, parser.parseValue("http://example.org/"));
+    }
+
+    @Test
+    public void doesNotCacheValuesOfOtherTypes() {
+        ValueParserFactory cachingFactory = new ValueParserFactory(
+                Arrays.<ValueParser<?>>asList(new BooleanValueParser()), 16);
+
+        ValueParser<boolean[]> parser = cachingFactory.getValueParser(boolean[].class);
+        assertNotSame(parser.parseValue("true"), parser.parseValue("true"));
+    }
+
+    @Test
+    public void boundsParseCacheSize() {
+        ParseCache parseCache = new ParseCache(2);
+        ValueParser<URI> parser = parseCache.wrap(new UriValueParser());
+
+        parser.parseValue("a");
+        parser.parseValue("b");
+        parser.parseValue("c");
+        assertEquals(2, parseCache.size());
+    }
+
     @Test
     public void createsParserForBoxedRegisteredType() {
         ValueParser<?> parser = valueParserFactory.getValueParser(boolean.class);
@@ -56,10 +107,10 @@ public class ValueParserFactoryTest {
     }
 
     @Test
-    public void createsParserForBoxedArrayOfRegisteredType() {
+    public void createsParserForPrimitiveArrayOfRegisteredType() {
         ValueParser<?> parser = valueParserFactory.getValueParser(boolean[].class);
-        Boolean[] expected = new Boolean[] { Boolean.TRUE, Boolean.TRUE };
-        assertArrayEquals(expected, (Boolean[]) parser.parseValue("true,true"));
+        assertEquals(boolean[].class, parser.getValueClass());
+        assertTrue(Arrays.equals(new boolean[] { true, false }, (boolean[]) parser.parseValue("true,false")));
     }
 
     @Test
@@ -0,0 +1,144 @@
+package com.statemachinesystems.envy;
+
+import com.statemachinesystems.envy.sources.ConfigChangeListener;
+import com.statemachinesystems.envy.sources.WatchingFileConfigSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class WatchingFileConfigSourceTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+    private WatchingFileConfigSource configSource;
+    private final BlockingQueue<Set<Parameter>> changes = new LinkedBlockingQueue<Set<Parameter>>();
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.getRoot().toPath().resolve("app.properties");
+        write(path, "foo=1", "bar=2", "baz=3");
+        configSource = new WatchingFileConfigSource(path);
+        configSource.addListener(new ConfigChangeListener() {
+            @Override
+            public void configChanged(Set<Parameter> changedParameters) {
+                changes.add(changedParameters);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        configSource.close();
+    }
+
+    private static void write(Path path, String... lines) throws IOException {
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Set<Parameter> parameters(String... names) {
+        Set<Parameter> parameters = new HashSet<Parameter>();
+        for (String name : asList(names)) {
+            parameters.add(new Parameter(name));
+        }
+        return parameters;
+    }
+
+    @Test
+    public void refreshReportsOnlyChangedParameters() throws IOException {
+        configSource.close();
+        write(path, "foo=1", "bar=changed", "qux=4");
+
+        assertThat(configSource.refresh(), equalTo(parameters("bar", "baz", "qux")));
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+        assertThat(configSource.getValue(new Parameter("bar")), equalTo("changed"));
+        assertThat(configSource.getValue(new Parameter("baz")), nullValue());
+        assertThat(configSource.getValue(new Parameter("qux")), equalTo("4"));
+    }
+
+    @Test
+    public void refreshReportsValueRewrittenInPlaceWithSameLength() throws IOException {
+        configSource.close();
+        write(path, "foo=1", "bar=9", "baz=3");
+
+        assertThat(configSource.refresh(), equalTo(parameters("bar")));
+        assertThat(configSource.getValue(new Parameter("bar")), equalTo("9"));
+    }
+
+    @Test
+    public void refreshAfterTruncatingRewriteReportsRemovedParameters() throws IOException {
+        configSource.close();
+        write(path, "foo=1");
+
+        assertThat(configSource.refresh(), equalTo(parameters("bar", "baz")));
+        assertThat(configSource.getValue(new Parameter("bar")), nullValue());
+    }
+
+    @Test
+    public void refreshWithoutChangesReportsNothing() {
+        assertThat(configSource.refresh(), equalTo(Collections.<Parameter>emptySet()));
+        assertThat(changes.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void keepsPreviousValuesWhenFileIsMissing() throws IOException {
+        configSource.close();
+        Files.delete(path);
+
+        assertThat(configSource.refresh(), equalTo(Collections.<Parameter>emptySet()));
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+    }
+
+    @Test
+    public void keepsPreviousValuesWhenFileIsMalformed() throws IOException {
+        configSource.close();
+        write(path, "foo=\\u00zz", "bar=2", "baz=3");
+
+        assertThat(configSource.refresh(), equalTo(Collections.<Parameter>emptySet()));
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("1"));
+    }
+
+    @Test
+    public void keepsWatchingAfterMalformedFile() throws IOException, InterruptedException {
+        Path replacement = folder.getRoot().toPath().resolve("app.properties.tmp");
+        write(replacement, "foo=\\u00zz", "bar=2", "baz=3");
+        Files.move(replacement, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        assertThat(changes.poll(2, TimeUnit.SECONDS), nullValue());
+
+        write(replacement, "foo=ok", "bar=2", "baz=3");
+        Files.move(replacement, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(changes.poll(30, TimeUnit.SECONDS), equalTo(parameters("foo")));
+        assertThat(configSource.getValue(new Parameter("foo")), equalTo("ok"));
+    }
+
+    @Test
+    public void notifiesListenersWhenFileIsReplaced() throws IOException, InterruptedException {
+        Path replacement = folder.getRoot().toPath().resolve("app.properties.tmp");
+        write(replacement, "foo=1", "bar=2", "baz=changed");
+        Files.move(replacement, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(changes.poll(30, TimeUnit.SECONDS), equalTo(parameters("baz")));
+        assertThat(configSource.getValue(new Parameter("baz")), equalTo("changed"));
+    }
+}
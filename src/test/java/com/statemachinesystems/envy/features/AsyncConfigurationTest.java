@@ -0,0 +1,129 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.AsyncConfigSource;
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
+import com.statemachinesystems.envy.MissingParameterValueException;
+import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.Parameter;
+import com.statemachinesystems.envy.common.FeatureTest;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class AsyncConfigurationTest extends FeatureTest {
+
+    public interface Credentials {
+        String username();
+        String password();
+    }
+
+    public interface Config {
+        int a();
+        String b();
+        Credentials credentials();
+
+        @Nullable
+        String c();
+    }
+
+    private ConfigSource completeConfigSource() {
+        return configSource()
+                .add("a", "1")
+                .add("b", "two")
+                .add("credentials.username", "scott")
+                .add("credentials.password", "tiger");
+    }
+
+    @Test
+    public void completesWithConfigurationObject() throws Exception {
+        Config config = Envy.configureAsync(Config.class, AsyncConfigSource.of(completeConfigSource())).get();
+
+        assertThat(config.a(), is(1));
+        assertThat(config.b(), is("two"));
+        assertThat(config.credentials().username(), is("scott"));
+        assertThat(config.c(), nullValue());
+    }
+
+    @Test
+    public void doesNotBlockUntilValuesArrive() throws Exception {
+        Map<Parameter, String> values = new HashMap<Parameter, String>();
+        values.put(new Parameter("a"), "1");
+        values.put(new Parameter("b"), "two");
+        values.put(new Parameter("credentials.username"), "scott");
+        values.put(new Parameter("credentials.password"), "tiger");
+
+        CompletableFuture<Map<Parameter, String>> pending = new CompletableFuture<Map<Parameter, String>>();
+        AsyncConfigSource configSource = new AsyncConfigSource() {
+            @Override
+            public CompletableFuture<String> getValueAsync(Parameter parameter) {
+                throw new AssertionError("Expected a batch lookup");
+            }
+
+            @Override
+            public CompletableFuture<Map<Parameter, String>> getValuesAsync(Collection<Parameter> parameters) {
+                assertThat(parameters.size(), is(5));
+                return pending;
+            }
+        };
+
+        CompletableFuture<Config> config = Envy.configureAsync(Config.class, configSource);
+        assertFalse(config.isDone());
+
+        pending.complete(values);
+        assertThat(config.get().credentials().password(), is("tiger"));
+    }
+
+    @Test
+    public void adaptsSynchronousSourceOnExecutor() throws Exception {
+        AsyncConfigSource configSource = AsyncConfigSource.of(completeConfigSource(), ForkJoinPool.commonPool());
+
+        assertThat(configSource.getValueAsync(new Parameter("b")).get(), is("two"));
+        assertThat(Envy.configureAsync(Config.class, configSource).get().a(), is(1));
+    }
+
+    @Test
+    public void combinesSingleLookupsByDefault() throws Exception {
+        ConfigSource delegate = completeConfigSource();
+        AsyncConfigSource configSource = parameter -> CompletableFuture.completedFuture(delegate.getValue(parameter));
+
+        assertThat(Envy.configureAsync(Config.class, configSource).get().b(), is("two"));
+    }
+
+    @Test
+    public void reportsAllFailuresTogether() throws Exception {
+        ConfigSource configSource = configSource()
+                .add("b", "two")
+                .add("credentials.username", "scott");
+        try {
+            Envy.configureAsync(Config.class, AsyncConfigSource.of(configSource)).get();
+            fail("Expected configuration to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(MissingParameterValueException.class));
+            assertThat(e.getCause().getMessage(), containsString("Config.a"));
+            assertThat(e.getCause().getSuppressed().length, is(1));
+        }
+    }
+
+    @Test
+    public void failsWhenSourceFails() {
+        AsyncConfigSource configSource = AsyncConfigSource.of(parameter -> {
+            throw new IllegalStateException("unavailable");
+        });
+        try {
+            Envy.configureAsync(Config.class, configSource).join();
+            fail("Expected configuration to fail");
+        } catch (CompletionException e) {
+            assertThat(e.getCause().getMessage(), is("unavailable"));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.Default;
+import com.statemachinesystems.envy.Separator;
+import com.statemachinesystems.envy.UnsupportedTypeException;
+import com.statemachinesystems.envy.common.FeatureTest;
+import com.statemachinesystems.envy.common.MyEnum;
+import com.statemachinesystems.envy.common.StubConfigSource;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CollectionsTest extends FeatureTest {
+
+    public interface Config {
+        List<String> hosts();
+        Collection<Integer> ports();
+        Set<String> allowedUsers();
+        Set<Long> accountIds();
+        Set<MyEnum> enums();
+        EnumSet<MyEnum> enumSet();
+
+        @Separator(",")
+        Map<String, Duration> timeouts();
+
+        EnumMap<MyEnum, Integer> weights();
+
+        @Default("")
+        List<String> empty();
+
+        Optional<Set<String>> optional();
+    }
+
+    public interface RawList {
+        @SuppressWarnings("rawtypes")
+        List values();
+    }
+
+    public interface NestedList {
+        List<List<String>> values();
+    }
+
+    @Override
+    protected StubConfigSource configSource() {
+        return super.configSource()
+                .add("hosts", "a,b,a")
+                .add("ports", "80,443")
+                .add("allowed.users", "carol,alice,bob,alice")
+                .add("account.ids", "30,10,20")
+                .add("enums", "BAZ,FOO")
+                .add("enum.set", "BAR")
+                .add("timeouts", "read = 5s, connect = 1s")
+                .add("weights", "FOO=1,BAZ=3")
+                .add("optional", "x");
+    }
+
+    @Test
+    public void parsesLists() {
+        Config config = envy().proxy(Config.class);
+        assertThat(config.hosts(), is(Arrays.asList("a", "b", "a")));
+        assertThat(config.ports(), is((Collection<Integer>) Arrays.asList(80, 443)));
+        assertThat(config.empty(), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void parsesSets() {
+        Config config = envy().proxy(Config.class);
+        assertThat(config.allowedUsers(), is((Set<String>) new HashSet<String>(Arrays.asList("alice", "bob", "carol"))));
+        assertThat(config.allowedUsers().contains("bob"), is(true));
+        assertThat(config.allowedUsers().contains("dave"), is(false));
+        assertThat(config.accountIds(), is((Set<Long>) new HashSet<Long>(Arrays.asList(10L, 20L, 30L))));
+        assertThat(config.accountIds().contains(20L), is(true));
+        assertThat(config.accountIds().contains(20), is(false));
+        assertThat(config.enums(), is((Set<MyEnum>) EnumSet.of(MyEnum.FOO, MyEnum.BAZ)));
+        assertThat(config.enumSet(), is(EnumSet.of(MyEnum.BAR)));
+        assertThat(config.optional(), is(Optional.of(Collections.singleton("x"))));
+    }
+
+    @Test
+    public void parsesMaps() {
+        Config config = envy().proxy(Config.class);
+        Map<String, Duration> timeouts = new LinkedHashMap<String, Duration>();
+        timeouts.put("read", Duration.ofSeconds(5));
+        timeouts.put("connect", Duration.ofSeconds(1));
+        assertThat(config.timeouts(), is(timeouts));
+        assertThat(new ArrayList<String>(config.timeouts().keySet()), is(Arrays.asList("read", "connect")));
+
+        EnumMap<MyEnum, Integer> weights = new EnumMap<MyEnum, Integer>(MyEnum.class);
+        weights.put(MyEnum.FOO, 1);
+        weights.put(MyEnum.BAZ, 3);
+        assertThat(config.weights(), is(weights));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void collectionsAreImmutable() {
+        envy().proxy(Config.class).hosts().add("c");
+    }
+
+    @Test
+    public void supportsGeneratedClasses() {
+        Config config = envy().generate(Config.class);
+        assertThat(config.allowedUsers().contains("alice"), is(true));
+        assertThat(config.timeouts().get("read"), is(Duration.ofSeconds(5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateMapKeys() {
+        envy(configSource().add("timeouts", "read=1s,read=2s")).proxy(Config.class);
+    }
+
+    @Test(expected = UnsupportedTypeException.class)
+    public void rejectsRawCollectionTypes() {
+        envy(configSource().add("values", "a")).proxy(RawList.class);
+    }
+
+    @Test(expected = UnsupportedTypeException.class)
+    public void rejectsNestedCollectionTypes() {
+        envy(configSource().add("values", "a")).proxy(NestedList.class);
+    }
+}
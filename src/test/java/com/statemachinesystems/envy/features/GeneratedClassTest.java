@@ -0,0 +1,191 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.ConfigClassGenerator;
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Default;
+import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.Sensitive;
+import com.statemachinesystems.envy.common.FeatureTest;
+import com.statemachinesystems.envy.common.MyEnum;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class GeneratedClassTest extends FeatureTest {
+
+    @SuppressWarnings("unused")
+    public interface Primitives {
+        boolean flag();
+        byte aByte();
+        char aChar();
+        short aShort();
+        int anInt();
+        long aLong();
+        float aFloat();
+        double aDouble();
+    }
+
+    @SuppressWarnings("unused")
+    public interface Objects {
+        String string();
+        Integer boxed();
+        int[] array();
+        MyEnum myEnum();
+        Duration duration();
+        Optional<String> optional();
+
+        @Nullable
+        String nullable();
+
+        @Default("7")
+        long defaulted();
+    }
+
+    public interface Credentials {
+        String username();
+
+        @Sensitive
+        String password();
+    }
+
+    public interface Outer {
+        Credentials credentials();
+    }
+
+    public interface Base {
+        Object value();
+    }
+
+    public interface Sub extends Base {
+        @Override
+        String value();
+    }
+
+    interface NonPublic {
+        int foo();
+    }
+
+    @Test
+    public void generatesClassWithPrimitiveGetters() {
+        ConfigSource configSource = configSource()
+                .add("flag", "true")
+                .add("a.byte", "1")
+                .add("a.char", "c")
+                .add("a.short", "2")
+                .add("an.int", "3")
+                .add("a.long", "4")
+                .add("a.float", "5.5")
+                .add("a.double", "6.5");
+
+        Primitives config = envy(configSource).generate(Primitives.class);
+
+        assertFalse(Proxy.isProxyClass(config.getClass()));
+        assertThat(config.flag(), is(true));
+        assertThat(config.aByte(), is((byte) 1));
+        assertThat(config.aChar(), is('c'));
+        assertThat(config.aShort(), is((short) 2));
+        assertThat(config.anInt(), is(3));
+        assertThat(config.aLong(), is(4L));
+        assertThat(config.aFloat(), is(5.5f));
+        assertThat(config.aDouble(), is(6.5));
+    }
+
+    @Test
+    public void generatesClassWithObjectGetters() {
+        ConfigSource configSource = configSource()
+                .add("string", "foo")
+                .add("boxed", "1")
+                .add("array", "1,2,3")
+                .add("my.enum", "BAR")
+                .add("duration", "5s")
+                .add("optional", "bar");
+
+        Objects config = envy(configSource).generate(Objects.class);
+
+        assertThat(config.string(), is("foo"));
+        assertThat(config.boxed(), is(1));
+        assertArrayEquals(new int[] { 1, 2, 3 }, config.array());
+        assertThat(config.myEnum(), is(MyEnum.BAR));
+        assertThat(config.duration(), is(Duration.ofSeconds(5)));
+        assertThat(config.optional(), is(Optional.of("bar")));
+        assertThat(config.nullable(), nullValue());
+        assertThat(config.defaulted(), is(7L));
+    }
+
+    @Test
+    public void generatesNestedClasses() {
+        ConfigSource configSource = configSource()
+                .add("credentials.username", "scott")
+                .add("credentials.password", "tiger");
+
+        Outer config = envy(configSource).generate(Outer.class);
+
+        assertFalse(Proxy.isProxyClass(config.credentials().getClass()));
+        assertThat(config.credentials().username(), is("scott"));
+        assertThat(config.credentials().password(), is("tiger"));
+    }
+
+    @Test
+    public void implementsCovariantOverrides() {
+        Sub config = envy(configSource().add("value", "foo")).generate(Sub.class);
+
+        assertThat(config.value(), is("foo"));
+        assertThat(((Base) config).value(), is((Object) "foo"));
+    }
+
+    @Test
+    public void formatsAndMasksValuesLikeProxies() {
+        ConfigSource configSource = configSource()
+                .add("username", "scott")
+                .add("password", "tiger");
+
+        Credentials generated = envy(configSource).generate(Credentials.class);
+        Credentials proxied = envy(configSource).proxy(Credentials.class);
+
+        assertThat(generated.toString(), is(proxied.toString()));
+        assertThat(generated.toString(), not(containsString("tiger")));
+    }
+
+    @Test
+    public void equalsAndHashCodeCompareValues() {
+        Credentials config1 = envy(configSource().add("username", "a").add("password", "b")).generate(Credentials.class);
+        Credentials config2 = envy(configSource().add("username", "a").add("password", "b")).generate(Credentials.class);
+        Credentials config3 = envy(configSource().add("username", "a").add("password", "c")).generate(Credentials.class);
+
+        assertEquals(config1, config2);
+        assertThat(config1.hashCode(), is(config2.hashCode()));
+        assertNotEquals(config1, config3);
+        assertNotEquals(config1, null);
+    }
+
+    @Test
+    public void generatedInstancesAreSerializable() throws IOException, ClassNotFoundException {
+        ConfigSource configSource = configSource()
+                .add("credentials.username", "scott")
+                .add("credentials.password", "tiger");
+        Outer config = envy(configSource).generate(Outer.class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ObjectOutputStream(out).writeObject(config);
+
+        Object deserialized = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())).readObject();
+        assertThat(deserialized, instanceOf(Outer.class));
+        assertThat(deserialized, is((Object) config));
+        assertThat(((Outer) deserialized).credentials().password(), is("tiger"));
+    }
+
+    @Test
+    public void fallsBackToProxyForNonPublicInterfaces() {
+        NonPublic config = envy(configSource().add("foo", "1")).generate(NonPublic.class);
+
+        assertFalse(ConfigClassGenerator.isSupported(NonPublic.class));
+        assertTrue(Proxy.isProxyClass(config.getClass()));
+        assertThat(config.foo(), is(1));
+    }
+}
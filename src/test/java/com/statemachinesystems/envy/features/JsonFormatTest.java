@@ -0,0 +1,89 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
+import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.Sensitive;
+import com.statemachinesystems.envy.common.FeatureTest;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JsonFormatTest extends FeatureTest {
+
+    @SuppressWarnings("unused")
+    public interface Credentials {
+        String username();
+
+        @Sensitive
+        String password();
+    }
+
+    @SuppressWarnings("unused")
+    public interface Config {
+        int count();
+        boolean enabled();
+        String name();
+        int[] ids();
+        List<String> tags();
+        OptionalInt retries();
+        Optional<Double> ratio();
+        Credentials credentials();
+
+        @Nullable
+        String missing();
+    }
+
+    private final ConfigSource configSource = configSource()
+            .add("count", "3")
+            .add("enabled", "true")
+            .add("name", "say \"hi\"\\\n")
+            .add("ids", "1,2")
+            .add("tags", "a,b")
+            .add("credentials.username", "scott")
+            .add("credentials.password", "tiger");
+
+    private static final String EXPECTED =
+            "{\"count\":3,\"credentials\":{\"password\":\"******\",\"username\":\"scott\"},\"enabled\":true," +
+            "\"ids\":[1,2],\"missing\":null,\"name\":\"say \\\"hi\\\"\\\\\\n\",\"ratio\":null,\"retries\":null," +
+            "\"tags\":[\"a\",\"b\"]}";
+
+    @Test
+    public void formatsProxyAsJson() {
+        Config config = envy(configSource).proxy(Config.class);
+        assertThat(Envy.formatJson(config), equalTo(EXPECTED));
+    }
+
+    @Test
+    public void formatsGeneratedClassAsJson() {
+        Config config = envy(configSource).generate(Config.class);
+        assertThat(Envy.formatJson(config), equalTo(EXPECTED));
+    }
+
+    @Test
+    public void reusesFormattedJson() {
+        Config config = envy(configSource).proxy(Config.class);
+        assertThat(Envy.formatJson(config), sameInstance(Envy.formatJson(config)));
+    }
+
+    @Test
+    public void formatsJsonToAppendable() throws IOException {
+        Config config = envy(configSource).proxy(Config.class);
+        StringWriter writer = new StringWriter();
+        Envy.formatJsonTo(config, writer);
+        assertThat(writer.toString(), equalTo(EXPECTED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsObjectNotCreatedByEnvy() {
+        Envy.formatJson("not a config object");
+    }
+}
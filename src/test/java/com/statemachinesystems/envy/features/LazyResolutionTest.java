@@ -0,0 +1,178 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.*;
+import com.statemachinesystems.envy.common.FeatureTest;
+import com.statemachinesystems.envy.common.StubConfigSource;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class LazyResolutionTest extends FeatureTest {
+
+    public static class Counted implements Serializable {
+        private final String value;
+
+        public Counted(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Counted && value.equals(((Counted) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    private static final AtomicInteger parseCount = new AtomicInteger();
+
+    private static final ValueParser<Counted> COUNTING_PARSER = new ValueParser<Counted>() {
+        @Override
+        public Counted parseValue(String value) {
+            parseCount.incrementAndGet();
+            return new Counted(value);
+        }
+
+        @Override
+        public Class<Counted> getValueClass() {
+            return Counted.class;
+        }
+    };
+
+    public interface Credentials {
+        String username();
+    }
+
+    public interface Config {
+        Counted counted();
+        int number();
+        Optional<Counted> optional();
+
+        @Nullable
+        Credentials credentials();
+    }
+
+    private ValueParserFactory countingValueParserFactory() {
+        ValueParserFactory defaults = valueParserFactory();
+        return new ValueParserFactory(COUNTING_PARSER, defaults.getValueParser(Integer.class),
+                defaults.getValueParser(String.class));
+    }
+
+    private Config config(StubConfigSource configSource, Resolution resolution) {
+        parseCount.set(0);
+        return envy(countingValueParserFactory(), configSource).proxy(Config.class, resolution);
+    }
+
+    @Test
+    public void lazyResolutionParsesOnFirstAccessOnly() {
+        Config config = config(configSource().add("counted", "foo").add("number", "1"), Resolution.LAZY);
+
+        assertThat(parseCount.get(), is(0));
+        assertThat(config.counted().toString(), is("foo"));
+        assertThat(config.counted().toString(), is("foo"));
+        assertThat(parseCount.get(), is(1));
+    }
+
+    @Test
+    public void lazyResolutionReportsMissingValuesOnAccess() {
+        Config config = config(configSource().add("counted", "foo"), Resolution.LAZY);
+
+        assertThat(config.counted().toString(), is("foo"));
+        try {
+            config.number();
+            fail("Expected missing value");
+        } catch (MissingParameterValueException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void lazyResolutionReturnsNullForMissingOptionalNestedConfig() {
+        Config config = config(configSource().add("counted", "foo").add("number", "1"), Resolution.LAZY);
+
+        assertThat(config.credentials(), nullValue());
+    }
+
+    @Test
+    public void lazyResolutionResolvesNestedConfig() {
+        Config config = config(configSource().add("number", "1").add("credentials.username", "scott"),
+                Resolution.LAZY);
+
+        assertThat(config.credentials().username(), is("scott"));
+    }
+
+    @Test(expected = MissingParameterValueException.class)
+    public void deferredParsingReportsMissingValuesImmediately() {
+        config(configSource().add("counted", "foo"), Resolution.DEFERRED_PARSING);
+    }
+
+    @Test
+    public void deferredParsingDefersParsing() {
+        Config config = config(configSource().add("counted", "foo").add("number", "1").add("optional", "bar"),
+                Resolution.DEFERRED_PARSING);
+
+        assertThat(parseCount.get(), is(0));
+        assertThat(config.optional().get().toString(), is("bar"));
+        assertThat(parseCount.get(), is(1));
+    }
+
+    @Test
+    public void deferredParsingReportsInvalidValuesOnAccess() {
+        Config config = config(configSource().add("counted", "foo").add("number", "one"),
+                Resolution.DEFERRED_PARSING);
+
+        try {
+            config.number();
+            fail("Expected parse failure");
+        } catch (NumberFormatException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void lazyAndEagerObjectsAreEqualInBothDirections() {
+        StubConfigSource configSource = configSource().add("counted", "foo").add("number", "1");
+        Config lazy = config(configSource, Resolution.LAZY);
+        Config eager = config(configSource, Resolution.EAGER);
+
+        assertEquals(eager, lazy);
+        assertEquals(lazy, eager);
+        assertThat(eager.hashCode(), is(lazy.hashCode()));
+        assertThat(new HashSet<Config>(Arrays.asList(lazy, eager)).size(), is(1));
+    }
+
+    @Test
+    public void lazyObjectsBehaveLikeEagerObjects() throws IOException, ClassNotFoundException {
+        StubConfigSource configSource = configSource().add("counted", "foo").add("number", "1");
+        Config lazy1 = config(configSource, Resolution.LAZY);
+        Config lazy2 = config(configSource, Resolution.LAZY);
+        Config eager = config(configSource, Resolution.EAGER);
+
+        assertThat(lazy1.toString(), is(eager.toString()));
+        assertThat(lazy1.number(), is(1));
+        assertEquals(lazy1, lazy2);
+        assertThat(lazy1.hashCode(), is(lazy2.hashCode()));
+
+        Credentials unresolved = envy(configSource().add("username", "scott"))
+                .proxy(Credentials.class, Resolution.LAZY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ObjectOutputStream(out).writeObject(unresolved);
+        Object deserialized = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())).readObject();
+        assertThat(((Credentials) deserialized).username(), is("scott"));
+    }
+}
@@ -3,12 +3,16 @@ package com.statemachinesystems.envy.features;
 import com.statemachinesystems.envy.ConfigSource;
 import com.statemachinesystems.envy.Default;
 import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.OptionalWrapper;
 import com.statemachinesystems.envy.UnsupportedTypeException;
 import com.statemachinesystems.envy.common.FeatureTest;
 import org.junit.Test;
 import scala.Option;
 
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertArrayEquals;
@@ -92,6 +96,37 @@ public class OptionalWrapperTest extends FeatureTest {
         <T> Optional<T[]> foo();
     }
 
+    interface PrimitiveOptionals {
+        OptionalInt anInt();
+
+        @Default("42")
+        OptionalLong aLong();
+
+        OptionalDouble aDouble();
+    }
+
+    public static final class Maybe<T> {
+        private final T value;
+
+        private Maybe(T value) {
+            this.value = value;
+        }
+
+        public static <T> Maybe<T> of(T value) {
+            return new Maybe<T>(value);
+        }
+
+        public static <T> Maybe<T> other(T value, T otherValue) {
+            return new Maybe<T>(value);
+        }
+    }
+
+    interface CustomOptional {
+        Maybe<Integer> foo();
+
+        Maybe<String> bar();
+    }
+
     @Test
     public void wrapsProvidedValueWithJava8Optional() {
         Java8Simple java8 = envy(configSource().add("foo", "bar")).proxy(Java8Simple.class);
@@ -225,4 +260,34 @@ public class OptionalWrapperTest extends FeatureTest {
         assertThat(config.foo().get().bar(), equalTo("x"));
         assertThat(config.foo().get().baz(), equalTo("default baz"));
     }
+
+    @Test
+    public void wrapsProvidedValuesWithPrimitiveOptionals() {
+        ConfigSource configSource = configSource().add("an.int", "1").add("a.long", "2").add("a.double", "3.5");
+        PrimitiveOptionals config = envy(configSource).proxy(PrimitiveOptionals.class);
+        assertThat(config.anInt(), equalTo(OptionalInt.of(1)));
+        assertThat(config.aLong(), equalTo(OptionalLong.of(2)));
+        assertThat(config.aDouble(), equalTo(OptionalDouble.of(3.5)));
+    }
+
+    @Test
+    public void wrapsMissingAndDefaultValuesWithPrimitiveOptionals() {
+        PrimitiveOptionals config = envy().proxy(PrimitiveOptionals.class);
+        assertThat(config.anInt(), equalTo(OptionalInt.empty()));
+        assertThat(config.aLong(), equalTo(OptionalLong.of(42)));
+        assertThat(config.aDouble(), equalTo(OptionalDouble.empty()));
+    }
+
+    @Test
+    public void wrapsValuesWithRegisteredOptionalType() {
+        OptionalWrapper.register(Maybe.class, "of");
+        CustomOptional config = envy(configSource().add("foo", "1")).proxy(CustomOptional.class);
+        assertThat(config.foo().value, equalTo(1));
+        assertThat(config.bar().value, equalTo(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRegisteredOptionalTypeWithoutSingleArgumentFactoryMethod() {
+        OptionalWrapper.register(Maybe.class, "other");
+    }
 }
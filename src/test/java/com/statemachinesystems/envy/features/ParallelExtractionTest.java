@@ -0,0 +1,115 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
+import com.statemachinesystems.envy.MissingParameterValueException;
+import com.statemachinesystems.envy.Nullable;
+import com.statemachinesystems.envy.Parameter;
+import com.statemachinesystems.envy.common.FeatureTest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class ParallelExtractionTest extends FeatureTest {
+
+    public interface Credentials {
+        String username();
+        String password();
+    }
+
+    public interface Config {
+        int a();
+        int b();
+        String c();
+        Credentials credentials();
+
+        @Nullable
+        Credentials backupCredentials();
+
+        Optional<Credentials> optionalCredentials();
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ConfigSource completeConfigSource() {
+        return configSource()
+                .add("a", "1")
+                .add("b", "2")
+                .add("c", "three")
+                .add("credentials.username", "scott")
+                .add("credentials.password", "tiger");
+    }
+
+    @Test
+    public void extractsValuesInParallel() {
+        Config config = envy(completeConfigSource()).proxy(Config.class, executor);
+
+        assertThat(config.a(), is(1));
+        assertThat(config.b(), is(2));
+        assertThat(config.c(), is("three"));
+        assertThat(config.credentials().username(), is("scott"));
+        assertThat(config.backupCredentials(), nullValue());
+        assertThat(config.optionalCredentials(), is(Optional.<Credentials>empty()));
+    }
+
+    @Test
+    public void producesSameResultAsSerialExtraction() {
+        Config parallel = envy(completeConfigSource()).proxy(Config.class, executor);
+        Config serial = envy(completeConfigSource()).proxy(Config.class);
+
+        assertThat(parallel.toString(), is(serial.toString()));
+    }
+
+    @Test
+    public void reportsAllFailuresTogether() {
+        ConfigSource configSource = configSource()
+                .add("b", "not a number")
+                .add("credentials.username", "scott");
+        try {
+            envy(configSource).proxy(Config.class, executor);
+            fail("Expected extraction to fail");
+        } catch (MissingParameterValueException e) {
+            assertThat(e.getMessage(), containsString("Config.a"));
+            assertThat(e.getSuppressed().length, is(3));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void looksUpValuesConcurrently() {
+        CountDownLatch latch = new CountDownLatch(2);
+        ConfigSource configSource = new ConfigSource() {
+            private final ConfigSource delegate = completeConfigSource();
+
+            @Override
+            public String getValue(Parameter parameter) {
+                if (parameter.equals(new Parameter("a")) || parameter.equals(new Parameter("b"))) {
+                    latch.countDown();
+                    try {
+                        assertTrue(latch.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return delegate.getValue(parameter);
+            }
+        };
+
+        Config config = envy(configSource).proxy(Config.class, Envy.parallelExecutor());
+
+        assertThat(config.a(), is(1));
+        assertThat(config.b(), is(2));
+    }
+}
@@ -0,0 +1,158 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.MissingParameterValueException;
+import com.statemachinesystems.envy.Parameter;
+import com.statemachinesystems.envy.ReloadableConfig;
+import com.statemachinesystems.envy.common.FeatureTest;
+import com.statemachinesystems.envy.common.StubConfigSource;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class ReloadableConfigTest extends FeatureTest {
+
+    public interface RateLimits {
+        int requestsPerSecond();
+        String tier();
+    }
+
+    @Test
+    public void reloadPublishesNewValues() {
+        StubConfigSource configSource = configSource()
+                .add("requests.per.second", "10")
+                .add("tier", "free");
+        ReloadableConfig<RateLimits> reloadable = envy(configSource).reloadable(RateLimits.class);
+        RateLimits config = reloadable.get();
+
+        assertThat(config.requestsPerSecond(), is(10));
+
+        configSource.add("requests.per.second", "20").add("tier", "paid");
+        assertThat(config.requestsPerSecond(), is(10));
+
+        reloadable.reload();
+        assertThat(config.requestsPerSecond(), is(20));
+        assertThat(config.tier(), is("paid"));
+        assertSame(config, reloadable.get());
+    }
+
+    @Test
+    public void failedReloadKeepsPreviousValues() {
+        StubConfigSource configSource = configSource()
+                .add("requests.per.second", "10")
+                .add("tier", "free");
+        ReloadableConfig<RateLimits> reloadable = envy(configSource).reloadable(RateLimits.class);
+
+        configSource.add("requests.per.second", "not a number").add("tier", "paid");
+        try {
+            reloadable.reload();
+            fail("Expected reload to fail");
+        } catch (NumberFormatException expected) {
+            // expected
+        }
+
+        assertThat(reloadable.get().requestsPerSecond(), is(10));
+        assertThat(reloadable.get().tier(), is("free"));
+    }
+
+    @Test
+    public void concurrentReloadsPublishTheLatestValues() throws InterruptedException {
+        final Parameter requestsPerSecond = new Parameter("requests.per.second");
+        final Map<Parameter, String> values = new ConcurrentHashMap<Parameter, String>();
+        values.put(requestsPerSecond, "10");
+        values.put(new Parameter("tier"), "free");
+        final AtomicBoolean blockNextRead = new AtomicBoolean();
+        final CountDownLatch readStale = new CountDownLatch(1);
+        final CountDownLatch releaseStale = new CountDownLatch(1);
+        ConfigSource configSource = new ConfigSource() {
+            @Override
+            public String getValue(Parameter parameter) {
+                String value = values.get(parameter);
+                if (parameter.equals(requestsPerSecond) && blockNextRead.compareAndSet(true, false)) {
+                    readStale.countDown();
+                    try {
+                        releaseStale.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return value;
+            }
+        };
+        final ReloadableConfig<RateLimits> reloadable = envy(configSource).reloadable(RateLimits.class);
+        Runnable reload = new Runnable() {
+            @Override
+            public void run() {
+                reloadable.reload();
+            }
+        };
+
+        blockNextRead.set(true);
+        Thread staleReload = new Thread(reload);
+        staleReload.start();
+        assertTrue(readStale.await(30, TimeUnit.SECONDS));
+
+        values.put(requestsPerSecond, "20");
+        Thread latestReload = new Thread(reload);
+        latestReload.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (latestReload.isAlive() && latestReload.getState() != Thread.State.BLOCKED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        releaseStale.countDown();
+        staleReload.join();
+        latestReload.join();
+
+        assertThat(reloadable.get().requestsPerSecond(), is(20));
+    }
+
+    @Test(expected = MissingParameterValueException.class)
+    public void initialLoadFailsForMissingValues() {
+        envy(configSource().add("tier", "free")).reloadable(RateLimits.class);
+    }
+
+    @Test
+    public void equalsAndToStringReflectCurrentValues() {
+        StubConfigSource configSource = configSource()
+                .add("requests.per.second", "10")
+                .add("tier", "free");
+        ReloadableConfig<RateLimits> reloadable = envy(configSource).reloadable(RateLimits.class);
+        RateLimits frozen = envy(configSource).proxy(RateLimits.class);
+
+        assertEquals(frozen, reloadable.get());
+        assertThat(reloadable.get().toString(), is(frozen.toString()));
+
+        configSource.add("tier", "paid");
+        reloadable.reload();
+
+        assertNotEquals(frozen, reloadable.get());
+        assertThat(reloadable.get().toString(), is("{requestsPerSecond=10, tier=paid}"));
+    }
+
+    @Test
+    public void serializesCurrentSnapshot() throws IOException, ClassNotFoundException {
+        StubConfigSource configSource = configSource()
+                .add("requests.per.second", "10")
+                .add("tier", "free");
+        ReloadableConfig<RateLimits> reloadable = envy(configSource).reloadable(RateLimits.class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ObjectOutputStream(out).writeObject(reloadable.get());
+        configSource.add("tier", "paid");
+        reloadable.reload();
+
+        RateLimits deserialized = (RateLimits) new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))
+                .readObject();
+        assertThat(deserialized.tier(), is("free"));
+    }
+}
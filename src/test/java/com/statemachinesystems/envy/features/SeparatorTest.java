@@ -0,0 +1,96 @@
+package com.statemachinesystems.envy.features;
+
+import com.statemachinesystems.envy.Default;
+import com.statemachinesystems.envy.Separator;
+import com.statemachinesystems.envy.common.FeatureTest;
+import com.statemachinesystems.envy.common.StubConfigSource;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class SeparatorTest extends FeatureTest {
+
+    interface Config {
+        @Separator(",")
+        String[] bootstrapServers();
+
+        @Separator(";")
+        String[] descriptions();
+
+        @Separator(value = ",", trim = false, quoting = false)
+        String[] untrimmed();
+
+        @Separator(" ")
+        int[] ports();
+
+        @Separator(",")
+        @Default(" 10.0.0.0/8 , 192.168.0.0/16 ")
+        String[] cidrRanges();
+
+        @Separator(";")
+        Optional<String[]> optional();
+
+        String[] plain();
+    }
+
+    interface Invalid {
+        @Separator(",")
+        String notAnArray();
+    }
+
+    @Override
+    protected StubConfigSource configSource() {
+        return super.configSource()
+                .add("bootstrap.servers", " kafka-1:9092, kafka-2:9092 ,kafka-3:9092 ")
+                .add("descriptions", "\"first; with a semicolon\"; \"  padded  \" ; escaped\\; too")
+                .add("untrimmed", " a , b ")
+                .add("ports", "8080 8081  8082")
+                .add("optional", "x;y")
+                .add("plain", " a , b ");
+    }
+
+    @Test
+    public void trimsElements() {
+        assertArrayEquals(new String[] { "kafka-1:9092", "kafka-2:9092", "kafka-3:9092" },
+                envy().proxy(Config.class).bootstrapServers());
+    }
+
+    @Test
+    public void supportsQuotingAndEscaping() {
+        assertArrayEquals(new String[] { "first; with a semicolon", "  padded  ", "escaped; too" },
+                envy().proxy(Config.class).descriptions());
+    }
+
+    @Test
+    public void canDisableTrimmingAndQuoting() {
+        assertArrayEquals(new String[] { " a ", " b " }, envy().proxy(Config.class).untrimmed());
+    }
+
+    @Test
+    public void appliesToPrimitiveArrays() {
+        assertArrayEquals(new int[] { 8080, 8081, 8082 }, envy().proxy(Config.class).ports());
+    }
+
+    @Test
+    public void appliesToOptionalArrays() {
+        assertArrayEquals(new String[] { "x", "y" }, envy().proxy(Config.class).optional().get());
+    }
+
+    @Test
+    public void appliesToDefaultValues() {
+        assertArrayEquals(new String[] { "10.0.0.0/8", "192.168.0.0/16" },
+                envy().proxy(Config.class).cidrRanges());
+    }
+
+    @Test
+    public void leavesUnannotatedArraysUnchanged() {
+        assertArrayEquals(new String[] { " a ", " b " }, envy().proxy(Config.class).plain());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSeparatorOnNonArrayValue() {
+        envy().proxy(Invalid.class);
+    }
+}
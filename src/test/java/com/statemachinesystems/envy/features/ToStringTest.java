@@ -1,9 +1,12 @@
 package com.statemachinesystems.envy.features;
 
 import com.statemachinesystems.envy.ConfigSource;
+import com.statemachinesystems.envy.Envy;
 import com.statemachinesystems.envy.common.FeatureTest;
 import org.junit.Test;
 
+import java.io.IOException;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
 
@@ -33,4 +36,25 @@ public class ToStringTest extends FeatureTest {
             assertThat(config.toString(), containsString(part));
         }
     }
+
+    @Test
+    public void toStringMethodReusesFormattedValues() {
+        Config config = envy(configSource().add("foo", "1").add("bar", "bar").add("baz", "1,2,3")).proxy(Config.class);
+
+        assertThat(config.toString(), sameInstance(config.toString()));
+    }
+
+    @Test
+    public void formatsToAppendable() throws IOException {
+        ConfigSource configSource = configSource()
+                .add("foo", "1")
+                .add("bar", "bar")
+                .add("baz", "1,2,3");
+        Config config = envy(configSource).proxy(Config.class);
+
+        StringBuilder buf = new StringBuilder();
+        Envy.formatTo(config, buf);
+
+        assertThat(buf.toString(), equalTo(config.toString()));
+    }
 }
@@ -38,6 +38,18 @@ public class ArrayValueParserTest {
         }));
     }
 
+    @Test
+    public void parsesMultiCharacterLiteralSeparators() {
+        ArrayValueParser<String> parser = new ArrayValueParser<String>(new StringValueParser(), "::");
+        assertThat(parser.parseValue("a::b:c::"), is(new String[] {"a", "b:c", ""}));
+    }
+
+    @Test
+    public void parsesRegexSeparators() {
+        ArrayValueParser<String> parser = new ArrayValueParser<String>(new StringValueParser(), "\\s*\\|\\s*");
+        assertThat(parser.parseValue("a | b|c"), is(new String[] {"a", "b", "c"}));
+    }
+
     @Test
     public void hasValueClassOfArrayType() {
         String[] emptyStringArray = new String[] {};
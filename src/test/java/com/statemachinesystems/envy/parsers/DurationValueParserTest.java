@@ -7,6 +7,7 @@ import java.time.Duration;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class DurationValueParserTest {
 
@@ -118,4 +119,92 @@ public class DurationValueParserTest {
     public void rejectsUnknownUnit() {
         parser.parseValue("18xx");
     }
+
+    @Test
+    public void parsesCompoundDurations() {
+        String[] variants = {"1h30m", "1h 30m", "1 hour 30 minutes", "90m", "1h29m60s"};
+        Duration expected = Duration.ofMinutes(90);
+        for (String value : variants) {
+            assertThat(parser.parseValue(value), is(expected));
+        }
+    }
+
+    @Test
+    public void parsesNegativeCompoundDurations() {
+        assertThat(parser.parseValue("-1m30s"), is(Duration.ofSeconds(-90)));
+    }
+
+    @Test
+    public void parsesFractionalDurations() {
+        assertThat(parser.parseValue("1.5s"), is(Duration.ofMillis(1500)));
+        assertThat(parser.parseValue("0.25 days"), is(Duration.ofHours(6)));
+        assertThat(parser.parseValue("-2.5"), is(Duration.ofNanos(-2_500_000)));
+        assertThat(parser.parseValue("1.000000001s"), is(Duration.ofNanos(1_000_000_001)));
+        assertThat(parser.parseValue("3.0ns"), is(Duration.ofNanos(3)));
+    }
+
+    @Test
+    public void parsesUnicodeDigitsAndWhitespace() {
+        assertThat(parser.parseValue("\u0661\u0662\u00A0s"), is(Duration.ofSeconds(12)));
+    }
+
+    @Test
+    public void rejectsFractionsOfNanoseconds() {
+        try {
+            parser.parseValue("1.5ns");
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid duration format: 1.5ns"));
+        }
+    }
+
+    @Test
+    public void rejectsCompoundDurationsWithoutUnits() {
+        for (String value : new String[] {"1h30", "30 1h", "1h30m ", "1h,30m", "1.s", ".5s"}) {
+            try {
+                parser.parseValue(value);
+                fail("Expected parsing to fail: " + value);
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), is("Invalid duration format: " + value));
+            }
+        }
+    }
+
+    @Test
+    public void reportsOutOfRangeAmount() {
+        String[][] cases = {
+                {"99999999999999999999ms", "99999999999999999999"},
+                {"-99999999999999999999 ms", "-99999999999999999999"},
+                {"+99999999999999999999", "+99999999999999999999"},
+                {"1s 99999999999999999999ms", "99999999999999999999"}
+        };
+        for (String[] c : cases) {
+            try {
+                parser.parseValue(c[0]);
+                fail("Expected parsing to fail: " + c[0]);
+            } catch (NumberFormatException e) {
+                assertThat(e.getMessage(), is("For input string: \"" + c[1] + "\""));
+            }
+        }
+    }
+
+    @Test
+    public void reportsUnknownUnit() {
+        try {
+            parser.parseValue("18 xx");
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid duration unit: xx"));
+        }
+    }
+
+    @Test
+    public void reportsInvalidFormatBeforeUnknownUnit() {
+        try {
+            parser.parseValue("18xx ");
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid duration format: 18xx "));
+        }
+    }
 }
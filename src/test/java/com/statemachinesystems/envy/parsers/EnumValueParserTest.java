@@ -1,5 +1,6 @@
 package com.statemachinesystems.envy.parsers;
 
+import com.statemachinesystems.envy.Name;
 import com.statemachinesystems.envy.common.MyEnum;
 import org.junit.Test;
 
@@ -9,6 +10,13 @@ import static org.junit.Assert.assertEquals;
 
 public class EnumValueParserTest {
 
+    enum Level {
+        @Name("warn") WARNING,
+        ERROR,
+        Error,
+        INFO
+    }
+
     private static final EnumValueParser<MyEnum> parser =
             new EnumValueParser<MyEnum>(MyEnum.class);
 
@@ -28,4 +36,30 @@ public class EnumValueParserTest {
     public void hasValueClassOfSameEnum() {
         assertEquals(MyEnum.class, parser.getValueClass());
     }
+
+    @Test
+    public void parsesAliases() {
+        EnumValueParser<Level> levelParser = new EnumValueParser<Level>(Level.class);
+        assertThat(levelParser.parseValue("warn"), is(Level.WARNING));
+        assertThat(levelParser.parseValue("WARNING"), is(Level.WARNING));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void isCaseSensitiveByDefault() {
+        new EnumValueParser<Level>(Level.class).parseValue("info");
+    }
+
+    @Test
+    public void canIgnoreCase() {
+        EnumValueParser<Level> levelParser = new EnumValueParser<Level>(Level.class, true);
+        assertThat(levelParser.parseValue("info"), is(Level.INFO));
+        assertThat(levelParser.parseValue("Warn"), is(Level.WARNING));
+        assertThat(levelParser.parseValue("Error"), is(Level.Error));
+        assertThat(levelParser.parseValue("ERROR"), is(Level.ERROR));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAmbiguousCaseInsensitiveMatches() {
+        new EnumValueParser<Level>(Level.class, true).parseValue("error");
+    }
 }
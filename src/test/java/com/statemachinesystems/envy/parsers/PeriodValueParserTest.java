@@ -6,6 +6,7 @@ import java.time.Period;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class PeriodValueParserTest {
 
@@ -90,4 +91,64 @@ public class PeriodValueParserTest {
     public void rejectsUnknownUnit() {
         parser.parseValue("18xx");
     }
+
+    @Test
+    public void parsesCompoundPeriods() {
+        String[] variants = {"1y6m", "1y 6m", "1 year 6 months"};
+        Period expected = Period.of(1, 6, 0);
+        for (String value : variants) {
+            assertThat(parser.parseValue(value), is(expected));
+        }
+        assertThat(parser.parseValue("-2w3d"), is(Period.ofDays(-17)));
+    }
+
+    @Test
+    public void rejectsFractionalPeriods() {
+        try {
+            parser.parseValue("1.5y");
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid period format: 1.5y"));
+        }
+    }
+
+    @Test
+    public void rejectsCompoundPeriodsWithoutUnits() {
+        for (String value : new String[] {"1y6", "6 1y", "1y "}) {
+            try {
+                parser.parseValue(value);
+                fail("Expected parsing to fail: " + value);
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), is("Invalid period format: " + value));
+            }
+        }
+    }
+
+    @Test
+    public void reportsOutOfRangeAmount() {
+        String[][] cases = {
+                {"99999999999999999999d", "99999999999999999999"},
+                {"-99999999999999999999 d", "-99999999999999999999"},
+                {"+99999999999999999999", "+99999999999999999999"},
+                {"1y 99999999999999999999d", "99999999999999999999"}
+        };
+        for (String[] c : cases) {
+            try {
+                parser.parseValue(c[0]);
+                fail("Expected parsing to fail: " + c[0]);
+            } catch (NumberFormatException e) {
+                assertThat(e.getMessage(), is("For input string: \"" + c[1] + "\""));
+            }
+        }
+    }
+
+    @Test
+    public void reportsUnknownUnit() {
+        try {
+            parser.parseValue("18xx");
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid period unit: xx"));
+        }
+    }
 }
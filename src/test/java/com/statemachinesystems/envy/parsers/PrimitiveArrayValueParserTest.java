@@ -0,0 +1,98 @@
+package com.statemachinesystems.envy.parsers;
+
+import com.statemachinesystems.envy.ValueParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class PrimitiveArrayValueParserTest {
+
+    @SuppressWarnings("unchecked")
+    private static <A> ValueParser<A> parser(Class<?> componentType, ValueParser<?> componentParser) {
+        return (ValueParser<A>) PrimitiveArrayValueParser.forComponentType(componentType, componentParser, ",");
+    }
+
+    private final ValueParser<int[]> intArrayParser = parser(int.class, new IntegerValueParser());
+    private final ValueParser<long[]> longArrayParser = parser(long.class, new LongValueParser());
+
+    @Test
+    public void parsesEmptyStringAsEmptyArray() {
+        assertArrayEquals(new int[] {}, intArrayParser.parseValue(""));
+    }
+
+    @Test
+    public void parsesCommaDelimitedInts() {
+        assertArrayEquals(new int[] {1, -2, 3, 2147483647, -2147483648},
+                intArrayParser.parseValue("1,-2,+3,2147483647,-2147483648"));
+    }
+
+    @Test
+    public void parsesCommaDelimitedLongs() {
+        assertArrayEquals(new long[] {9223372036854775807L, -9223372036854775808L, 42L},
+                longArrayParser.parseValue("9223372036854775807,-9223372036854775808,0000000000000000000042"));
+    }
+
+    @Test
+    public void parsesOtherPrimitiveTypes() {
+        assertArrayEquals(new short[] {1, -32768},
+                this.<short[]>parser(short.class, new ShortValueParser()).parseValue("1,-32768"));
+        assertArrayEquals(new byte[] {127, -1},
+                this.<byte[]>parser(byte.class, new ByteValueParser()).parseValue("127,-1"));
+        assertArrayEquals(new double[] {1.5, -2e3},
+                this.<double[]>parser(double.class, new DoubleValueParser()).parseValue("1.5,-2e3"), 0.0);
+        assertArrayEquals(new float[] {0.25f},
+                this.<float[]>parser(float.class, new FloatValueParser()).parseValue("0.25"), 0.0f);
+        assertArrayEquals(new char[] {'a', 'b'},
+                this.<char[]>parser(char.class, new CharacterValueParser()).parseValue("a,bc"));
+        assertTrue(Arrays.equals(new boolean[] {true, false, true},
+                this.<boolean[]>parser(boolean.class, new BooleanValueParser()).parseValue("true,off,YES")));
+    }
+
+    @Test
+    public void reportsSameErrorsAsComponentParser() {
+        for (String element : new String[] {"", "x", "2147483648", "1.0", "-"}) {
+            try {
+                intArrayParser.parseValue("1," + element);
+                fail("Expected parsing to fail: " + element);
+            } catch (NumberFormatException e) {
+                try {
+                    new IntegerValueParser().parseValue(element);
+                    fail("Expected parsing to fail: " + element);
+                } catch (NumberFormatException expected) {
+                    assertThat(e.getMessage(), is(expected.getMessage()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void usesCustomComponentParsers() {
+        ValueParser<Integer> hexParser = new ValueParser<Integer>() {
+            @Override
+            public Integer parseValue(String value) {
+                return Integer.parseInt(value, 16);
+            }
+
+            @Override
+            public Class<Integer> getValueClass() {
+                return Integer.class;
+            }
+        };
+
+        assertArrayEquals(new int[] {16, 255}, this.<int[]>parser(int.class, hexParser).parseValue("10,ff"));
+    }
+
+    @Test
+    public void supportsRegexSeparators() {
+        ValueParser<?> parser = PrimitiveArrayValueParser.forComponentType(int.class, new IntegerValueParser(), "\\s*;\\s*");
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) parser.parseValue("1 ; 2;3"));
+    }
+
+    @Test
+    public void hasValueClassOfPrimitiveArrayType() {
+        assertEquals(int[].class, intArrayParser.getValueClass());
+    }
+}
@@ -2,6 +2,8 @@ package com.statemachinesystems.envy.parsers;
 
 import org.junit.Test;
 
+import java.time.LocalDate;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -28,6 +30,33 @@ public class ReflectionValueParserTest {
         }
     }
 
+    public static class ClassWithValueOf {
+        final String value;
+        private ClassWithValueOf(String value) { this.value = value; }
+        public static ClassWithValueOf valueOf(String value) { return new ClassWithValueOf("valueOf:" + value); }
+        public static ClassWithValueOf fromString(String value) { return new ClassWithValueOf("fromString:" + value); }
+    }
+
+    public static class ClassWithParse {
+        final String value;
+        private ClassWithParse(String value) { this.value = value; }
+        public static ClassWithParse parse(CharSequence value) { return new ClassWithParse(value.toString()); }
+    }
+
+    public static class ClassWithCheckedExceptionThrowingFactory {
+        public static ClassWithCheckedExceptionThrowingFactory of(String value) throws Exception {
+            throw new Exception("bad value");
+        }
+    }
+
+    public static class ClassWithGenericFactory {
+        public static <T> ClassWithGenericFactory of(T value) { return new ClassWithGenericFactory(); }
+    }
+
+    public interface InterfaceWithFactory {
+        static InterfaceWithFactory valueOf(String value) { return null; }
+    }
+
     private static final ReflectionValueParser<ClassWithStringConstructor> parserForClassWithStringConstructor =
             ReflectionValueParser.parserOrNull(ClassWithStringConstructor.class);
 
@@ -69,4 +98,37 @@ public class ReflectionValueParserTest {
     public void throwsRuntimeExceptionWhenConstructionFails() {
         parserForClassWithExceptionThrowingConstructor.parseValue("foo");
     }
+
+    @Test
+    public void parsesClassWithValueOfInPreferenceToFromString() {
+        ClassWithValueOf value = ReflectionValueParser.parserOrNull(ClassWithValueOf.class).parseValue("foo");
+        assertThat(value.value, is("valueOf:foo"));
+    }
+
+    @Test
+    public void parsesClassWithCharSequenceParseMethod() {
+        ClassWithParse value = ReflectionValueParser.parserOrNull(ClassWithParse.class).parseValue("foo");
+        assertThat(value.value, is("foo"));
+    }
+
+    @Test
+    public void parsesJdkClassWithParseMethod() {
+        assertThat(ReflectionValueParser.parserOrNull(LocalDate.class).parseValue("2020-02-29"),
+                is(LocalDate.of(2020, 2, 29)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwsIllegalArgumentExceptionWhenFactoryMethodThrowsCheckedException() {
+        ReflectionValueParser.parserOrNull(ClassWithCheckedExceptionThrowingFactory.class).parseValue("foo");
+    }
+
+    @Test
+    public void rejectsClassWithGenericFactoryMethod() {
+        assertNull(ReflectionValueParser.parserOrNull(ClassWithGenericFactory.class));
+    }
+
+    @Test
+    public void rejectsInterfaceWithFactoryMethod() {
+        assertNull(ReflectionValueParser.parserOrNull(InterfaceWithFactory.class));
+    }
 }
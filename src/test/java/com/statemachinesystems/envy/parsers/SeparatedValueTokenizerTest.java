@@ -0,0 +1,68 @@
+package com.statemachinesystems.envy.parsers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SeparatedValueTokenizerTest {
+
+    private final SeparatedValueTokenizer tokenizer = new SeparatedValueTokenizer(",", true, true);
+
+    @Test
+    public void tokenizesEmptyAndBlankStringsAsNoElements() {
+        assertThat(tokenizer.tokenize(""), is(Collections.<String>emptyList()));
+        assertThat(tokenizer.tokenize("  "), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void trimsUnquotedElementsAndKeepsEmptyOnes() {
+        assertThat(tokenizer.tokenize(" a , b c ,, "), is(Arrays.asList("a", "b c", "", "")));
+    }
+
+    @Test
+    public void keepsQuotedElementsAsIs() {
+        assertThat(tokenizer.tokenize("\" a,b \" , \"\", \"say \\\"hi\\\"\""),
+                is(Arrays.asList(" a,b ", "", "say \"hi\"")));
+    }
+
+    @Test
+    public void unescapesUnquotedElements() {
+        assertThat(tokenizer.tokenize("a\\,b , c\\\\ , \\ d\\ "), is(Arrays.asList("a,b", "c\\", " d ")));
+    }
+
+    @Test
+    public void treatsQuotesInsideUnquotedElementsLiterally() {
+        assertThat(tokenizer.tokenize("a\"b,c"), is(Arrays.asList("a\"b", "c")));
+    }
+
+    @Test
+    public void supportsMultiCharacterSeparators() {
+        assertThat(new SeparatedValueTokenizer("::", true, true).tokenize("a : b :: c::\"d::e\""),
+                is(Arrays.asList("a : b", "c", "d::e")));
+    }
+
+    @Test
+    public void canDisableTrimmingAndQuoting() {
+        SeparatedValueTokenizer plain = new SeparatedValueTokenizer(",", false, false);
+        assertThat(plain.tokenize(" \"a\\, b\" "), is(Arrays.asList(" \"a\\", " b\" ")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnterminatedQuotes() {
+        tokenizer.tokenize("a, \"b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTextAfterClosingQuote() {
+        tokenizer.tokenize("\"a\"b, c");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIncompleteEscapes() {
+        tokenizer.tokenize("a\\");
+    }
+}